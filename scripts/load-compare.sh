@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Load comparison of the platform-thread (default) and virtual-thread modes.
+#
+# Starts the service jar once per mode, drives validate-order and /{id}/menu with `hey`
+# at high concurrency and prints requests/sec and p99 for each endpoint and mode.
+#
+# Menu snapshots are off by default (SNAPSHOTS=false), so that every request takes the blocking
+# MongoDB path: that is where a request thread waits and where virtual threads can differ. With
+# snapshots on, validate-order is answered from memory and both modes measure the same CPU work.
+#
+# Admission control is off by default (ADMISSION=false): every request targets one restaurant, whose
+# rate limit would otherwise answer most of them with 429 and measure the rejection path instead.
+#
+# Prerequisites: a Java 21 build (mvn -Pjava21 clean package -DskipTests), MongoDB with the
+# sample data loaded, and `hey` on the PATH (https://github.com/rakyll/hey).
+#
+# Usage: scripts/load-compare.sh [concurrency] [duration]
+set -euo pipefail
+
+CONCURRENCY=${1:-1000}
+DURATION=${2:-30s}
+PORT=${PORT:-8085}
+JAR=${JAR:-target/restaurant-menu-service-0.0.1-SNAPSHOT.jar}
+RESTAURANT_ID=${RESTAURANT_ID:-1}
+SNAPSHOTS=${SNAPSHOTS:-false}
+ADMISSION=${ADMISSION:-false}
+BASE_URL="http://localhost:${PORT}"
+ORDER="{\"restaurantId\":\"${RESTAURANT_ID}\",\"items\":[{\"itemId\":\"1\",\"quantity\":2},{\"itemId\":\"2\",\"quantity\":1}]}"
+
+wait_for_health() {
+  for _ in $(seq 1 60); do
+    if curl -fs "${BASE_URL}/actuator/health" > /dev/null; then
+      return 0
+    fi
+    sleep 1
+  done
+  echo "Service did not become healthy" >&2
+  return 1
+}
+
+run_hey() {
+  # $1 = label, remaining args passed to hey
+  local label=$1
+  shift
+  local out
+  out=$(hey -z "${DURATION}" -c "${CONCURRENCY}" "$@")
+  local rps p99
+  rps=$(echo "${out}" | awk '/Requests\/sec/ {print $2}')
+  p99=$(echo "${out}" | awk '/99% in/ {print $3}')
+  printf "%-18s %-16s %12s %12s\n" "${MODE}" "${label}" "${rps}" "${p99}s"
+}
+
+echo "snapshots: ${SNAPSHOTS}, admission control: ${ADMISSION}"
+printf "%-18s %-16s %12s %12s\n" "mode" "endpoint" "req/sec" "p99"
+for MODE in platform-threads virtual-threads; do
+  PROFILE=""
+  if [ "${MODE}" = "virtual-threads" ]; then
+    PROFILE="virtual-threads"
+  fi
+  SPRING_PROFILES_ACTIVE="${PROFILE}" java -jar "${JAR}" --server.port="${PORT}" \
+    --menu.snapshot.enabled="${SNAPSHOTS}" --menu.admission.enabled="${ADMISSION}" \
+    > "target/load-${MODE}.log" 2>&1 &
+  APP_PID=$!
+  trap 'kill ${APP_PID} 2> /dev/null || true' EXIT
+  wait_for_health
+
+  # Warm up JIT and caches before measuring
+  hey -n 2000 -c 50 -m POST -T application/json -d "${ORDER}" "${BASE_URL}/v1/restaurants/validate-order" > /dev/null
+
+  run_hey "validate-order" -m POST -T application/json -d "${ORDER}" "${BASE_URL}/v1/restaurants/validate-order"
+  run_hey "/{id}/menu" "${BASE_URL}/v1/restaurants/${RESTAURANT_ID}/menu"
+
+  kill "${APP_PID}"
+  wait "${APP_PID}" 2> /dev/null || true
+done
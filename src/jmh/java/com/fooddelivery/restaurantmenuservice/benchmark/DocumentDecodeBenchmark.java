@@ -0,0 +1,119 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fooddelivery.restaurantmenuservice.config.MongoConfig;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.repository.CatalogCodecs;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode time per menu_items document, from the BSON bytes the driver receives to the object the service uses:
+ * the mapping layer (entity and MenuItemPriceView projection) against the hand-written CatalogCodecs.
+ * The "projected" inputs hold only the fields the projection queries return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentDecodeBenchmark {
+
+    private static final int DOCUMENTS = 1000;
+    private static final DecoderContext CONTEXT = DecoderContext.builder().build();
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private RawBsonDocument[] full;
+    private RawBsonDocument[] projected;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(true);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        String[] categories = {"Main Course", "Starter", "Dessert", "Beverage"};
+        full = new RawBsonDocument[DOCUMENTS];
+        projected = new RawBsonDocument[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Document document = new Document("_id", new ObjectId())
+                    .append("restaurantId", "r" + i % 50)
+                    .append("name", "Item " + i)
+                    .append("price", 5000L + (i % 400) * 100)
+                    .append("isAvailable", i % 7 != 0);
+            projected[i] = new RawBsonDocument(document, documentCodec);
+            document.append("category", categories[i % categories.length])
+                    .append("_class", MenuItem.class.getName());
+            full[i] = new RawBsonDocument(document, documentCodec);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void mappedEntity(Blackhole blackhole) {
+        for (RawBsonDocument raw : full) {
+            blackhole.consume(converter.read(MenuItem.class, toDocument(raw)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void mappedPriceView(Blackhole blackhole) {
+        for (RawBsonDocument raw : projected) {
+            blackhole.consume(converter.read(MenuItemPriceView.class, toDocument(raw)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void codecEntity(Blackhole blackhole) {
+        for (RawBsonDocument raw : full) {
+            blackhole.consume(CatalogCodecs.MENU_ITEM.decode(reader(raw), CONTEXT));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void codecPriceView(Blackhole blackhole) {
+        for (RawBsonDocument raw : projected) {
+            blackhole.consume(CatalogCodecs.MENU_ITEM_PRICE_VIEW.decode(reader(raw), CONTEXT));
+        }
+    }
+
+    private Document toDocument(RawBsonDocument raw) {
+        return documentCodec.decode(reader(raw), CONTEXT);
+    }
+
+    private static BsonBinaryReader reader(RawBsonDocument raw) {
+        return new BsonBinaryReader(raw.getByteBuffer().asNIO());
+    }
+}
@@ -0,0 +1,47 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestaurantMenuService.getRestaurantMenu across menu sizes (service overhead only; repositories are stubs).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuReadBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int menuSize;
+
+    private RestaurantMenuService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubCatalog catalog = StubCatalog.generate(1, menuSize);
+        service = catalog.service(catalog.snapshotStore(), true);
+    }
+
+    @Benchmark
+    public List<MenuItem> getRestaurantMenu() {
+        return service.getRestaurantMenu("r0");
+    }
+}
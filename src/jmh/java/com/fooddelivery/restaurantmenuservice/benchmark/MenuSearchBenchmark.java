@@ -0,0 +1,132 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchRequest;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the menu search index over a synthetic catalog (1M items by default: 20,000 restaurants with 50
+ * items each). Names are two or three words drawn from a dish vocabulary, so a common word matches a few percent
+ * of the catalog, much as "chicken" does in a real one. Every query also computes the facets and the top 20.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MenuSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "chicken", "paneer", "mutton", "veg", "egg", "fish", "prawn", "mushroom", "aloo", "gobi",
+            "dal", "rajma", "chole", "palak", "kadai", "butter", "tikka", "masala", "biryani", "pulao",
+            "fried", "rice", "noodles", "manchurian", "chilli", "garlic", "naan", "roti", "paratha", "kulcha",
+            "dosa", "idli", "vada", "uttapam", "sambar", "soup", "salad", "roll", "wrap", "burger",
+            "pizza", "pasta", "sandwich", "momos", "spring", "kebab", "tandoori", "korma", "vindaloo", "curry",
+            "lassi", "coffee", "tea", "shake", "juice", "kulfi", "halwa", "gulab", "jamun", "brownie"};
+    private static final String[] CATEGORIES = {"Main Course", "Starter", "Dessert", "Beverage", "Bread", "Rice"};
+    private static final String[] CUISINES = {"North Indian", "South Indian", "Chinese", "Italian", "Mughlai",
+            "Street Food", "Continental", "Bengali", "Punjabi", "Hyderabadi", "Fast Food", "Cafe"};
+    private static final String[] CITIES = {"Bengaluru", "Mumbai", "Delhi", "Pune", "Chennai", "Hyderabad",
+            "Kolkata", "Ahmedabad", "Jaipur", "Lucknow", "Kochi", "Indore", "Chandigarh", "Surat", "Nagpur",
+            "Bhopal", "Patna", "Goa", "Mysuru", "Coimbatore"};
+    private static final int ITEMS_PER_RESTAURANT = 50;
+
+    @Param({"1000000"})
+    public int items;
+
+    private MenuSearchIndex index;
+    private MenuSearchRequest word;
+    private MenuSearchRequest twoWordsInCity;
+    private MenuSearchRequest prefix;
+    private MenuSearchRequest wordInCuisine;
+    private MenuSearchRequest filtersOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new MenuSearchIndex(List.of(new BigDecimal("100"), new BigDecimal("200"),
+                new BigDecimal("300"), new BigDecimal("500")));
+        int restaurants = Math.max(1, items / ITEMS_PER_RESTAURANT);
+        for (int r = 0; r < restaurants; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId("r" + r);
+            restaurant.setName("Restaurant " + r);
+            restaurant.setCuisine(CUISINES[random.nextInt(CUISINES.length)]);
+            restaurant.setCity(CITIES[random.nextInt(CITIES.length)]);
+            restaurant.setRating(3.0 + random.nextInt(21) / 10.0);
+            restaurant.setOpen(random.nextInt(10) != 0);
+            index.putRestaurant(restaurant);
+        }
+        for (int i = 0; i < items; i++) {
+            StringBuilder name = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+            for (int w = random.nextInt(2); w >= 0; w--) {
+                name.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            index.putItem(new MenuItem("i" + i, "r" + (i / ITEMS_PER_RESTAURANT), name.toString(),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], Money.ofMinor(5_000 + random.nextInt(60_000)),
+                    random.nextInt(8) != 0));
+        }
+
+        word = request("paneer", null, null, null, null);
+        twoWordsInCity = request("chicken biryani", null, null, "Pune", null);
+        prefix = request("chick", null, null, null, null);
+        wordInCuisine = request("noodles", null, "Chinese", null, null);
+        filtersOnly = request(null, "Dessert", null, "Mumbai", new BigDecimal("200"));
+    }
+
+    @Benchmark
+    public MenuSearchResult word() {
+        return index.search(word);
+    }
+
+    @Benchmark
+    public MenuSearchResult twoWordsInCity() {
+        return index.search(twoWordsInCity);
+    }
+
+    @Benchmark
+    public MenuSearchResult prefix() {
+        return index.search(prefix);
+    }
+
+    @Benchmark
+    public MenuSearchResult wordInCuisine() {
+        return index.search(wordInCuisine);
+    }
+
+    @Benchmark
+    public MenuSearchResult filtersOnly() {
+        return index.search(filtersOnly);
+    }
+
+    private static MenuSearchRequest request(String q, String category, String cuisine, String city, BigDecimal maxPrice) {
+        MenuSearchRequest request = new MenuSearchRequest();
+        request.setQ(q);
+        request.setCategory(category);
+        request.setCuisine(cuisine);
+        request.setCity(city);
+        request.setMaxPrice(maxPrice);
+        return request;
+    }
+}
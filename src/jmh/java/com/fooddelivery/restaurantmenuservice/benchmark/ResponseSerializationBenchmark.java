@@ -0,0 +1,51 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of OrderValidationResponse, using the same ObjectMapper defaults as Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    int cartSize;
+
+    private ObjectMapper objectMapper;
+    private OrderValidationResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubCatalog catalog = StubCatalog.generate(1, 100);
+        RestaurantMenuService service = catalog.service(catalog.snapshotStore(), true);
+        response = service.validateOrder(catalog.order("r0", cartSize));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,89 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantListingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-k queries on the per-city listings over a synthetic catalog (100,000 restaurants in 20 cities by default, 12
+ * cuisines), and the cost of a single restaurant write to a city listing. {@code closedShare} is the fraction of
+ * restaurants closed: about a third during the day, nearly all of them late at night, when an open filter that
+ * skipped closed restaurants would walk most of the city.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestaurantListingBenchmark {
+
+    private static final String[] CUISINES = {"North Indian", "South Indian", "Chinese", "Italian", "Mughlai",
+            "Street Food", "Continental", "Bengali", "Punjabi", "Hyderabadi", "Fast Food", "Cafe"};
+    private static final String[] CITIES = {"Bengaluru", "Mumbai", "Delhi", "Pune", "Chennai", "Hyderabad",
+            "Kolkata", "Ahmedabad", "Jaipur", "Lucknow", "Kochi", "Indore", "Chandigarh", "Surat", "Nagpur",
+            "Bhopal", "Patna", "Goa", "Mysuru", "Coimbatore"};
+
+    @Param({"100000"})
+    public int restaurants;
+
+    @Param({"0.33", "0.98"})
+    public double closedShare;
+
+    private RestaurantListingIndex index;
+    private Restaurant updated;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Restaurant> all = new ArrayList<>(restaurants);
+        for (int r = 0; r < restaurants; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId("r" + r);
+            restaurant.setName("Restaurant " + r);
+            restaurant.setCuisine(CUISINES[random.nextInt(CUISINES.length)]);
+            restaurant.setCity(CITIES[r % CITIES.length]);
+            restaurant.setRating(Math.round((2.5 + random.nextDouble() * 2.5) * 10) / 10.0);
+            restaurant.setOpen(random.nextDouble() >= closedShare);
+            all.add(restaurant);
+        }
+        index = RestaurantListingIndex.of(all);
+        updated = all.get(3);
+    }
+
+    @Benchmark
+    public List<Restaurant> topInCity() {
+        return index.top("Pune", null, null, 10);
+    }
+
+    @Benchmark
+    public List<Restaurant> topOpenInCity() {
+        return index.top("Pune", null, true, 10);
+    }
+
+    @Benchmark
+    public List<Restaurant> topOpenInCityByCuisine() {
+        return index.top("Pune", "Italian", true, 10);
+    }
+
+    @Benchmark
+    public void updateRestaurant() {
+        updated.setOpen(!updated.isOpen());
+        index.putRestaurant(updated);
+    }
+}
@@ -0,0 +1,169 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import com.fooddelivery.restaurantmenuservice.service.CityPartitioner;
+import com.fooddelivery.restaurantmenuservice.service.MenuReadCoalescer;
+import com.fooddelivery.restaurantmenuservice.service.MenuSearchService;
+import com.fooddelivery.restaurantmenuservice.service.MenuSnapshotStore;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantListingService;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import com.fooddelivery.restaurantmenuservice.service.ValidationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory catalog with stub repositories, so the benchmarks run without MongoDB.
+ * Only the finder methods the service actually calls are implemented.
+ */
+final class StubCatalog {
+
+    private final Map<String, Restaurant> restaurants = new LinkedHashMap<>();
+    private final Map<String, MenuItem> menuItems = new LinkedHashMap<>();
+    private final Map<String, List<MenuItem>> menus = new HashMap<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Builds {@code restaurantCount} open restaurants, each with {@code menuSize} available items. */
+    static StubCatalog generate(int restaurantCount, int menuSize) {
+        StubCatalog catalog = new StubCatalog();
+        String[] cities = {"Bengaluru", "Mumbai", "Delhi", "Pune", "Chennai", "Kolkata", "Hyderabad", "Ahmedabad"};
+        String[] categories = {"Main Course", "Starter", "Dessert", "Beverage"};
+        for (int r = 0; r < restaurantCount; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId("r" + r);
+            restaurant.setName("Restaurant " + r);
+            restaurant.setCuisine(r % 2 == 0 ? "Indian" : "Italian");
+            restaurant.setCity(cities[r % cities.length]);
+            restaurant.setRating(3.0 + (r % 20) / 10.0);
+            restaurant.setOpen(true);
+            catalog.addRestaurant(restaurant);
+            for (int i = 0; i < menuSize; i++) {
+                catalog.addMenuItem(new MenuItem("r" + r + "-i" + i, restaurant.getId(), "Item " + i,
+                        categories[i % categories.length], Money.ofMinor(5000 + (i % 400) * 100 + 25 * (i % 4)), true));
+            }
+        }
+        return catalog;
+    }
+
+    void addRestaurant(Restaurant restaurant) {
+        restaurants.put(restaurant.getId(), restaurant);
+    }
+
+    void addMenuItem(MenuItem menuItem) {
+        menuItems.put(menuItem.getId(), menuItem);
+        menus.computeIfAbsent(menuItem.getRestaurantId(), id -> new ArrayList<>()).add(menuItem);
+    }
+
+    /** An order for the first {@code cartSize} items of a restaurant (capped at its menu size, so it stays valid). */
+    OrderValidationRequest order(String restaurantId, int cartSize) {
+        List<MenuItem> menu = menus.getOrDefault(restaurantId, List.of());
+        List<OrderValidationRequest.ItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(cartSize, menu.size()); i++) {
+            items.add(new OrderValidationRequest.ItemRequest(menu.get(i).getId(), 1 + i % 3));
+        }
+        return new OrderValidationRequest(restaurantId, items);
+    }
+
+    /** A snapshot store over the stub repositories that never expires its snapshots. */
+    MenuSnapshotStore snapshotStore() {
+        return new MenuSnapshotStore(restaurantRepository(), menuItemRepository(), partitioner(), meterRegistry,
+                Duration.ofDays(1));
+    }
+
+    /** Partitioning off: every city is local. */
+    CityPartitioner partitioner() {
+        return new CityPartitioner(false, "", List.of(), 128);
+    }
+
+    RestaurantMenuService service(MenuSnapshotStore store, boolean snapshotsEnabled) {
+        return new RestaurantMenuService(restaurantRepository(), menuItemRepository(), store,
+                new MenuReadCoalescer(restaurantRepository(), menuItemRepository(), meterRegistry, Duration.ZERO),
+                new ValidationMetrics(meterRegistry),
+                new MenuSearchService(restaurantRepository(), menuItemRepository(), meterRegistry, false, List.of()),
+                new RestaurantListingService(restaurantRepository(), partitioner(), meterRegistry, false),
+                snapshotsEnabled, 1, 100);
+    }
+
+    RestaurantRepository restaurantRepository() {
+        return (RestaurantRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RestaurantRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(restaurants.get((String) args[0]));
+                    case "findAllById" -> select(restaurants, (Iterable<?>) args[0]);
+                    case "findStatusById" -> Optional.ofNullable(restaurants.get((String) args[0])).map(StubCatalog::status);
+                    case "findStatusByIdIn" -> select(restaurants, (Iterable<?>) args[0]).stream()
+                            .map(StubCatalog::status).toList();
+                    case "findAll" -> new ArrayList<>(restaurants.values());
+                    case "findByCity" -> restaurants.values().stream()
+                            .filter(restaurant -> args[0].equals(restaurant.getCity())).toList();
+                    case "count" -> (long) restaurants.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubRestaurantRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    MenuItemRepository menuItemRepository() {
+        return (MenuItemRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MenuItemRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(menuItems.get((String) args[0]));
+                    case "findByRestaurantId", "findMenuByRestaurantId" ->
+                            new ArrayList<>(menus.getOrDefault((String) args[0], List.of()));
+                    case "findPriceViewsByIdInAndRestaurantId" -> select(menuItems, (Collection<?>) args[0]).stream()
+                            .filter(menuItem -> args[1].equals(menuItem.getRestaurantId()))
+                            .map(StubCatalog::priceView).toList();
+                    case "findPriceViewsByIdIn" -> select(menuItems, (Collection<?>) args[0]).stream()
+                            .map(StubCatalog::priceView).toList();
+                    case "findAllById" -> select(menuItems, (Iterable<?>) args[0]);
+                    case "findByRestaurantIdIn", "findMenuByRestaurantIdIn" -> {
+                        List<MenuItem> result = new ArrayList<>();
+                        for (Object restaurantId : (Collection<?>) args[0]) {
+                            result.addAll(menus.getOrDefault((String) restaurantId, List.of()));
+                        }
+                        yield result;
+                    }
+                    case "count" -> (long) menuItems.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubMenuItemRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static RestaurantStatusView status(Restaurant restaurant) {
+        return new RestaurantStatusView(restaurant.getId(), restaurant.isOpen(), restaurant.getCity());
+    }
+
+    private static MenuItemPriceView priceView(MenuItem menuItem) {
+        return new MenuItemPriceView(menuItem.getId(), menuItem.getRestaurantId(), menuItem.getName(),
+                menuItem.getPrice(), menuItem.isAvailable());
+    }
+
+    private static <T> List<T> select(Map<String, T> source, Iterable<?> ids) {
+        // Like $in, each matching document is returned once however often its id is repeated
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Object id : ids) {
+            T value = source.get((String) id);
+            if (value != null) {
+                result.putIfAbsent((String) id, value);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+}
@@ -0,0 +1,67 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.service.MenuSnapshotStore;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestaurantMenuService.validateOrder across cart and menu sizes.
+ * {@code snapshot} measures the in-memory hot path; {@code direct} the snapshot-disabled path through the
+ * (stub) repositories. Carts larger than the menu are capped at the menu size so every order is valid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateOrderBenchmark {
+
+    @Param({"1", "10", "100"})
+    int cartSize;
+
+    @Param({"10", "100", "1000", "10000"})
+    int menuSize;
+
+    private RestaurantMenuService snapshotService;
+    private RestaurantMenuService directService;
+    private OrderValidationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubCatalog catalog = StubCatalog.generate(1, menuSize);
+        MenuSnapshotStore store = catalog.snapshotStore();
+        snapshotService = catalog.service(store, true);
+        directService = catalog.service(store, false);
+        request = catalog.order("r0", cartSize);
+
+        if (!snapshotService.validateOrder(request).isValid()) {
+            throw new IllegalStateException("Benchmark order must be valid");
+        }
+    }
+
+    @Benchmark
+    public OrderValidationResponse snapshot() {
+        return snapshotService.validateOrder(request);
+    }
+
+    @Benchmark
+    public OrderValidationResponse direct() {
+        return directService.validateOrder(request);
+    }
+}
@@ -0,0 +1,220 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurantmenuservice.config.ProtobufCodecConfig;
+import com.fooddelivery.restaurantmenuservice.controller.OrderValidationGrpc;
+import com.fooddelivery.restaurantmenuservice.controller.OrderValidationGrpcService;
+import com.fooddelivery.restaurantmenuservice.controller.OrderValidationProtobuf;
+import com.fooddelivery.restaurantmenuservice.controller.RestaurantMenuController;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.service.AdmissionControl;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One validate-order round trip over loopback, from a client in the benchmark process: REST (Tomcat, Spring MVC,
+ * HTTP/1.1 keep-alive) with JSON and with Protobuf bodies, gRPC unary, and gRPC streaming with {@value #PIPELINE}
+ * requests in flight on one HTTP/2 stream. The server side is the real controller and gRPC service over the
+ * in-memory snapshot path, with admission control off, so the difference is transport and encoding.
+ *
+ * Run with {@code -bm sample} for latency percentiles and {@code -t 4} to share the connections between threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateOrderTransportBenchmark {
+
+    static final int PIPELINE = 32;
+
+    @Param({"10"})
+    int cartSize;
+
+    private ConfigurableApplicationContext rest;
+    private Server grpcServer;
+    private ManagedChannel channel;
+    private HttpClient httpClient;
+    private ObjectMapper objectMapper;
+    private HttpRequest jsonRequest;
+    private HttpRequest protobufRequest;
+    private OrderValidationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        StubCatalog catalog = StubCatalog.generate(1, 100);
+        RestaurantMenuService service = catalog.service(catalog.snapshotStore(), true);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControl admissionControl = new AdmissionControl(meterRegistry, false, 200, 400, 10_000,
+                Duration.ofMillis(100), 100, 10, 1000);
+        request = catalog.order("r0", cartSize);
+
+        rest = new SpringApplicationBuilder(RestServer.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=warn")
+                .initializers(context -> {
+                    context.getBeanFactory().registerSingleton("restaurantMenuService", service);
+                    context.getBeanFactory().registerSingleton("admissionControl", admissionControl);
+                    context.getBeanFactory().registerSingleton("meterRegistry", meterRegistry);
+                })
+                .run();
+        int restPort = ((ServletWebServerApplicationContext) rest).getWebServer().getPort();
+        objectMapper = rest.getBean(ObjectMapper.class);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + restPort + "/v1/restaurants/validate-order");
+        jsonRequest = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+                .build();
+        protobufRequest = HttpRequest.newBuilder(uri)
+                .header("Content-Type", OrderValidationProtobuf.MEDIA_TYPE_VALUE)
+                .header("Accept", OrderValidationProtobuf.MEDIA_TYPE_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(OrderValidationProtobuf.encode(request)))
+                .build();
+
+        grpcServer = NettyServerBuilder.forPort(0)
+                .addService(new OrderValidationGrpcService(service, admissionControl))
+                .build()
+                .start();
+        channel = NettyChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+
+        if (!restJson().isValid() || !restProtobuf().isValid() || !grpcUnary().isValid()) {
+            throw new IllegalStateException("Benchmark order must be valid");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        grpcServer.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        rest.close();
+    }
+
+    @Benchmark
+    public OrderValidationResponse restJson() throws Exception {
+        byte[] body = httpClient.send(jsonRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+        return objectMapper.readValue(body, OrderValidationResponse.class);
+    }
+
+    @Benchmark
+    public OrderValidationResponse restProtobuf() throws Exception {
+        byte[] body = httpClient.send(protobufRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+        return (OrderValidationResponse) OrderValidationProtobuf.decode(body, OrderValidationResponse.class);
+    }
+
+    @Benchmark
+    public OrderValidationResponse grpcUnary() {
+        return ClientCalls.blockingUnaryCall(channel, OrderValidationGrpc.VALIDATE_ORDER, CallOptions.DEFAULT, request);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public void grpcStream(Pipeline pipeline) throws InterruptedException {
+        pipeline.validate(request);
+    }
+
+    /** One long-lived ValidateOrderStream call per benchmark thread. */
+    @State(Scope.Thread)
+    public static class Pipeline {
+
+        private StreamObserver<OrderValidationRequest> requests;
+        private volatile CountDownLatch pending;
+        private volatile Throwable failure;
+
+        @Setup(Level.Trial)
+        public void open(ValidateOrderTransportBenchmark benchmark) {
+            ClientCall<OrderValidationRequest, OrderValidationResponse> call =
+                    benchmark.channel.newCall(OrderValidationGrpc.VALIDATE_ORDER_STREAM, CallOptions.DEFAULT);
+            requests = ClientCalls.asyncBidiStreamingCall(call, new StreamObserver<>() {
+                @Override
+                public void onNext(OrderValidationResponse response) {
+                    pending.countDown();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    failure = t;
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            });
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            requests.onCompleted();
+        }
+
+        void validate(OrderValidationRequest request) throws InterruptedException {
+            CountDownLatch latch = new CountDownLatch(PIPELINE);
+            pending = latch;
+            for (int i = 0; i < PIPELINE; i++) {
+                requests.onNext(request);
+            }
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Validation stream stalled", failure);
+            }
+        }
+    }
+
+    /** Just the servlet controller and its Spring MVC/Jackson setup; the service beans are registered by setUp. */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @ComponentScan(basePackageClasses = RestaurantMenuController.class, useDefaultFilters = false,
+            includeFilters = @ComponentScan.Filter(type = FilterType.REGEX,
+                    pattern = ".*\\.controller\\.(RestaurantMenuController|MenuBodyCache)"))
+    @Import(ProtobufCodecConfig.class)
+    static class RestServer {
+    }
+}
@@ -0,0 +1,87 @@
+package com.fooddelivery.restaurantmenuservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurantmenuservice.controller.OrderValidationProtobuf;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against protobuf for one validate-order call, split by side: the server decodes the request and encodes the
+ * response, the Order Service encodes the request and decodes the response. Message sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1", "10", "100"})
+    int cartSize;
+
+    private ObjectMapper objectMapper;
+    private OrderValidationRequest request;
+    private OrderValidationResponse response;
+    private byte[] jsonRequest;
+    private byte[] jsonResponse;
+    private byte[] protobufRequest;
+    private byte[] protobufResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        StubCatalog catalog = StubCatalog.generate(1, 100);
+        RestaurantMenuService service = catalog.service(catalog.snapshotStore(), true);
+        request = catalog.order("r0", cartSize);
+        response = service.validateOrder(request);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        jsonRequest = objectMapper.writeValueAsBytes(request);
+        jsonResponse = objectMapper.writeValueAsBytes(response);
+        protobufRequest = OrderValidationProtobuf.encode(request);
+        protobufResponse = OrderValidationProtobuf.encode(response);
+        System.out.printf("%n%d items: request %d B JSON, %d B protobuf; response %d B JSON, %d B protobuf%n",
+                cartSize, jsonRequest.length, protobufRequest.length, jsonResponse.length, protobufResponse.length);
+    }
+
+    @Benchmark
+    public void jsonServer(Blackhole blackhole) throws Exception {
+        blackhole.consume(objectMapper.readValue(jsonRequest, OrderValidationRequest.class));
+        blackhole.consume(objectMapper.writeValueAsBytes(response));
+    }
+
+    @Benchmark
+    public void protobufServer(Blackhole blackhole) {
+        blackhole.consume(OrderValidationProtobuf.decode(protobufRequest, OrderValidationRequest.class));
+        blackhole.consume(OrderValidationProtobuf.encode(response));
+    }
+
+    @Benchmark
+    public void jsonClient(Blackhole blackhole) throws Exception {
+        blackhole.consume(objectMapper.writeValueAsBytes(request));
+        blackhole.consume(objectMapper.readValue(jsonResponse, OrderValidationResponse.class));
+    }
+
+    @Benchmark
+    public void protobufClient(Blackhole blackhole) {
+        blackhole.consume(OrderValidationProtobuf.encode(request));
+        blackhole.consume(OrderValidationProtobuf.decode(protobufResponse, OrderValidationResponse.class));
+    }
+}
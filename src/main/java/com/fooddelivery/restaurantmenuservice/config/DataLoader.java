@@ -1,27 +1,23 @@
 package com.fooddelivery.restaurantmenuservice.config;
 
-import com.fooddelivery.restaurantmenuservice.model.MenuItem;
-import com.fooddelivery.restaurantmenuservice.model.Restaurant;
-import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.dto.CatalogImportResult;
 import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import com.fooddelivery.restaurantmenuservice.service.CatalogImporter;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.InputStream;
 
 @Component
 public class DataLoader implements CommandLineRunner {
 
     private final RestaurantRepository restaurantRepository;
-    private final MenuItemRepository menuItemRepository;
+    private final CatalogImporter catalogImporter;
 
-    public DataLoader(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository) {
+    public DataLoader(RestaurantRepository restaurantRepository, CatalogImporter catalogImporter) {
         this.restaurantRepository = restaurantRepository;
-        this.menuItemRepository = menuItemRepository;
+        this.catalogImporter = catalogImporter;
     }
 
     @Override
@@ -38,58 +34,17 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private void loadRestaurants() throws Exception {
-        ClassPathResource resource = new ClassPathResource("initial_data/restaurants.csv");
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
-            String line;
-            boolean isHeader = true;
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-            while ((line = br.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-
-                String[] values = line.split(",");
-                Restaurant restaurant = new Restaurant();
-                restaurant.setId(values[0]);
-                restaurant.setName(values[1]);
-                restaurant.setCuisine(values[2]);
-                restaurant.setCity(values[3]);
-                restaurant.setRating(Double.parseDouble(values[4]));
-                restaurant.setOpen(Boolean.parseBoolean(values[5]));
-                restaurant.setCreatedAt(LocalDateTime.parse(values[6], formatter));
-
-                restaurantRepository.save(restaurant);
-            }
+        try (InputStream csv = new ClassPathResource("initial_data/restaurants.csv").getInputStream()) {
+            // The collection is empty, so plain bulk inserts are enough
+            CatalogImportResult result = catalogImporter.importRestaurants(csv, false);
+            System.out.println("Loaded " + result.getInserted() + " restaurants (" + result.getRowsPerSecond() + " rows/s)");
         }
-        System.out.println("Loaded " + restaurantRepository.count() + " restaurants");
     }
 
     private void loadMenuItems() throws Exception {
-        ClassPathResource resource = new ClassPathResource("initial_data/menu_items.csv");
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
-            String line;
-            boolean isHeader = true;
-
-            while ((line = br.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-
-                String[] values = line.split(",");
-                MenuItem menuItem = new MenuItem();
-                menuItem.setId(values[0]);
-                menuItem.setRestaurantId(values[1]);
-                menuItem.setName(values[2]);
-                menuItem.setCategory(values[3]);
-                menuItem.setPrice(Double.parseDouble(values[4]));
-                menuItem.setAvailable(Boolean.parseBoolean(values[5]));
-
-                menuItemRepository.save(menuItem);
-            }
+        try (InputStream csv = new ClassPathResource("initial_data/menu_items.csv").getInputStream()) {
+            CatalogImportResult result = catalogImporter.importMenuItems(csv, false);
+            System.out.println("Loaded " + result.getInserted() + " menu items (" + result.getRowsPerSecond() + " rows/s)");
         }
-        System.out.println("Loaded " + menuItemRepository.count() + " menu items");
     }
 }
@@ -0,0 +1,65 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+@Configuration
+@EnableMongoAuditing // Optional, but good for tracking dates
+public class MongoConfig {
+
+    /**
+     * Money is read from either format: an int64 of minor units, or the legacy double of major units. It is written
+     * as a double until menu.price.write-minor-units is set, so the switch rolls out in two deploys: first every
+     * replica learns to read int64 while still writing doubles, then int64 writes (and PriceMinorUnitsMigration)
+     * are turned on. A replica of the previous release would read an int64 price as rupees, hence the two steps.
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(
+            @Value("${menu.price.write-minor-units:false}") boolean writeMinorUnits) {
+        return new MongoCustomConversions(List.of(
+                writeMinorUnits ? new MoneyToLongConverter() : new MoneyToDoubleConverter(),
+                new LongToMoneyConverter(),
+                new DoubleToMoneyConverter()));
+    }
+
+    @WritingConverter
+    static class MoneyToLongConverter implements Converter<Money, Long> {
+        @Override
+        public Long convert(Money source) {
+            return source.getMinorUnits();
+        }
+    }
+
+    @WritingConverter
+    static class MoneyToDoubleConverter implements Converter<Money, Double> {
+        @Override
+        public Double convert(Money source) {
+            return source.toBigDecimal().doubleValue();
+        }
+    }
+
+    @ReadingConverter
+    static class LongToMoneyConverter implements Converter<Long, Money> {
+        @Override
+        public Money convert(Long source) {
+            return Money.ofMinor(source);
+        }
+    }
+
+    @ReadingConverter
+    static class DoubleToMoneyConverter implements Converter<Double, Money> {
+        @Override
+        public Money convert(Double source) {
+            return Money.fromDouble(source);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the MongoDB connection pool. In the virtual-thread mode every request gets its own thread,
+ * so the pool (not Tomcat's worker pool) decides how many Mongo calls run at once.
+ *
+ * With the "reactive" profile the reactive MongoClient gets a pool of its own, sized by the same settings, next to
+ * the blocking client that the snapshot store and the indexes still use; budget twice the connections per pod.
+ */
+@Configuration
+public class MongoPoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoPoolConfig.class);
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${menu.mongo.max-pool-size:100}") int maxPoolSize,
+            @Value("${menu.mongo.max-wait-time:PT2M}") Duration maxWaitTime,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; requests stay on platform threads",
+                    Runtime.version().feature());
+        }
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,65 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off rewrite of legacy menu item prices from a double of major units (240.86) to an int64 of minor
+ * units (24086), the format Money is written in. Runs as a single server-side updateMany, touches only documents
+ * whose price is still a double, and is therefore safe to re-run. Enable with menu.migration.price-minor-units.enabled,
+ * which is refused unless menu.price.write-minor-units is on too: this is the second step of the rollout described in
+ * MongoConfig, and replicas still writing doubles would undo it.
+ */
+@Component
+@ConditionalOnProperty(name = "menu.migration.price-minor-units.enabled", havingValue = "true")
+public class PriceMinorUnitsMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceMinorUnitsMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean writeMinorUnits;
+
+    public PriceMinorUnitsMigration(MongoTemplate mongoTemplate,
+                                    @Value("${menu.price.write-minor-units:false}") boolean writeMinorUnits) {
+        this.mongoTemplate = mongoTemplate;
+        this.writeMinorUnits = writeMinorUnits;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!writeMinorUnits) {
+            throw new IllegalStateException("menu.migration.price-minor-units.enabled needs "
+                    + "menu.price.write-minor-units=true; enable int64 writes on every replica first");
+        }
+        Document legacyPrice = new Document("price", new Document("$type", "double"));
+        List<Document> pipeline = List.of(new Document("$set", new Document("price", minorUnits("$price"))));
+
+        UpdateResult result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(MenuItem.class))
+                .updateMany(legacyPrice, pipeline);
+        log.info("Converted {} menu item prices to minor units", result.getModifiedCount());
+    }
+
+    /**
+     * The aggregation expression for {@code price} in minor units, rounded half up (away from zero) like
+     * {@code Money.of}: trunc(price * 100 ± 0.5), where $round would round half to even (0.125 to 12, not 13).
+     * $toDecimal comes first, so 240.86 * 100 is computed on the decimal value rather than on its binary
+     * approximation.
+     */
+    static Document minorUnits(String price) {
+        Document cents = new Document("$multiply", List.of(new Document("$toDecimal", price), 100));
+        Document half = new Document("$cond", List.of(new Document("$lt", List.of(cents, 0)),
+                new Document("$toDecimal", "-0.5"), new Document("$toDecimal", "0.5")));
+        return new Document("$toLong", new Document("$trunc", new Document("$add", List.of(cents, half))));
+    }
+}
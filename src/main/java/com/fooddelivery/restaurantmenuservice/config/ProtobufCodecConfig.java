@@ -0,0 +1,133 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import com.fooddelivery.restaurantmenuservice.controller.OrderValidationProtobuf;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.MimeType;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers the {@code application/x-protobuf} wire format of validate-order ({@link OrderValidationProtobuf}) with
+ * Spring MVC or WebFlux, whichever stack is running. JSON stays the default: the converter is added after the
+ * JSON one, and the endpoint lists JSON first in {@code produces}, so only callers that ask for protobuf get it.
+ */
+@Configuration
+public class ProtobufCodecConfig {
+
+    @Bean
+    @Profile("!reactive")
+    public WebMvcConfigurer protobufMessageConverterConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new ProtobufHttpMessageConverter());
+            }
+        };
+    }
+
+    @Bean
+    @Profile("reactive")
+    public CodecCustomizer protobufCodecCustomizer() {
+        return configurer -> {
+            configurer.customCodecs().register(new ProtobufDecoder());
+            configurer.customCodecs().register(new ProtobufEncoder());
+        };
+    }
+
+    private static final class ProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+        ProtobufHttpMessageConverter() {
+            super(OrderValidationProtobuf.MEDIA_TYPE);
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return OrderValidationProtobuf.supports(clazz);
+        }
+
+        @Override
+        protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+            try {
+                return OrderValidationProtobuf.decode(inputMessage.getBody().readAllBytes(), clazz);
+            } catch (IllegalArgumentException e) {
+                throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+            }
+        }
+
+        @Override
+        protected void writeInternal(Object message, HttpOutputMessage outputMessage) throws IOException {
+            byte[] bytes = OrderValidationProtobuf.encode(message);
+            outputMessage.getHeaders().setContentLength(bytes.length);
+            outputMessage.getBody().write(bytes);
+        }
+    }
+
+    private static final class ProtobufDecoder extends AbstractDataBufferDecoder<Object> {
+
+        ProtobufDecoder() {
+            super(OrderValidationProtobuf.MEDIA_TYPE);
+        }
+
+        @Override
+        public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+            return OrderValidationProtobuf.supports(elementType.toClass()) && super.canDecode(elementType, mimeType);
+        }
+
+        @Override
+        public Object decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                return OrderValidationProtobuf.decode(bytes, targetType.toClass());
+            } catch (IllegalArgumentException e) {
+                throw new DecodingException(e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+
+    private static final class ProtobufEncoder extends AbstractEncoder<Object> {
+
+        ProtobufEncoder() {
+            super(OrderValidationProtobuf.MEDIA_TYPE);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return OrderValidationProtobuf.supports(elementType.toClass()) && super.canEncode(elementType, mimeType);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+        }
+
+        @Override
+        public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                      MimeType mimeType, Map<String, Object> hints) {
+            return bufferFactory.wrap(OrderValidationProtobuf.encode(value));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+/**
+ * Runs the "reactive" profile on Reactor Netty. Tomcat is on the classpath for the servlet stack and would
+ * otherwise be chosen for WebFlux as well, giving up the small event-loop thread model.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Resolves Pageable (page, size, sort) for WebFlux controllers; Spring Boot only registers this for MVC.
+     * Uses the same size limits as the servlet stack.
+     */
+    @Bean
+    public WebFluxConfigurer pageableArgumentResolverConfigurer(
+            @Value("${spring.data.web.pageable.default-page-size:20}") int defaultPageSize,
+            @Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
+        ReactivePageableHandlerMethodArgumentResolver resolver = new ReactivePageableHandlerMethodArgumentResolver();
+        resolver.setMaxPageSize(maxPageSize);
+        resolver.setFallbackPageable(PageRequest.of(0, defaultPageSize));
+        return new WebFluxConfigurer() {
+            @Override
+            public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+                configurer.addCustomResolver(resolver);
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.CatalogImportResult;
+import com.fooddelivery.restaurantmenuservice.service.CatalogImporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Admin endpoints for bulk catalog uploads in the same CSV format as src/main/resources/initial_data.
+ * Files are streamed through {@link CatalogImporter}, never loaded into memory as a whole.
+ */
+@RestController
+@RequestMapping("/v1/admin/import")
+@Profile("!reactive")
+@Tag(name = "Catalog Import", description = "Admin APIs for bulk CSV imports")
+public class CatalogImportController {
+
+    private final CatalogImporter importer;
+
+    public CatalogImportController(CatalogImporter importer) {
+        this.importer = importer;
+    }
+
+    @Operation(summary = "Import Restaurants", description = "Admin endpoint to bulk import restaurants from a CSV file")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "File imported - inspect rejected/errors for skipped rows"),
+        @ApiResponse(responseCode = "400", description = "No file uploaded")
+    })
+    @PostMapping(value = "/restaurants", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CatalogImportResult> importRestaurants(
+        @Parameter(description = "CSV file with header restaurant_id,name,cuisine,city,rating,is_open,created_at") @RequestParam("file") MultipartFile file,
+        @Parameter(description = "Update existing restaurants instead of failing on duplicate ids") @RequestParam(defaultValue = "true") boolean upsert) throws IOException {
+        try (InputStream csv = open(file)) {
+            return ResponseEntity.ok(importer.importRestaurants(csv, upsert));
+        }
+    }
+
+    @Operation(summary = "Import Menu Items", description = "Admin endpoint to bulk import menu items from a CSV file")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "File imported - inspect rejected/errors for skipped rows"),
+        @ApiResponse(responseCode = "400", description = "No file uploaded")
+    })
+    @PostMapping(value = "/menu-items", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CatalogImportResult> importMenuItems(
+        @Parameter(description = "CSV file with header item_id,restaurant_id,name,category,price,is_available") @RequestParam("file") MultipartFile file,
+        @Parameter(description = "Update existing menu items instead of failing on duplicate ids") @RequestParam(defaultValue = "true") boolean upsert) throws IOException {
+        try (InputStream csv = open(file)) {
+            return ResponseEntity.ok(importer.importMenuItems(csv, upsert));
+        }
+    }
+
+    private static InputStream open(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Uploaded file is empty.");
+        }
+        return file.getInputStream();
+    }
+}
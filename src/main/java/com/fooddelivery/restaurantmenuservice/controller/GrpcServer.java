@@ -0,0 +1,83 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link OrderValidationGrpcService} over HTTP/2 (plaintext, as the REST port is) on
+ * {@code menu.grpc.port}, next to the REST endpoints. One long-lived connection from the Order Service carries
+ * all of its validations; clients may send keepalive pings as often as {@code menu.grpc.permit-keep-alive-time}.
+ * On shutdown, calls in flight get {@code menu.grpc.shutdown-grace} to finish.
+ */
+@Component
+@ConditionalOnProperty(name = "menu.grpc.enabled", havingValue = "true")
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final OrderValidationGrpcService orderValidation;
+    private final int port;
+    private final Duration permitKeepAliveTime;
+    private final Duration shutdownGrace;
+
+    private volatile Server server;
+
+    public GrpcServer(OrderValidationGrpcService orderValidation,
+                      @Value("${menu.grpc.port:9085}") int port,
+                      @Value("${menu.grpc.permit-keep-alive-time:PT30S}") Duration permitKeepAliveTime,
+                      @Value("${menu.grpc.shutdown-grace:PT10S}") Duration shutdownGrace) {
+        this.orderValidation = orderValidation;
+        this.port = port;
+        this.permitKeepAliveTime = permitKeepAliveTime;
+        this.shutdownGrace = shutdownGrace;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .addService(orderValidation)
+                    .permitKeepAliveTime(permitKeepAliveTime.toMillis(), TimeUnit.MILLISECONDS)
+                    .permitKeepAliveWithoutCalls(true)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,179 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send bodies of {@code GET /v1/restaurants/{id}/menu}: the JSON bytes, and their gzip encoding once a
+ * client asks for it. A hot menu is serialized once per change instead of once per request.
+ *
+ * Entries are keyed by restaurant and tagged with the menu ETag they were encoded from. A write replaces the
+ * snapshot and so changes its ETag, and the next read re-encodes just that restaurant; nothing has to be
+ * invalidated explicitly. The cache holds at most {@code menu.http.menu-body-cache-size} restaurants. Past that an
+ * arbitrary entry is evicted per insert, which keeps no per-read bookkeeping; hot menus are re-encoded on their
+ * next read and stay.
+ */
+@Component
+class MenuBodyCache {
+
+    // Below this, gzip saves too little to be worth the Content-Encoding (Tomcat's default threshold is 2 KB)
+    static final int MIN_GZIP_BYTES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final ConcurrentMap<String, EncodedMenu> bodies = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    MenuBodyCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                  @Value("${menu.http.menu-body-cache-size:1000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("menu.body.cache.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("menu.body.cache.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    /** Returns the encoded menu of {@code menu}, serializing it only if the cached body is missing or outdated. */
+    EncodedMenu get(RestaurantSnapshot menu) {
+        String etag = menu.getMenuETag();
+        EncodedMenu cached = bodies.get(menu.getRestaurantId());
+        if (cached != null && cached.etag.equals(etag)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        EncodedMenu encoded = new EncodedMenu(etag, serialize(menu));
+        if (maxEntries > 0) {
+            if (bodies.size() >= maxEntries && cached == null) {
+                Iterator<String> keys = bodies.keySet().iterator();
+                if (keys.hasNext()) {
+                    bodies.remove(keys.next());
+                }
+            }
+            bodies.put(menu.getRestaurantId(), encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * The form of {@code etag} listed in If-None-Match, or null if the header lists neither form (nor "*"). The
+     * comparison is weak, as If-None-Match requires, so the gzip variant's {@code W/} tag matches as well. The 304
+     * echoes the matched form: a client holding the weak tag of the gzip body gets the weak tag back.
+     *
+     * Matched here rather than with checkNotModified, which sets an ETag header of its own next to the one of the
+     * 200 response (and one that ignores the variant).
+     */
+    static String matchingETag(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*")) {
+                    return etag;
+                }
+                if ((tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                    return tag;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Whether an Accept-Encoding header allows gzip, i.e. lists "gzip" or "*" without {@code q=0}. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parameters < 0 || !coding.substring(parameters + 1).replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private byte[] serialize(RestaurantSnapshot menu) {
+        try {
+            return objectMapper.writeValueAsBytes(menu.toMenuItems());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu of restaurant " + menu.getRestaurantId(), e);
+        }
+    }
+
+    /** One menu body in its encodings. Immutable apart from the gzip bytes, which are filled in on first use. */
+    static final class EncodedMenu {
+
+        private final String etag;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        EncodedMenu(String etag, byte[] json) {
+            this.etag = etag;
+            this.json = json;
+        }
+
+        /**
+         * A 200 response carrying the raw bytes, gzip-encoded when the client accepts it and the body is large
+         * enough. The bytes are written to the response as they are; no message converter re-encodes them.
+         */
+        ResponseEntity<byte[]> toResponse(String acceptEncoding, CacheControl cacheControl) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            byte[] compressed = acceptsGzip(acceptEncoding) ? gzip() : null;
+            if (compressed != null) {
+                // Different bytes than the identity body, so the strong tag becomes weak (as nginx does);
+                // If-None-Match uses weak comparison, so it still yields 304 for either variant
+                return response.eTag("W/" + etag).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(compressed);
+            }
+            return response.eTag(etag).body(json);
+        }
+
+        /** The gzip encoding, or null if the body is too small to be worth compressing. */
+        byte[] gzip() {
+            if (json.length < MIN_GZIP_BYTES) {
+                return null;
+            }
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                // Racing threads produce identical bytes, so the last write wins harmlessly
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        private static byte[] compress(byte[] bytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control of menu responses, shared by the servlet and reactive controllers.
+ */
+final class MenuCacheControl {
+
+    private MenuCacheControl() {
+    }
+
+    /**
+     * With a zero max-age (the default) clients and proxies may keep the menu but must revalidate it on every use,
+     * which is a cheap 304 while the ETag still matches. A positive max-age lets them skip even that request,
+     * at the price of showing availability changes up to that much later.
+     */
+    static CacheControl of(Duration maxAge) {
+        return (maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge)).cachePublic();
+    }
+}
@@ -0,0 +1,68 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchRequest;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchResult;
+import com.fooddelivery.restaurantmenuservice.service.MenuSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+
+/**
+ * Menu item search across restaurants. Queries run against the in-memory {@code MenuSearchIndex} and never touch
+ * MongoDB, so the same controller serves both the servlet and the reactive stack.
+ */
+@RestController
+@RequestMapping("/v1/menu-items")
+@Tag(name = "Menu Search", description = "Full-text and faceted search over all menu items")
+public class MenuSearchController {
+
+    // Whole units whose minor units fit in a long however they are rounded
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE / 100 - 1);
+
+    private final MenuSearchService searchService;
+    private final int maxLimit;
+
+    public MenuSearchController(MenuSearchService searchService,
+                                @Value("${menu.search.max-limit:100}") int maxLimit) {
+        this.searchService = searchService;
+        this.maxLimit = maxLimit;
+    }
+
+    @Operation(summary = "Search Menu Items", description = "Search items by name, category, cuisine or city (q; the last word also matches as a prefix), filter by category, cuisine, city, restaurantId, minPrice, maxPrice and available, and get category and price facets over all matches")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Best matches first, with facets over all matches"),
+        @ApiResponse(responseCode = "400", description = "limit or a price out of range, or minPrice greater than maxPrice"),
+        @ApiResponse(responseCode = "503", description = "Search index is still loading")
+    })
+    @GetMapping("/search")
+    public MenuSearchResult search(@ParameterObject MenuSearchRequest request) {
+        if (request.getLimit() < 0 || request.getLimit() > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 0 and " + maxLimit + ".");
+        }
+        checkPrice("minPrice", request.getMinPrice());
+        checkPrice("maxPrice", request.getMaxPrice());
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not be greater than maxPrice.");
+        }
+        return searchService.search(request);
+    }
+
+    /** The index compares prices as long minor units; larger bounds would overflow the conversion. */
+    private static void checkPrice(String name, BigDecimal price) {
+        if (price != null && price.abs().compareTo(MAX_PRICE) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    name + " must be between -" + MAX_PRICE + " and " + MAX_PRICE + ".");
+        }
+    }
+}
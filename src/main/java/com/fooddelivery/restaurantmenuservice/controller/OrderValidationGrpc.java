@@ -0,0 +1,65 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Method descriptors of the {@code fooddelivery.menu.v1.OrderValidation} gRPC service declared in
+ * {@code src/main/proto/order_validation.proto}: what protoc's gRPC plugin would generate, with marshallers that go
+ * through {@link OrderValidationProtobuf} instead of generated message classes. Shared by the server
+ * ({@link OrderValidationGrpcService}) and by Java clients such as the benchmarks.
+ */
+public final class OrderValidationGrpc {
+
+    public static final String SERVICE_NAME = "fooddelivery.menu.v1.OrderValidation";
+
+    public static final MethodDescriptor<OrderValidationRequest, OrderValidationResponse> VALIDATE_ORDER =
+            method(MethodDescriptor.MethodType.UNARY, "ValidateOrder");
+
+    public static final MethodDescriptor<OrderValidationRequest, OrderValidationResponse> VALIDATE_ORDER_STREAM =
+            method(MethodDescriptor.MethodType.BIDI_STREAMING, "ValidateOrderStream");
+
+    private OrderValidationGrpc() {
+    }
+
+    private static MethodDescriptor<OrderValidationRequest, OrderValidationResponse> method(
+            MethodDescriptor.MethodType type, String name) {
+        return MethodDescriptor.<OrderValidationRequest, OrderValidationResponse>newBuilder()
+                .setType(type)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, name))
+                .setRequestMarshaller(new Marshaller<>(OrderValidationRequest.class))
+                .setResponseMarshaller(new Marshaller<>(OrderValidationResponse.class))
+                .setSampledToLocalTracing(true)
+                .build();
+    }
+
+    private static final class Marshaller<T> implements MethodDescriptor.Marshaller<T> {
+
+        private final Class<T> type;
+
+        Marshaller(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public InputStream stream(T value) {
+            return new ByteArrayInputStream(OrderValidationProtobuf.encode(value));
+        }
+
+        @Override
+        public T parse(InputStream stream) {
+            try {
+                // A malformed message throws IllegalArgumentException, which fails the call
+                return type.cast(OrderValidationProtobuf.decode(stream.readAllBytes(), type));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
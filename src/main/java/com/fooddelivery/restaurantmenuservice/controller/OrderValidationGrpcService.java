@@ -0,0 +1,160 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.service.AdmissionControl;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import io.grpc.BindableService;
+import io.grpc.Metadata;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * gRPC counterpart of {@code POST /v1/restaurants/validate-order}, served by {@link GrpcServer}.
+ *
+ * {@code ValidateOrder} is the REST contract over HTTP/2: the same admission control and validation, with
+ * ResponseStatusExceptions mapped to gRPC statuses. {@code ValidateOrderStream} lets the Order Service keep one
+ * stream open and pipeline validations on it. Each request is answered in order, and outcomes that would end a
+ * unary call (malformed order, unknown restaurant, shed by admission control) come back as rejection codes, so the
+ * stream stays up. Answers to a stream the client has cancelled are dropped.
+ *
+ * Validation may block on MongoDB when snapshots are off, so calls run on the gRPC server's executor, never on its
+ * event loop.
+ */
+@Component
+public class OrderValidationGrpcService implements BindableService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderValidationGrpcService.class);
+    private static final Metadata.Key<String> RETRY_AFTER =
+            Metadata.Key.of(HttpHeaders.RETRY_AFTER.toLowerCase(), Metadata.ASCII_STRING_MARSHALLER);
+
+    private final RestaurantMenuService service;
+    private final AdmissionControl admissionControl;
+
+    public OrderValidationGrpcService(RestaurantMenuService service, AdmissionControl admissionControl) {
+        this.service = service;
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(OrderValidationGrpc.SERVICE_NAME)
+                .addMethod(OrderValidationGrpc.VALIDATE_ORDER, ServerCalls.asyncUnaryCall(this::validateOrder))
+                .addMethod(OrderValidationGrpc.VALIDATE_ORDER_STREAM, ServerCalls.asyncBidiStreamingCall(this::validateOrderStream))
+                .build();
+    }
+
+    private void validateOrder(OrderValidationRequest request, StreamObserver<OrderValidationResponse> responses) {
+        OrderValidationResponse response;
+        try {
+            response = validate(request);
+        } catch (RuntimeException e) {
+            responses.onError(toStatus(e));
+            return;
+        }
+        responses.onNext(response);
+        responses.onCompleted();
+    }
+
+    private StreamObserver<OrderValidationRequest> validateOrderStream(StreamObserver<OrderValidationResponse> responses) {
+        ServerCallStreamObserver<OrderValidationResponse> call = (ServerCallStreamObserver<OrderValidationResponse>) responses;
+        // With a handler set, onNext after a cancel is a no-op instead of throwing; the check below skips the work
+        call.setOnCancelHandler(() -> log.debug("Order validation stream cancelled by the client"));
+        // gRPC delivers the messages of one call serially, so no locking is needed around responses
+        return new StreamObserver<>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(OrderValidationRequest request) {
+                if (failed || call.isCancelled()) {
+                    return;
+                }
+                OrderValidationResponse response;
+                try {
+                    response = validate(request);
+                } catch (ResponseStatusException e) {
+                    RejectionCode code = inBandCode(e);
+                    if (code == null) {
+                        fail(e);
+                        return;
+                    }
+                    response = OrderValidationResponse.builder().isValid(false).rejectionCode(code)
+                            .rejectionReason(e.getReason()).build();
+                } catch (RuntimeException e) {
+                    fail(e);
+                    return;
+                }
+                responses.onNext(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Cancelled by the client; there is nobody left to answer
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    responses.onCompleted();
+                }
+            }
+
+            private void fail(RuntimeException e) {
+                failed = true;
+                responses.onError(toStatus(e));
+            }
+        };
+    }
+
+    private OrderValidationResponse validate(OrderValidationRequest request) {
+        long admitted = admissionControl.acquire(request.getRestaurantId());
+        try {
+            return service.validateOrder(request);
+        } finally {
+            admissionControl.release(admitted);
+        }
+    }
+
+    /** The rejection code a stream answers with instead of failing, or null if the stream must fail. */
+    private static RejectionCode inBandCode(ResponseStatusException e) {
+        return switch (e.getStatusCode().value()) {
+            case 400 -> RejectionCode.INVALID_REQUEST;
+            case 404 -> RejectionCode.RESTAURANT_NOT_FOUND;
+            case 429 -> RejectionCode.RATE_LIMITED;
+            case 503 -> RejectionCode.OVERLOADED;
+            default -> null;
+        };
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException e) {
+        if (!(e instanceof ResponseStatusException statusException)) {
+            log.warn("gRPC order validation failed", e);
+            return Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asRuntimeException();
+        }
+        HttpStatus httpStatus = HttpStatus.resolve(statusException.getStatusCode().value());
+        Status status = switch (httpStatus == null ? HttpStatus.INTERNAL_SERVER_ERROR : httpStatus) {
+            case BAD_REQUEST -> Status.INVALID_ARGUMENT;
+            case NOT_FOUND -> Status.NOT_FOUND;
+            case TOO_MANY_REQUESTS -> Status.RESOURCE_EXHAUSTED;
+            case SERVICE_UNAVAILABLE -> Status.UNAVAILABLE;
+            default -> Status.INTERNAL;
+        };
+        Metadata trailers = new Metadata();
+        String retryAfter = statusException.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            trailers.put(RETRY_AFTER, retryAfter);
+        }
+        return status.withDescription(statusException.getReason()).asRuntimeException(trailers);
+    }
+}
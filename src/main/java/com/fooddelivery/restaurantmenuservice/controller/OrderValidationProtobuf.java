@@ -0,0 +1,273 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protobuf encoding of the validate-order messages, as declared in {@code src/main/proto/order_validation.proto}.
+ *
+ * Written by hand against the protobuf runtime rather than generated: the DTOs are encoded directly, without
+ * building an intermediate message object per call. Each message is sized first and then written into a byte
+ * array of exactly that length. Rejections carry only their {@link RejectionCode}; the free-text
+ * {@code rejectionReason} of the JSON form is not sent. Unknown fields are skipped when reading, so either side
+ * can add fields first.
+ */
+public final class OrderValidationProtobuf {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-protobuf";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    // OrderValidationRequest
+    private static final int REQUEST_RESTAURANT_ID = 1;
+    private static final int REQUEST_ITEMS = 2;
+    // ItemRequest
+    private static final int ITEM_ID = 1;
+    private static final int ITEM_QUANTITY = 2;
+    // OrderValidationResponse
+    private static final int RESPONSE_VALID = 1;
+    private static final int RESPONSE_REJECTION_CODE = 2;
+    private static final int RESPONSE_RESTAURANT_CITY = 3;
+    private static final int RESPONSE_TOTAL_MINOR = 4;
+    private static final int RESPONSE_VALIDATED_ITEMS = 5;
+    // ValidatedItem
+    private static final int VALIDATED_ITEM_ID = 1;
+    private static final int VALIDATED_PRICE_MINOR = 2;
+    private static final int VALIDATED_QUANTITY = 3;
+
+    private OrderValidationProtobuf() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type == OrderValidationRequest.class || type == OrderValidationResponse.class;
+    }
+
+    /** Encodes an {@link OrderValidationRequest} or {@link OrderValidationResponse}. */
+    public static byte[] encode(Object message) {
+        if (message instanceof OrderValidationRequest request) {
+            return write(requestSize(request), output -> writeRequest(output, request));
+        }
+        if (message instanceof OrderValidationResponse response) {
+            return write(responseSize(response), output -> writeResponse(output, response));
+        }
+        throw new IllegalArgumentException("No protobuf encoding for " + message.getClass().getName());
+    }
+
+    /** Decodes a message of {@code type}, one of the types {@link #supports} accepts. */
+    public static Object decode(byte[] bytes, Class<?> type) {
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        try {
+            if (type == OrderValidationRequest.class) {
+                return readRequest(input);
+            }
+            if (type == OrderValidationResponse.class) {
+                return readResponse(input);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed protobuf " + type.getSimpleName() + ": " + e.getMessage(), e);
+        }
+        throw new IllegalArgumentException("No protobuf encoding for " + type.getName());
+    }
+
+    // ---- Sizes ----
+
+    private static int requestSize(OrderValidationRequest request) {
+        int size = stringSize(REQUEST_RESTAURANT_ID, request.getRestaurantId());
+        if (request.getItems() != null) {
+            for (OrderValidationRequest.ItemRequest item : request.getItems()) {
+                size += messageSize(REQUEST_ITEMS, itemSize(item));
+            }
+        }
+        return size;
+    }
+
+    private static int itemSize(OrderValidationRequest.ItemRequest item) {
+        return stringSize(ITEM_ID, item.getItemId()) + int32Size(ITEM_QUANTITY, item.getQuantity());
+    }
+
+    private static int responseSize(OrderValidationResponse response) {
+        int size = response.isValid() ? CodedOutputStream.computeBoolSize(RESPONSE_VALID, true) : 0;
+        if (response.getRejectionCode() != null) {
+            size += CodedOutputStream.computeEnumSize(RESPONSE_REJECTION_CODE, response.getRejectionCode().getNumber());
+        }
+        size += stringSize(RESPONSE_RESTAURANT_CITY, response.getRestaurantCity());
+        if (response.getCalculatedItemsTotal() != null) {
+            size += CodedOutputStream.computeInt64Size(RESPONSE_TOTAL_MINOR, response.getCalculatedItemsTotal().getMinorUnits());
+        }
+        if (response.getValidatedItems() != null) {
+            for (OrderValidationResponse.ValidatedItem item : response.getValidatedItems()) {
+                size += messageSize(RESPONSE_VALIDATED_ITEMS, validatedItemSize(item));
+            }
+        }
+        return size;
+    }
+
+    private static int validatedItemSize(OrderValidationResponse.ValidatedItem item) {
+        int size = stringSize(VALIDATED_ITEM_ID, item.getItemId()) + int32Size(VALIDATED_QUANTITY, item.getQuantity());
+        if (item.getPrice() != null) {
+            size += CodedOutputStream.computeInt64Size(VALIDATED_PRICE_MINOR, item.getPrice().getMinorUnits());
+        }
+        return size;
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static int int32Size(int field, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(field, value);
+    }
+
+    private static int messageSize(int field, int size) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    // ---- Writing ----
+
+    private static void writeRequest(CodedOutputStream output, OrderValidationRequest request) throws IOException {
+        writeString(output, REQUEST_RESTAURANT_ID, request.getRestaurantId());
+        if (request.getItems() != null) {
+            for (OrderValidationRequest.ItemRequest item : request.getItems()) {
+                writeMessageHeader(output, REQUEST_ITEMS, itemSize(item));
+                writeString(output, ITEM_ID, item.getItemId());
+                writeInt32(output, ITEM_QUANTITY, item.getQuantity());
+            }
+        }
+    }
+
+    private static void writeResponse(CodedOutputStream output, OrderValidationResponse response) throws IOException {
+        if (response.isValid()) {
+            output.writeBool(RESPONSE_VALID, true);
+        }
+        if (response.getRejectionCode() != null) {
+            output.writeEnum(RESPONSE_REJECTION_CODE, response.getRejectionCode().getNumber());
+        }
+        writeString(output, RESPONSE_RESTAURANT_CITY, response.getRestaurantCity());
+        if (response.getCalculatedItemsTotal() != null) {
+            output.writeInt64(RESPONSE_TOTAL_MINOR, response.getCalculatedItemsTotal().getMinorUnits());
+        }
+        if (response.getValidatedItems() != null) {
+            for (OrderValidationResponse.ValidatedItem item : response.getValidatedItems()) {
+                writeMessageHeader(output, RESPONSE_VALIDATED_ITEMS, validatedItemSize(item));
+                writeString(output, VALIDATED_ITEM_ID, item.getItemId());
+                if (item.getPrice() != null) {
+                    output.writeInt64(VALIDATED_PRICE_MINOR, item.getPrice().getMinorUnits());
+                }
+                writeInt32(output, VALIDATED_QUANTITY, item.getQuantity());
+            }
+        }
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(field, value);
+        }
+    }
+
+    private static void writeInt32(CodedOutputStream output, int field, int value) throws IOException {
+        if (value != 0) {
+            output.writeInt32(field, value);
+        }
+    }
+
+    private static void writeMessageHeader(CodedOutputStream output, int field, int size) throws IOException {
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(size);
+    }
+
+    private static byte[] write(int size, Writer writer) {
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writer.write(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(CodedOutputStream output) throws IOException;
+    }
+
+    // ---- Reading ----
+
+    private static OrderValidationRequest readRequest(CodedInputStream input) throws IOException {
+        OrderValidationRequest request = new OrderValidationRequest();
+        List<OrderValidationRequest.ItemRequest> items = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case REQUEST_RESTAURANT_ID -> request.setRestaurantId(input.readString());
+                case REQUEST_ITEMS -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    items.add(readItem(input));
+                    input.popLimit(limit);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    private static OrderValidationRequest.ItemRequest readItem(CodedInputStream input) throws IOException {
+        OrderValidationRequest.ItemRequest item = new OrderValidationRequest.ItemRequest();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ITEM_ID -> item.setItemId(input.readString());
+                case ITEM_QUANTITY -> item.setQuantity(input.readInt32());
+                default -> input.skipField(tag);
+            }
+        }
+        return item;
+    }
+
+    private static OrderValidationResponse readResponse(CodedInputStream input) throws IOException {
+        OrderValidationResponse response = new OrderValidationResponse();
+        List<OrderValidationResponse.ValidatedItem> items = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case RESPONSE_VALID -> response.setValid(input.readBool());
+                case RESPONSE_REJECTION_CODE -> response.setRejectionCode(RejectionCode.forNumber(input.readEnum()));
+                case RESPONSE_RESTAURANT_CITY -> response.setRestaurantCity(input.readString());
+                case RESPONSE_TOTAL_MINOR -> response.setCalculatedItemsTotal(Money.ofMinor(input.readInt64()));
+                case RESPONSE_VALIDATED_ITEMS -> {
+                    if (items == null) {
+                        items = new ArrayList<>();
+                    }
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    items.add(readValidatedItem(input));
+                    input.popLimit(limit);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+        response.setValidatedItems(items);
+        return response;
+    }
+
+    private static OrderValidationResponse.ValidatedItem readValidatedItem(CodedInputStream input) throws IOException {
+        OrderValidationResponse.ValidatedItem item = new OrderValidationResponse.ValidatedItem();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case VALIDATED_ITEM_ID -> item.setItemId(input.readString());
+                case VALIDATED_PRICE_MINOR -> item.setPrice(Money.ofMinor(input.readInt64()));
+                case VALIDATED_QUANTITY -> item.setQuantity(input.readInt32());
+                default -> input.skipField(tag);
+            }
+        }
+        return item;
+    }
+}
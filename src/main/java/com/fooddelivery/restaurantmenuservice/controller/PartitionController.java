@@ -0,0 +1,49 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.PartitionMap;
+import com.fooddelivery.restaurantmenuservice.service.CityPartitioner;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The city partition map, for routers that send each city's traffic to the partition caching it. It is computed from
+ * configuration alone and never touches MongoDB, so the same controller serves both the servlet and the reactive
+ * stack.
+ */
+@RestController
+@RequestMapping("/v1/partitions")
+@Tag(name = "Partitions", description = "City partitioning of the menu read models")
+public class PartitionController {
+
+    private final CityPartitioner partitioner;
+
+    public PartitionController(CityPartitioner partitioner) {
+        this.partitioner = partitioner;
+    }
+
+    @Operation(summary = "Get Partition Map", description = "The partitions of the consistent-hash ring, the partition of this pod, and the owning partition of each requested city (repeat city for several)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Partition map; enabled is false when the service is not partitioned")
+    })
+    @GetMapping
+    public PartitionMap getPartitionMap(@RequestParam(name = "city", required = false) List<String> cities) {
+        Map<String, String> owners = new LinkedHashMap<>();
+        if (cities != null) {
+            for (String city : cities) {
+                owners.put(city, partitioner.ownerOf(city));
+            }
+        }
+        return new PartitionMap(partitioner.isEnabled(), partitioner.getSelf(), partitioner.getNodes(),
+                partitioner.getVirtualNodes(), owners);
+    }
+}
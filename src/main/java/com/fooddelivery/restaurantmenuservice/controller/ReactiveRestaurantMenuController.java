@@ -0,0 +1,140 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateRequest;
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateResult;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantExport;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantPage;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.service.AdmissionControl;
+import com.fooddelivery.restaurantmenuservice.service.ReactiveRestaurantMenuService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * WebFlux variant of {@link RestaurantMenuController}, serving the same endpoints without blocking a thread per
+ * request. Enabled with SPRING_PROFILES_ACTIVE=reactive; the servlet controller is used otherwise.
+ */
+@RestController
+@RequestMapping("/v1/restaurants")
+@Profile("reactive")
+public class ReactiveRestaurantMenuController {
+
+    private final ReactiveRestaurantMenuService service;
+    private final AdmissionControl admissionControl;
+    private final int maxBatchSize;
+    private final int maxAvailabilityBatchSize;
+    private final MenuBodyCache menuBodies;
+    private final CacheControl menuCacheControl;
+
+    public ReactiveRestaurantMenuController(ReactiveRestaurantMenuService service,
+                                            AdmissionControl admissionControl,
+                                            MenuBodyCache menuBodies,
+                                            @Value("${menu.validation.max-batch-size:500}") int maxBatchSize,
+                                            @Value("${menu.availability.max-batch-size:500}") int maxAvailabilityBatchSize,
+                                            @Value("${menu.http.menu-max-age:PT0S}") Duration menuMaxAge) {
+        this.service = service;
+        this.admissionControl = admissionControl;
+        this.menuBodies = menuBodies;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAvailabilityBatchSize = maxAvailabilityBatchSize;
+        this.menuCacheControl = MenuCacheControl.of(menuMaxAge);
+    }
+
+    @PostMapping(value = "/validate-order",
+            produces = {MediaType.APPLICATION_JSON_VALUE, OrderValidationProtobuf.MEDIA_TYPE_VALUE})
+    public Mono<ResponseEntity<OrderValidationResponse>> validateOrder(@RequestBody OrderValidationRequest request) {
+        // Same contract as the servlet controller: 409 Conflict when a business rule rejects the order, and 429 or
+        // 503 from admission control before any MongoDB work. The permit is held until the response is complete.
+        return Mono.defer(() -> {
+                    long admitted = admissionControl.acquire(request.getRestaurantId());
+                    return service.validateOrder(request).doFinally(signal -> admissionControl.release(admitted));
+                })
+                .map(response -> response.isValid()
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body(response));
+    }
+
+    @PostMapping("/validate-orders")
+    public Mono<List<OrderValidationResponse>> validateOrders(@RequestBody List<OrderValidationRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxBatchSize + " orders."));
+        }
+        return Mono.defer(() -> {
+            AdmissionControl.BatchAdmission admitted = admissionControl.acquireBatch(requests);
+            return service.validateOrders(requests, admitted.rateLimited())
+                    .doFinally(signal -> admissionControl.release(admitted.startNanos()));
+        });
+    }
+
+    @GetMapping
+    public Mono<RestaurantPage> getAllRestaurants(@RequestParam(required = false) String city,
+                                                  @RequestParam(required = false) String cursor,
+                                                  Pageable pageable) {
+        return service.getAllRestaurants(city, pageable, cursor);
+    }
+
+    // Each element is encoded as one line and written as the client asks for more (backpressure up to the cursor)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RestaurantExport> exportCatalog(@RequestParam(required = false) String city) {
+        return service.exportCatalog(city);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Restaurant> getRestaurantById(@PathVariable String id) {
+        return service.getRestaurantById(id);
+    }
+
+    @GetMapping("/{id}/menu")
+    public Mono<ResponseEntity<byte[]>> getRestaurantMenu(@PathVariable String id, ServerWebExchange exchange) {
+        return service.getRestaurantMenuSnapshot(id).map(menu -> {
+            String notModified = MenuBodyCache.matchingETag(
+                    exchange.getRequest().getHeaders().get(HttpHeaders.IF_NONE_MATCH), menu.getMenuETag());
+            if (notModified != null) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified)
+                        .cacheControl(menuCacheControl).build();
+            }
+            return menuBodies.get(menu).toResponse(
+                    exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING), menuCacheControl);
+        });
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Restaurant> createRestaurant(@RequestBody Restaurant restaurant) {
+        return service.createRestaurant(restaurant);
+    }
+
+    @PutMapping("/menu-items/{id}")
+    public Mono<MenuItem> updateMenuItem(@PathVariable String id, @RequestBody MenuItem menuItem) {
+        return service.updateMenuItem(id, menuItem);
+    }
+
+    @PatchMapping("/{id}/menu-items/availability")
+    public Mono<AvailabilityUpdateResult> updateAvailability(@PathVariable String id,
+                                                             @RequestBody AvailabilityUpdateRequest request) {
+        if (request.getItemIds() == null || request.getItemIds().isEmpty()
+                || request.getItemIds().size() > maxAvailabilityBatchSize) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "itemIds must contain between 1 and " + maxAvailabilityBatchSize + " item ids."));
+        }
+        return service.updateAvailability(id, request);
+    }
+}
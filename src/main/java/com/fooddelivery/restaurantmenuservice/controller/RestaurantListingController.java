@@ -0,0 +1,56 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantListingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Top-rated restaurants of a city. Queries are answered from the in-memory {@code RestaurantListingIndex} and never
+ * touch MongoDB, so the same controller serves both the servlet and the reactive stack.
+ */
+@RestController
+@RequestMapping("/v1/restaurants")
+@Tag(name = "Restaurant Menu", description = "APIs for managing restaurants and menu items")
+public class RestaurantListingController {
+
+    private final RestaurantListingService listingService;
+    private final int maxLimit;
+
+    public RestaurantListingController(RestaurantListingService listingService,
+                                       @Value("${menu.listings.max-limit:100}") int maxLimit) {
+        this.listingService = listingService;
+        this.maxLimit = maxLimit;
+    }
+
+    @Operation(summary = "Get Top Rated Restaurants", description = "The best rated restaurants of a city, highest rating first, optionally of one cuisine and only open (or only closed) ones. City and cuisine match case-insensitively")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Up to limit restaurants, best rated first"),
+        @ApiResponse(responseCode = "400", description = "limit out of range"),
+        @ApiResponse(responseCode = "421", description = "The city is listed by another partition (see GET /v1/partitions)"),
+        @ApiResponse(responseCode = "503", description = "Listings are still loading")
+    })
+    @GetMapping("/top-rated")
+    public List<Restaurant> getTopRated(@RequestParam String city,
+                                        @RequestParam(required = false) String cuisine,
+                                        @Parameter(description = "true for open restaurants only, false for closed only; both if absent")
+                                        @RequestParam(required = false) Boolean open,
+                                        @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 0 || limit > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 0 and " + maxLimit + ".");
+        }
+        return listingService.topRated(city, cuisine, open, limit);
+    }
+}
@@ -1,44 +1,104 @@
 package com.fooddelivery.restaurantmenuservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateRequest;
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateResult;
 import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
 import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantPage;
 import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.service.AdmissionControl;
 import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Pageable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/v1/restaurants")
+@Profile("!reactive")
 @Tag(name = "Restaurant Menu", description = "APIs for managing restaurants and menu items")
 public class RestaurantMenuController {
 
     private final RestaurantMenuService service;
+    private final AdmissionControl admissionControl;
+    private final int maxBatchSize;
+    private final int maxAvailabilityBatchSize;
+    private final MenuBodyCache menuBodies;
+    private final CacheControl menuCacheControl;
+    private final ObjectWriter exportWriter;
+    private final Duration exportTimeout;
 
-    public RestaurantMenuController(RestaurantMenuService service) {
+    public RestaurantMenuController(RestaurantMenuService service,
+                                    AdmissionControl admissionControl,
+                                    MenuBodyCache menuBodies,
+                                    ObjectMapper objectMapper,
+                                    @Value("${menu.validation.max-batch-size:500}") int maxBatchSize,
+                                    @Value("${menu.availability.max-batch-size:500}") int maxAvailabilityBatchSize,
+                                    @Value("${menu.http.menu-max-age:PT0S}") Duration menuMaxAge,
+                                    @Value("${menu.export.timeout:PT30M}") Duration exportTimeout) {
         this.service = service;
+        this.admissionControl = admissionControl;
+        this.menuBodies = menuBodies;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAvailabilityBatchSize = maxAvailabilityBatchSize;
+        this.menuCacheControl = MenuCacheControl.of(menuMaxAge);
+        this.exportTimeout = exportTimeout;
+        // One JSON document per line: no separator between root values, and no flush after each of them
+        this.exportWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
     }
 
     // ----------------------------------------------------
     // CRITICAL API for Inter-Service Communication (Order Service)
     // ----------------------------------------------------
 
-    @Operation(summary = "Validate Order", description = "Critical API for Order Service to validate restaurant status, item availability, and calculate pricing")
+    @Operation(summary = "Validate Order", description = "Critical API for Order Service to validate restaurant status, item availability, and calculate pricing. Send and accept application/x-protobuf for the smaller binary form (src/main/proto/order_validation.proto)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Order is valid"),
         @ApiResponse(responseCode = "409", description = "Order validation failed - restaurant closed or items unavailable"),
-        @ApiResponse(responseCode = "404", description = "Restaurant not found")
+        @ApiResponse(responseCode = "400", description = "The order has no items list"),
+        @ApiResponse(responseCode = "404", description = "Restaurant not found"),
+        @ApiResponse(responseCode = "429", description = "Too many validations for this restaurant - retry after Retry-After seconds"),
+        @ApiResponse(responseCode = "503", description = "Service overloaded - validation not attempted, retry after Retry-After seconds")
     })
-    @PostMapping("/validate-order")
+    @PostMapping(value = "/validate-order",
+            produces = {MediaType.APPLICATION_JSON_VALUE, OrderValidationProtobuf.MEDIA_TYPE_VALUE})
     public ResponseEntity<OrderValidationResponse> validateOrder(@RequestBody OrderValidationRequest request) {
-        OrderValidationResponse response = service.validateOrder(request);
+        // Rejected here, before any MongoDB work, when the restaurant or the service is over its limit
+        long admitted = admissionControl.acquire(request.getRestaurantId());
+        OrderValidationResponse response;
+        try {
+            response = service.validateOrder(request);
+        } finally {
+            admissionControl.release(admitted);
+        }
 
         if (!response.isValid()) {
             // Return 409 Conflict (Client Error) if business rule violated, indicating rejection
@@ -49,17 +109,70 @@ public class RestaurantMenuController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Validate Orders (Batch)", description = "Validates many orders in one call; restaurants and items for the whole batch are fetched together. Each entry carries its own result; an entry whose restaurant is over its rate is answered RATE_LIMITED")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed - inspect each entry for its validation result"),
+        @ApiResponse(responseCode = "400", description = "Batch is larger than the configured maximum, or an entry has no items"),
+        @ApiResponse(responseCode = "503", description = "Service overloaded - batch not attempted, retry after Retry-After seconds")
+    })
+    @PostMapping("/validate-orders")
+    public ResponseEntity<List<OrderValidationResponse>> validateOrders(@RequestBody List<OrderValidationRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxBatchSize + " orders.");
+        }
+        AdmissionControl.BatchAdmission admitted = admissionControl.acquireBatch(requests);
+        try {
+            return ResponseEntity.ok(service.validateOrders(requests, admitted.rateLimited()));
+        } finally {
+            admissionControl.release(admitted.startNanos());
+        }
+    }
+
     // ----------------------------------------------------
     // Public/Admin Endpoints (CRUD)
     // ----------------------------------------------------
 
-    @Operation(summary = "Get All Restaurants", description = "List all restaurants with optional city filter and pagination support")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants")
+    @Operation(summary = "Get All Restaurants", description = "List restaurants one page at a time with optional city filter and sort (page, size, sort). Pass nextCursor back as cursor to read the following page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants"),
+        @ApiResponse(responseCode = "400", description = "Unknown sort field or invalid cursor")
+    })
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants(
+    public ResponseEntity<RestaurantPage> getAllRestaurants(
         @Parameter(description = "Filter by city name") @RequestParam(required = false) String city,
+        @Parameter(description = "nextCursor of the previous page; its city and sort take precedence") @RequestParam(required = false) String cursor,
         Pageable pageable) {
-        return ResponseEntity.ok(service.getAllRestaurants(city, pageable));
+        return ResponseEntity.ok(service.getAllRestaurants(city, pageable, cursor));
+    }
+
+    @Operation(summary = "Export Catalog", description = "Streams every restaurant with its full menu as newline-delimited JSON, one restaurant per line, optionally for one city. Memory use is constant however large the catalog is")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Catalog streamed",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = com.fooddelivery.restaurantmenuservice.dto.RestaurantExport.class)))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportCatalog(
+        @Parameter(description = "Only export restaurants of this city") @RequestParam(required = false) String city,
+        HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // Written straight to the response rather than as a StreamingResponseBody, so that this long-running
+        // request, and only this one, gets its own async timeout
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            // Written as the cursor is read; a client that reads slowly blocks the writer, which pauses the cursor
+            try (JsonGenerator generator = exportWriter.createGenerator(response.getOutputStream())) {
+                service.exportCatalog(city, line -> {
+                    try {
+                        exportWriter.writeValue(generator, line);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            return null;
+        });
     }
 
     @Operation(summary = "Get Restaurant by ID", description = "Retrieve detailed information about a specific restaurant")
@@ -72,14 +185,27 @@ public class RestaurantMenuController {
         return ResponseEntity.ok(service.getRestaurantById(id));
     }
 
-    @Operation(summary = "Get Restaurant Menu", description = "Retrieve the complete menu for a specific restaurant")
+    @Operation(summary = "Get Restaurant Menu", description = "Retrieve the complete menu for a specific restaurant. Responses carry a strong ETag; send it back in If-None-Match to get 304 Not Modified while the menu is unchanged")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Menu retrieved successfully"),
+        @ApiResponse(responseCode = "200", description = "Menu retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = com.fooddelivery.restaurantmenuservice.model.MenuItem.class)))),
+        @ApiResponse(responseCode = "304", description = "Menu unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Restaurant not found")
     })
     @GetMapping("/{id}/menu")
-    public ResponseEntity<List<com.fooddelivery.restaurantmenuservice.model.MenuItem>> getRestaurantMenu(@Parameter(description = "Restaurant ID") @PathVariable String id) {
-        return ResponseEntity.ok(service.getRestaurantMenu(id));
+    public ResponseEntity<byte[]> getRestaurantMenu(
+        @Parameter(description = "Restaurant ID") @PathVariable String id, WebRequest request) {
+        RestaurantSnapshot menu = service.getRestaurantMenuSnapshot(id);
+        // Answered from the snapshot alone: no items are built and nothing is serialized
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        String notModified = MenuBodyCache.matchingETag(ifNoneMatch == null ? null : List.of(ifNoneMatch),
+            menu.getMenuETag());
+        if (notModified != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).cacheControl(menuCacheControl).build();
+        }
+        // Pre-encoded JSON (or gzip) bytes, serialized once per menu change
+        return menuBodies.get(menu).toResponse(request.getHeader(HttpHeaders.ACCEPT_ENCODING), menuCacheControl);
     }
 
     @Operation(summary = "Create Restaurant", description = "Admin endpoint to create a new restaurant")
@@ -89,10 +215,11 @@ public class RestaurantMenuController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.createRestaurant(restaurant));
     }
 
-    @Operation(summary = "Update Menu Item", description = "Admin endpoint to update menu item price or availability")
+    @Operation(summary = "Update Menu Item", description = "Admin endpoint to update menu item price or availability in one atomic write. Send the version from a previous response to reject the update if the item has changed since")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Menu item updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Menu item not found")
+        @ApiResponse(responseCode = "404", description = "Menu item not found"),
+        @ApiResponse(responseCode = "409", description = "Menu item was modified since the given version")
     })
     @PutMapping("/menu-items/{id}")
     public ResponseEntity<com.fooddelivery.restaurantmenuservice.model.MenuItem> updateMenuItem(
@@ -100,4 +227,21 @@ public class RestaurantMenuController {
         @RequestBody com.fooddelivery.restaurantmenuservice.model.MenuItem menuItem) {
         return ResponseEntity.ok(service.updateMenuItem(id, menuItem));
     }
+
+    @Operation(summary = "Update Item Availability (Bulk)", description = "Admin endpoint to mark many items of a restaurant available or sold out in one call")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Availability updated - updated counts the items that changed"),
+        @ApiResponse(responseCode = "400", description = "No item ids, or more than the configured maximum")
+    })
+    @PatchMapping("/{id}/menu-items/availability")
+    public ResponseEntity<AvailabilityUpdateResult> updateAvailability(
+        @Parameter(description = "Restaurant ID") @PathVariable String id,
+        @RequestBody AvailabilityUpdateRequest request) {
+        if (request.getItemIds() == null || request.getItemIds().isEmpty()
+                || request.getItemIds().size() > maxAvailabilityBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "itemIds must contain between 1 and " + maxAvailabilityBatchSize + " item ids.");
+        }
+        return ResponseEntity.ok(service.updateAvailability(id, request));
+    }
 }
@@ -0,0 +1,36 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import java.util.List;
+
+/**
+ * Marks many items of one restaurant available or sold out in one call, e.g. when the kitchen runs out of an
+ * ingredient during rush hour.
+ */
+public class AvailabilityUpdateRequest {
+    private List<String> itemIds;
+    private boolean available;
+
+    public AvailabilityUpdateRequest() {
+    }
+
+    public AvailabilityUpdateRequest(List<String> itemIds, boolean available) {
+        this.itemIds = itemIds;
+        this.available = available;
+    }
+
+    public List<String> getItemIds() {
+        return itemIds;
+    }
+
+    public void setItemIds(List<String> itemIds) {
+        this.itemIds = itemIds;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
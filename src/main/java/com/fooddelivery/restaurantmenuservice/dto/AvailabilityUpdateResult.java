@@ -0,0 +1,34 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+/**
+ * Outcome of a bulk availability update. {@code updated} counts the items whose availability actually changed;
+ * ids of other restaurants, unknown ids and items that were already in the requested state are not counted.
+ */
+public class AvailabilityUpdateResult {
+    private int requested;
+    private long updated;
+
+    public AvailabilityUpdateResult() {
+    }
+
+    public AvailabilityUpdateResult(int requested, long updated) {
+        this.requested = requested;
+        this.updated = updated;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+}
@@ -0,0 +1,108 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of one CSV import: how many rows were read, how they were written and how fast.
+ * Rows that fail to parse or that MongoDB refuses (e.g. a duplicate id on insert) are skipped and counted in
+ * {@code rejected}; the first few are described in {@code errors}.
+ */
+public class CatalogImportResult {
+    private String collection;
+    private long rows;
+    private long inserted;
+    private long upserted;
+    private long modified;
+    private long rejected;
+    private List<String> errors;
+    private long durationMillis;
+    private long rowsPerSecond;
+
+    public CatalogImportResult() {
+    }
+
+    public CatalogImportResult(String collection, long rows, long inserted, long upserted, long modified,
+                               long rejected, List<String> errors, long durationMillis) {
+        this.collection = collection;
+        this.rows = rows;
+        this.inserted = inserted;
+        this.upserted = upserted;
+        this.modified = modified;
+        this.rejected = rejected;
+        this.errors = errors;
+        this.durationMillis = durationMillis;
+        this.rowsPerSecond = durationMillis == 0 ? rows * 1000 : rows * 1000 / durationMillis;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(long upserted) {
+        this.upserted = upserted;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    public void setModified(long modified) {
+        this.modified = modified;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
@@ -0,0 +1,127 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import com.fooddelivery.restaurantmenuservice.model.Money;
+
+/**
+ * One ranked search result: the menu item with the restaurant fields a result list shows.
+ */
+public class MenuSearchHit {
+    private String itemId;
+    private String name;
+    private String category;
+    private Money price;
+    private boolean available;
+    private String restaurantId;
+    private String restaurantName;
+    private String cuisine;
+    private String city;
+    private boolean restaurantOpen;
+    private double score;
+
+    public MenuSearchHit() {
+    }
+
+    public MenuSearchHit(String itemId, String name, String category, Money price, boolean available,
+                         String restaurantId, String restaurantName, String cuisine, String city,
+                         boolean restaurantOpen, double score) {
+        this.itemId = itemId;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.available = available;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.cuisine = cuisine;
+        this.city = city;
+        this.restaurantOpen = restaurantOpen;
+        this.score = score;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public void setPrice(Money price) {
+        this.price = price;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    public void setRestaurantName(String restaurantName) {
+        this.restaurantName = restaurantName;
+    }
+
+    public String getCuisine() {
+        return cuisine;
+    }
+
+    public void setCuisine(String cuisine) {
+        this.cuisine = cuisine;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public boolean isRestaurantOpen() {
+        return restaurantOpen;
+    }
+
+    public void setRestaurantOpen(boolean restaurantOpen) {
+        this.restaurantOpen = restaurantOpen;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,95 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Query parameters of {@code GET /v1/menu-items/search}. Every word of {@code q} must match the item name or
+ * category or the restaurant's cuisine or city; the last word also matches as a prefix. The other parameters are
+ * exact filters (case-insensitive) and may be combined with or used without {@code q}.
+ */
+public class MenuSearchRequest {
+    private String q;
+    private String category;
+    private String cuisine;
+    private String city;
+    private String restaurantId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean available;
+    private int limit = 20;
+
+    public MenuSearchRequest() {
+    }
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getCuisine() {
+        return cuisine;
+    }
+
+    public void setCuisine(String cuisine) {
+        this.cuisine = cuisine;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
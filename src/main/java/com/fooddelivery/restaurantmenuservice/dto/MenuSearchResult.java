@@ -0,0 +1,99 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import com.fooddelivery.restaurantmenuservice.model.Money;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of {@code GET /v1/menu-items/search}: the best {@code limit} hits and facets over every match.
+ * {@code categories} maps category to number of matches, most frequent first; {@code prices} counts matches per
+ * price bucket ({@code to} is exclusive and null for the last bucket).
+ */
+public class MenuSearchResult {
+    private long total;
+    private List<MenuSearchHit> hits;
+    private Map<String, Long> categories;
+    private List<PriceBucket> prices;
+
+    public MenuSearchResult() {
+    }
+
+    public MenuSearchResult(long total, List<MenuSearchHit> hits, Map<String, Long> categories, List<PriceBucket> prices) {
+        this.total = total;
+        this.hits = hits;
+        this.categories = categories;
+        this.prices = prices;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<MenuSearchHit> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<MenuSearchHit> hits) {
+        this.hits = hits;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, Long> categories) {
+        this.categories = categories;
+    }
+
+    public List<PriceBucket> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(List<PriceBucket> prices) {
+        this.prices = prices;
+    }
+
+    public static class PriceBucket {
+        private Money from;
+        private Money to;
+        private long count;
+
+        public PriceBucket() {
+        }
+
+        public PriceBucket(Money from, Money to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public Money getFrom() {
+            return from;
+        }
+
+        public void setFrom(Money from) {
+            this.from = from;
+        }
+
+        public Money getTo() {
+            return to;
+        }
+
+        public void setTo(Money to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
@@ -1,23 +1,31 @@
 package com.fooddelivery.restaurantmenuservice.dto;
 
-// Prices and totals use Double in models (Double instead of BigDecimal)
+import com.fooddelivery.restaurantmenuservice.model.Money;
+
 import java.util.List;
 import java.util.Objects;
 
 public class OrderValidationResponse {
     private boolean isValid;
     private String rejectionReason;
+    private RejectionCode rejectionCode;
     private String restaurantCity; // Returned for Order Service to check Delivery constraint
-    private Double calculatedItemsTotal;
+    private Money calculatedItemsTotal;
     private List<ValidatedItem> validatedItems;
 
     public OrderValidationResponse() {
     }
 
     public OrderValidationResponse(boolean isValid, String rejectionReason, String restaurantCity, 
-                                 Double calculatedItemsTotal, List<ValidatedItem> validatedItems) {
+                                 Money calculatedItemsTotal, List<ValidatedItem> validatedItems) {
+        this(isValid, rejectionReason, null, restaurantCity, calculatedItemsTotal, validatedItems);
+    }
+
+    public OrderValidationResponse(boolean isValid, String rejectionReason, RejectionCode rejectionCode,
+                                   String restaurantCity, Money calculatedItemsTotal, List<ValidatedItem> validatedItems) {
         this.isValid = isValid;
         this.rejectionReason = rejectionReason;
+        this.rejectionCode = rejectionCode;
         this.restaurantCity = restaurantCity;
         this.calculatedItemsTotal = calculatedItemsTotal;
         this.validatedItems = validatedItems;
@@ -43,6 +51,14 @@ public class OrderValidationResponse {
         this.rejectionReason = rejectionReason;
     }
 
+    public RejectionCode getRejectionCode() {
+        return rejectionCode;
+    }
+
+    public void setRejectionCode(RejectionCode rejectionCode) {
+        this.rejectionCode = rejectionCode;
+    }
+
     public String getRestaurantCity() {
         return restaurantCity;
     }
@@ -51,11 +67,11 @@ public class OrderValidationResponse {
         this.restaurantCity = restaurantCity;
     }
 
-    public Double getCalculatedItemsTotal() {
+    public Money getCalculatedItemsTotal() {
         return calculatedItemsTotal;
     }
 
-    public void setCalculatedItemsTotal(Double calculatedItemsTotal) {
+    public void setCalculatedItemsTotal(Money calculatedItemsTotal) {
         this.calculatedItemsTotal = calculatedItemsTotal;
     }
 
@@ -74,6 +90,7 @@ public class OrderValidationResponse {
         OrderValidationResponse that = (OrderValidationResponse) o;
         return isValid == that.isValid &&
                 Objects.equals(rejectionReason, that.rejectionReason) &&
+                rejectionCode == that.rejectionCode &&
                 Objects.equals(restaurantCity, that.restaurantCity) &&
                 Objects.equals(calculatedItemsTotal, that.calculatedItemsTotal) &&
                 Objects.equals(validatedItems, that.validatedItems);
@@ -81,14 +98,15 @@ public class OrderValidationResponse {
 
     @Override
     public int hashCode() {
-        return Objects.hash(isValid, rejectionReason, restaurantCity, calculatedItemsTotal, validatedItems);
+        return Objects.hash(isValid, rejectionReason, rejectionCode, restaurantCity, calculatedItemsTotal, validatedItems);
     }
 
     public static class OrderValidationResponseBuilder {
         private boolean isValid;
         private String rejectionReason;
+        private RejectionCode rejectionCode;
         private String restaurantCity;
-    private Double calculatedItemsTotal;
+    private Money calculatedItemsTotal;
         private List<ValidatedItem> validatedItems;
 
         OrderValidationResponseBuilder() {
@@ -104,12 +122,17 @@ public class OrderValidationResponse {
             return this;
         }
 
+        public OrderValidationResponseBuilder rejectionCode(RejectionCode rejectionCode) {
+            this.rejectionCode = rejectionCode;
+            return this;
+        }
+
         public OrderValidationResponseBuilder restaurantCity(String restaurantCity) {
             this.restaurantCity = restaurantCity;
             return this;
         }
 
-        public OrderValidationResponseBuilder calculatedItemsTotal(Double calculatedItemsTotal) {
+        public OrderValidationResponseBuilder calculatedItemsTotal(Money calculatedItemsTotal) {
             this.calculatedItemsTotal = calculatedItemsTotal;
             return this;
         }
@@ -120,19 +143,20 @@ public class OrderValidationResponse {
         }
 
         public OrderValidationResponse build() {
-            return new OrderValidationResponse(isValid, rejectionReason, restaurantCity, calculatedItemsTotal, validatedItems);
+            return new OrderValidationResponse(isValid, rejectionReason, rejectionCode, restaurantCity, calculatedItemsTotal,
+                    validatedItems);
         }
     }
 
     public static class ValidatedItem {
         private String itemId;
-    private Double price;
+    private Money price;
         private int quantity;
 
         public ValidatedItem() {
         }
 
-        public ValidatedItem(String itemId, Double price, int quantity) {
+        public ValidatedItem(String itemId, Money price, int quantity) {
             this.itemId = itemId;
             this.price = price;
             this.quantity = quantity;
@@ -150,11 +174,11 @@ public class OrderValidationResponse {
             this.itemId = itemId;
         }
 
-        public Double getPrice() {
+        public Money getPrice() {
             return price;
         }
 
-        public void setPrice(Double price) {
+        public void setPrice(Money price) {
             this.price = price;
         }
 
@@ -183,7 +207,7 @@ public class OrderValidationResponse {
 
         public static class ValidatedItemBuilder {
             private String itemId;
-            private Double price;
+            private Money price;
             private int quantity;
 
             ValidatedItemBuilder() {
@@ -194,7 +218,7 @@ public class OrderValidationResponse {
                 return this;
             }
 
-            public ValidatedItemBuilder price(Double price) {
+            public ValidatedItemBuilder price(Money price) {
                 this.price = price;
                 return this;
             }
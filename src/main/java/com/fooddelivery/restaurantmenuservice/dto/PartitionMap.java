@@ -0,0 +1,67 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How cities are spread over the partitions of the service (see {@code CityPartitioner}): the ring's partitions and
+ * points per partition, the partition of the pod that answered, and the owner of each requested city.
+ */
+public class PartitionMap {
+    private boolean enabled;
+    private String self;
+    private List<String> nodes;
+    private int virtualNodes;
+    private Map<String, String> cities;
+
+    public PartitionMap() {
+    }
+
+    public PartitionMap(boolean enabled, String self, List<String> nodes, int virtualNodes, Map<String, String> cities) {
+        this.enabled = enabled;
+        this.self = self;
+        this.nodes = nodes;
+        this.virtualNodes = virtualNodes;
+        this.cities = cities;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public void setSelf(String self) {
+        this.self = self;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<String> nodes) {
+        this.nodes = nodes;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public Map<String, String> getCities() {
+        return cities;
+    }
+
+    public void setCities(Map<String, String> cities) {
+        this.cities = cities;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+/**
+ * Why an order was rejected, as a stable code that callers can switch on instead of parsing
+ * {@code rejectionReason}. The numbers are the values of the {@code RejectionCode} enum in
+ * {@code src/main/proto/order_validation.proto} and must not change.
+ *
+ * {@link #RATE_LIMITED} and {@link #OVERLOADED} are not verdicts on the order: they answer a gRPC stream message
+ * that admission control shed, where REST and unary calls get 429/503 (RESOURCE_EXHAUSTED/UNAVAILABLE) instead.
+ * A {@code validate-orders} batch entry whose restaurant is over its rate is likewise answered {@link #RATE_LIMITED}.
+ * {@link #INVALID_REQUEST} answers a malformed stream message (e.g. an order without items) that a unary call would
+ * fail with 400 (INVALID_ARGUMENT).
+ */
+public enum RejectionCode {
+    RESTAURANT_NOT_FOUND(1),
+    RESTAURANT_CLOSED(2),
+    ITEM_NOT_FOUND(3),
+    ITEM_UNAVAILABLE(4),
+    RATE_LIMITED(5),
+    OVERLOADED(6),
+    INVALID_REQUEST(7);
+
+    private final int number;
+
+    RejectionCode(int number) {
+        this.number = number;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    /** The code with this wire number, or null for 0 (unspecified) and numbers this version does not know. */
+    public static RejectionCode forNumber(int number) {
+        for (RejectionCode code : values()) {
+            if (code.number == number) {
+                return code;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+
+import java.util.List;
+
+/**
+ * One line of the catalog export: a restaurant together with its whole menu.
+ */
+public class RestaurantExport {
+    private Restaurant restaurant;
+    private List<MenuItem> menu;
+
+    public RestaurantExport() {
+    }
+
+    public RestaurantExport(Restaurant restaurant, List<MenuItem> menu) {
+        this.restaurant = restaurant;
+        this.menu = menu;
+    }
+
+    public Restaurant getRestaurant() {
+        return restaurant;
+    }
+
+    public void setRestaurant(Restaurant restaurant) {
+        this.restaurant = restaurant;
+    }
+
+    public List<MenuItem> getMenu() {
+        return menu;
+    }
+
+    public void setMenu(List<MenuItem> menu) {
+        this.menu = menu;
+    }
+}
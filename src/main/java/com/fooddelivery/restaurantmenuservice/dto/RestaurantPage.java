@@ -0,0 +1,58 @@
+package com.fooddelivery.restaurantmenuservice.dto;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+
+import java.util.List;
+
+/**
+ * One page of GET /v1/restaurants. {@code nextCursor} is null on the last page; passing it back as
+ * {@code cursor} continues after the last restaurant of this page. {@code page} is only set for offset requests.
+ */
+public class RestaurantPage {
+    private List<Restaurant> items;
+    private Integer page;
+    private int size;
+    private String nextCursor;
+
+    public RestaurantPage() {
+    }
+
+    public RestaurantPage(List<Restaurant> items, Integer page, int size, String nextCursor) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Restaurant> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Restaurant> items) {
+        this.items = items;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
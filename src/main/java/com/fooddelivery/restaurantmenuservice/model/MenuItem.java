@@ -1,25 +1,32 @@
 package com.fooddelivery.restaurantmenuservice.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Objects;
-// import java.math.BigDecimal; // Removed/Not Used
 
 @Document(collection = "menu_items")
+// Serves the restaurantId finders and covers the MenuItemPriceView projection of findPriceViewsByIdInAndRestaurantId
+@CompoundIndex(name = "restaurant_menu", def = "{'restaurantId': 1, '_id': 1, 'isAvailable': 1, 'price': 1, 'name': 1}")
 public class MenuItem {
     @Id
     private String id;
     private String restaurantId; // Foreign Key reference to Restaurant
     private String name;
     private String category;
-    private Double price; // CRITICAL: Now correctly and consistently Double
+    private Money price; // Exact amount in minor units (see Money)
     private boolean isAvailable; // CRITICAL: Item availability check
+    @Version
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version; // Bumped by every write; send it back on update to reject concurrent changes (409)
 
     // Required No-Argument Constructor for Spring Data Mapping
     public MenuItem() {}
 
     // All-Argument Constructor for Builder/Mapping
-    public MenuItem(String id, String restaurantId, String name, String category, Double price, boolean isAvailable) {
+    public MenuItem(String id, String restaurantId, String name, String category, Money price, boolean isAvailable) {
         this.id = id;
         this.restaurantId = restaurantId;
         this.name = name;
@@ -50,14 +57,18 @@ public class MenuItem {
 
     public void setCategory(String category) { this.category = category; }
 
-    public Double getPrice() { return price; }
+    public Money getPrice() { return price; }
 
-    public void setPrice(Double price) { this.price = price; }
+    public void setPrice(Money price) { this.price = price; }
 
     public boolean isAvailable() { return isAvailable; }
 
     public void setAvailable(boolean available) { isAvailable = available; }
 
+    public Long getVersion() { return version; }
+
+    public void setVersion(Long version) { this.version = version; }
+
     // Standard equals and hashCode methods
 
     @Override
@@ -85,7 +96,7 @@ public class MenuItem {
         private String restaurantId;
         private String name;
         private String category;
-        private Double price; // FIXED: Builder uses Double
+        private Money price;
         private boolean isAvailable;
 
         MenuItemBuilder() {}
@@ -110,7 +121,7 @@ public class MenuItem {
             return this;
         }
 
-        public MenuItemBuilder price(Double price) { // FIXED: Builder accepts Double
+        public MenuItemBuilder price(Money price) {
             this.price = price;
             return this;
         }
@@ -124,4 +135,4 @@ public class MenuItem {
             return new MenuItem(id, restaurantId, name, category, price, isAvailable);
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.fooddelivery.restaurantmenuservice.model;
+
+/**
+ * The part of a {@link MenuItem} that order validation reads. Loading this instead of the entity leaves
+ * {@code category} and {@code _class} out of the query, so it is answered from the restaurant_menu index alone.
+ */
+public record MenuItemPriceView(String id, String restaurantId, String name, Money price, boolean isAvailable) {
+
+    /**
+     * As an entity without a category or version, e.g. to build a validation-only RestaurantSnapshot. Such a
+     * snapshot must not answer menu reads, which return the version for optimistic locking.
+     */
+    public MenuItem toMenuItem() {
+        return new MenuItem(id, restaurantId, name, null, price, isAvailable);
+    }
+}
@@ -1,11 +1,16 @@
 package com.fooddelivery.restaurantmenuservice.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field; // Ensure this is imported
 import java.time.LocalDateTime;
 
 @Document(collection = "restaurants")
+// Back findByCity and the GET /v1/restaurants sorts; every sort ends with _id (see RestaurantPageQuery)
+@CompoundIndex(name = "city_id", def = "{'city': 1, '_id': 1}")
+@CompoundIndex(name = "city_rating_id", def = "{'city': 1, 'rating': -1, '_id': 1}")
+@CompoundIndex(name = "rating_id", def = "{'rating': -1, '_id': 1}")
 public class Restaurant {
     @Id
     private String id;
@@ -0,0 +1,7 @@
+package com.fooddelivery.restaurantmenuservice.model;
+
+/**
+ * The part of a {@link Restaurant} that order validation and menu snapshots read.
+ */
+public record RestaurantStatusView(String id, boolean isOpen, String city) {
+}
@@ -0,0 +1,185 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+
+/**
+ * Hand-written BSON decoders for the hot read paths. The driver hands each document's bytes straight to these,
+ * so no intermediate {@code org.bson.Document} is built and the mapping layer (reflection, conversion service,
+ * type hints) is skipped. They read the same storage format as the entities: {@code _id} may be a string or an
+ * ObjectId, and {@code price} an int64 of minor units or a legacy double (see MongoConfig).
+ *
+ * The codecs only decode; writes keep going through the repositories.
+ */
+public final class CatalogCodecs {
+
+    /** Decodes {@code _id, restaurantId, name, price, isAvailable}; other fields are skipped. */
+    public static final Codec<MenuItemPriceView> MENU_ITEM_PRICE_VIEW = new DecodeOnlyCodec<>(MenuItemPriceView.class) {
+        @Override
+        public MenuItemPriceView decode(BsonReader reader, DecoderContext decoderContext) {
+            String id = null;
+            String restaurantId = null;
+            String name = null;
+            Money price = null;
+            boolean available = false;
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                switch (reader.readName()) {
+                    case "_id" -> id = readId(reader);
+                    case "restaurantId" -> restaurantId = readString(reader);
+                    case "name" -> name = readString(reader);
+                    case "price" -> price = readMoney(reader);
+                    case "isAvailable" -> available = readBoolean(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+            return new MenuItemPriceView(id, restaurantId, name, price, available);
+        }
+    };
+
+    /** Decodes a whole menu item. */
+    public static final Codec<MenuItem> MENU_ITEM = new DecodeOnlyCodec<>(MenuItem.class) {
+        @Override
+        public MenuItem decode(BsonReader reader, DecoderContext decoderContext) {
+            MenuItem menuItem = new MenuItem();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                switch (reader.readName()) {
+                    case "_id" -> menuItem.setId(readId(reader));
+                    case "restaurantId" -> menuItem.setRestaurantId(readString(reader));
+                    case "name" -> menuItem.setName(readString(reader));
+                    case "category" -> menuItem.setCategory(readString(reader));
+                    case "price" -> menuItem.setPrice(readMoney(reader));
+                    case "isAvailable" -> menuItem.setAvailable(readBoolean(reader));
+                    case "version" -> menuItem.setVersion(readVersion(reader));
+                    default -> reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+            return menuItem;
+        }
+    };
+
+    /** Decodes {@code _id, isOpen, city}; other fields are skipped. */
+    public static final Codec<RestaurantStatusView> RESTAURANT_STATUS_VIEW = new DecodeOnlyCodec<>(RestaurantStatusView.class) {
+        @Override
+        public RestaurantStatusView decode(BsonReader reader, DecoderContext decoderContext) {
+            String id = null;
+            boolean open = false;
+            String city = null;
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                switch (reader.readName()) {
+                    case "_id" -> id = readId(reader);
+                    case "isOpen" -> open = readBoolean(reader);
+                    case "city" -> city = readString(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+            return new RestaurantStatusView(id, open, city);
+        }
+    };
+
+    /** The codecs above, falling back to {@code fallback} for everything else (e.g. the filter documents). */
+    public static CodecRegistry registry(CodecRegistry fallback) {
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(MENU_ITEM_PRICE_VIEW, MENU_ITEM, RESTAURANT_STATUS_VIEW), fallback);
+    }
+
+    /**
+     * Converts an id the way the mapping layer does when it writes a query: a 24-digit hex string is stored as an
+     * ObjectId, anything else as the string itself.
+     */
+    public static Object toStoredId(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private CatalogCodecs() {
+    }
+
+    private static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case STRING -> reader.readString();
+            default -> throw unexpected(reader);
+        };
+    }
+
+    private static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return reader.readString();
+    }
+
+    private static boolean readBoolean(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return false;
+        }
+        return reader.readBoolean();
+    }
+
+    private static Money readMoney(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> Money.ofMinor(reader.readInt64());
+            case DOUBLE -> Money.fromDouble(reader.readDouble());
+            case NULL -> {
+                reader.readNull();
+                yield null;
+            }
+            default -> throw unexpected(reader);
+        };
+    }
+
+    private static Long readVersion(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> reader.readInt64();
+            case INT32 -> (long) reader.readInt32();
+            case NULL -> {
+                reader.readNull();
+                yield null;
+            }
+            default -> throw unexpected(reader);
+        };
+    }
+
+    private static CodecConfigurationException unexpected(BsonReader reader) {
+        return new CodecConfigurationException("Unexpected BSON type " + reader.getCurrentBsonType()
+                + " for field '" + reader.getCurrentName() + "'");
+    }
+
+    private abstract static class DecodeOnlyCodec<T> implements Codec<T> {
+
+        private final Class<T> type;
+
+        DecodeOnlyCodec(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+            throw new UnsupportedOperationException(type.getSimpleName() + " is read-only");
+        }
+
+        @Override
+        public Class<T> getEncoderClass() {
+            return type;
+        }
+    }
+}
@@ -2,9 +2,10 @@ package com.fooddelivery.restaurantmenuservice.repository;
 
 import com.fooddelivery.restaurantmenuservice.model.MenuItem;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
 import java.util.List;
 
-public interface MenuItemRepository extends MongoRepository<MenuItem, String> {
+public interface MenuItemRepository extends MongoRepository<MenuItem, String>, MenuItemRepositoryCustom {
     List<MenuItem> findByRestaurantId(String restaurantId);
-    List<MenuItem> findByIdInAndRestaurantId(List<String> itemIds, String restaurantId);
+    List<MenuItem> findByRestaurantIdIn(Collection<String> restaurantIds);
 }
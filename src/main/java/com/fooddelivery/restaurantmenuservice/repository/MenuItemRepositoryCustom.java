@@ -0,0 +1,49 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Menu item reads on the validation and snapshot paths, decoded by {@link CatalogCodecs} instead of the
+ * mapping layer, and single round-trip partial updates (see {@link MenuItemUpdates}).
+ */
+public interface MenuItemRepositoryCustom {
+
+    /**
+     * Reads the requested items of one restaurant, limited to the fields validation needs; the query is
+     * covered by the restaurant_menu index.
+     */
+    List<MenuItemPriceView> findPriceViewsByIdInAndRestaurantId(Collection<String> itemIds, String restaurantId);
+
+    List<MenuItemPriceView> findPriceViewsByIdIn(Collection<String> itemIds);
+
+    /** Reads the whole menu of a restaurant (every field). */
+    List<MenuItem> findMenuByRestaurantId(String restaurantId);
+
+    List<MenuItem> findMenuByRestaurantIdIn(Collection<String> restaurantIds);
+
+    /** Streams every menu item through {@code action}, one cursor batch in memory at a time. */
+    void forEachMenuItem(Consumer<MenuItem> action);
+
+    /**
+     * Atomically sets {@code isAvailable} and, when not null, {@code price}, and returns the updated item. With
+     * {@code expectedVersion} the update only applies if the item is still at that version. Returns null if no item
+     * matched: it does not exist, or it has moved past {@code expectedVersion}.
+     */
+    MenuItem updatePriceAndAvailability(String id, Money price, boolean available, Long expectedVersion);
+
+    /**
+     * Sets the availability of the given items of one restaurant in a single update and returns how many changed.
+     * Items of other restaurants, unknown ids and items already in that state are not counted. Every item changed is
+     * tagged with {@code changeId} (see {@link #countAvailabilityChange}).
+     */
+    long updateAvailability(String restaurantId, Collection<String> itemIds, boolean available, String changeId);
+
+    /** How many of the given items were last changed by {@link #updateAvailability} with {@code changeId}. */
+    long countAvailabilityChange(String restaurantId, Collection<String> itemIds, String changeId);
+}
@@ -0,0 +1,87 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+class MenuItemRepositoryCustomImpl implements MenuItemRepositoryCustom {
+
+    // _id is returned by default; together these are all in the restaurant_menu index
+    private static final Bson PRICE_VIEW_FIELDS = Projections.include("restaurantId", "name", "price", "isAvailable");
+
+    private final MongoTemplate mongoTemplate;
+
+    MenuItemRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<MenuItemPriceView> findPriceViewsByIdInAndRestaurantId(Collection<String> itemIds, String restaurantId) {
+        return find(Filters.and(idIn(itemIds), Filters.eq("restaurantId", restaurantId)),
+                PRICE_VIEW_FIELDS, MenuItemPriceView.class);
+    }
+
+    @Override
+    public List<MenuItemPriceView> findPriceViewsByIdIn(Collection<String> itemIds) {
+        return find(idIn(itemIds), PRICE_VIEW_FIELDS, MenuItemPriceView.class);
+    }
+
+    @Override
+    public List<MenuItem> findMenuByRestaurantId(String restaurantId) {
+        return find(Filters.eq("restaurantId", restaurantId), null, MenuItem.class);
+    }
+
+    @Override
+    public List<MenuItem> findMenuByRestaurantIdIn(Collection<String> restaurantIds) {
+        return find(Filters.in("restaurantId", restaurantIds), null, MenuItem.class);
+    }
+
+    @Override
+    public void forEachMenuItem(Consumer<MenuItem> action) {
+        mongoTemplate.execute(MenuItem.class, collection -> {
+            collection.withCodecRegistry(CatalogCodecs.registry(collection.getCodecRegistry()))
+                    .find(new BsonDocument(), MenuItem.class)
+                    .forEach(action);
+            return null;
+        });
+    }
+
+    @Override
+    public MenuItem updatePriceAndAvailability(String id, Money price, boolean available, Long expectedVersion) {
+        return mongoTemplate.findAndModify(MenuItemUpdates.byIdAndVersion(id, expectedVersion),
+                MenuItemUpdates.priceAndAvailability(price, available), MenuItemUpdates.RETURN_NEW, MenuItem.class);
+    }
+
+    @Override
+    public long updateAvailability(String restaurantId, Collection<String> itemIds, boolean available, String changeId) {
+        return mongoTemplate.updateMulti(MenuItemUpdates.availabilityChange(restaurantId, itemIds, available),
+                MenuItemUpdates.availability(available, changeId), MenuItem.class).getModifiedCount();
+    }
+
+    @Override
+    public long countAvailabilityChange(String restaurantId, Collection<String> itemIds, String changeId) {
+        return mongoTemplate.count(MenuItemUpdates.changedBy(restaurantId, itemIds, changeId), MenuItem.class);
+    }
+
+    private static Bson idIn(Collection<String> itemIds) {
+        return Filters.in("_id", itemIds.stream().map(CatalogCodecs::toStoredId).toList());
+    }
+
+    private <T> List<T> find(Bson filter, Bson projection, Class<T> type) {
+        return mongoTemplate.execute(MenuItem.class, collection -> collection
+                .withCodecRegistry(CatalogCodecs.registry(collection.getCodecRegistry()))
+                .find(filter, type)
+                .projection(projection)
+                .into(new ArrayList<>()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+/**
+ * Builds the menu item updates shared by the blocking and reactive repositories. Every update is a single
+ * server-side {@code $set} of the changed fields plus {@code $inc} of the {@code @Version} field, so concurrent
+ * writers never overwrite each other's unrelated fields and optimistic readers see the change.
+ */
+final class MenuItemUpdates {
+
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+    // Id of the last bulk availability change of an item; not mapped on MenuItem
+    static final String AVAILABILITY_CHANGE = "availabilityChange";
+
+    private MenuItemUpdates() {
+    }
+
+    /** Matches the item, and only at {@code expectedVersion} when it is given (compare-and-set). */
+    static Query byIdAndVersion(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+        return new Query(criteria);
+    }
+
+    /** Sets the availability and, when not null, the price. */
+    static Update priceAndAvailability(Money price, boolean available) {
+        Update update = new Update().set("isAvailable", available).inc("version", 1L);
+        if (price != null) {
+            update.set("price", price);
+        }
+        return update;
+    }
+
+    /**
+     * Matches the given items of one restaurant whose availability differs from {@code available}. Items already in
+     * that state are left alone, which also makes the update safe to retry: a second run matches nothing.
+     */
+    static Query availabilityChange(String restaurantId, Collection<String> itemIds, boolean available) {
+        return new Query(Criteria.where("_id").in(itemIds)
+                .and("restaurantId").is(restaurantId)
+                .and("isAvailable").ne(available));
+    }
+
+    /** Also tags each item it changes with {@code changeId}, so the items one bulk change touched can be counted. */
+    static Update availability(boolean available, String changeId) {
+        return new Update().set("isAvailable", available).set(AVAILABILITY_CHANGE, changeId).inc("version", 1L);
+    }
+
+    /** Matches the given items of one restaurant last changed by the bulk change {@code changeId}. */
+    static Query changedBy(String restaurantId, Collection<String> itemIds, String changeId) {
+        return new Query(Criteria.where("_id").in(itemIds)
+                .and("restaurantId").is(restaurantId)
+                .and(AVAILABILITY_CHANGE).is(changeId));
+    }
+}
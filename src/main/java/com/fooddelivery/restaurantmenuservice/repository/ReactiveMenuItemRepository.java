@@ -0,0 +1,19 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link MenuItemRepository}, used by the "reactive" profile.
+ */
+public interface ReactiveMenuItemRepository extends ReactiveMongoRepository<MenuItem, String>,
+        ReactiveMenuItemRepositoryCustom {
+    Flux<MenuItem> findByRestaurantId(String restaurantId);
+    // A DTO projection: only the view's fields are queried, which the restaurant_menu index covers
+    Flux<MenuItemPriceView> findPriceViewsByIdInAndRestaurantId(Collection<String> itemIds, String restaurantId);
+    Flux<MenuItem> findByRestaurantIdIn(Collection<String> restaurantIds);
+}
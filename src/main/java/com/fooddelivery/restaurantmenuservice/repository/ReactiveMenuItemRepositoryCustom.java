@@ -0,0 +1,20 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of the updates in {@link MenuItemRepositoryCustom}.
+ */
+public interface ReactiveMenuItemRepositoryCustom {
+
+    /** Completes empty if no item matched: it does not exist, or it has moved past {@code expectedVersion}. */
+    Mono<MenuItem> updatePriceAndAvailability(String id, Money price, boolean available, Long expectedVersion);
+
+    Mono<Long> updateAvailability(String restaurantId, Collection<String> itemIds, boolean available, String changeId);
+
+    Mono<Long> countAvailabilityChange(String restaurantId, Collection<String> itemIds, String changeId);
+}
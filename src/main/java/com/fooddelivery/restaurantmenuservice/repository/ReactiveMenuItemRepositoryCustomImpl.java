@@ -0,0 +1,37 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+class ReactiveMenuItemRepositoryCustomImpl implements ReactiveMenuItemRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    ReactiveMenuItemRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<MenuItem> updatePriceAndAvailability(String id, Money price, boolean available, Long expectedVersion) {
+        return mongoTemplate.findAndModify(MenuItemUpdates.byIdAndVersion(id, expectedVersion),
+                MenuItemUpdates.priceAndAvailability(price, available), MenuItemUpdates.RETURN_NEW, MenuItem.class);
+    }
+
+    @Override
+    public Mono<Long> updateAvailability(String restaurantId, Collection<String> itemIds, boolean available,
+                                         String changeId) {
+        return mongoTemplate.updateMulti(MenuItemUpdates.availabilityChange(restaurantId, itemIds, available),
+                        MenuItemUpdates.availability(available, changeId), MenuItem.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Long> countAvailabilityChange(String restaurantId, Collection<String> itemIds, String changeId) {
+        return mongoTemplate.count(MenuItemUpdates.changedBy(restaurantId, itemIds, changeId), MenuItem.class);
+    }
+}
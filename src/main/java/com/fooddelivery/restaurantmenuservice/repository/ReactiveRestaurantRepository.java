@@ -0,0 +1,19 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link RestaurantRepository}, used by the "reactive" profile.
+ */
+public interface ReactiveRestaurantRepository extends ReactiveMongoRepository<Restaurant, String>,
+        ReactiveRestaurantRepositoryCustom {
+    Flux<Restaurant> findByCity(String city);
+    Mono<RestaurantStatusView> findStatusById(String id);
+    Flux<RestaurantStatusView> findStatusByIdIn(Collection<String> ids);
+}
@@ -0,0 +1,18 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link RestaurantRepositoryCustom}.
+ */
+public interface ReactiveRestaurantRepositoryCustom {
+
+    Flux<Restaurant> findPage(String city, Sort sort, List<Object> after, long skip, int limit);
+
+    /** Every restaurant of {@code city} (all cities if null) in {@code _id} order, fetched as demand requires. */
+    Flux<Restaurant> streamAll(String city, int batchSize);
+}
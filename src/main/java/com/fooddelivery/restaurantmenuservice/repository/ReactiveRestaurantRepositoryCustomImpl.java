@@ -0,0 +1,27 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+class ReactiveRestaurantRepositoryCustomImpl implements ReactiveRestaurantRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    ReactiveRestaurantRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<Restaurant> findPage(String city, Sort sort, List<Object> after, long skip, int limit) {
+        return mongoTemplate.find(RestaurantPageQuery.build(city, sort, after, skip, limit), Restaurant.class);
+    }
+
+    @Override
+    public Flux<Restaurant> streamAll(String city, int batchSize) {
+        return mongoTemplate.find(RestaurantPageQuery.all(city).cursorBatchSize(batchSize), Restaurant.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the restaurant page query shared by the blocking and reactive repositories.
+ *
+ * A keyset position (v1, ..., vn) for sort (p1, ..., pn) becomes
+ * {@code (p1 > v1) OR (p1 = v1 AND p2 > v2) OR ...}, with "&gt;" meaning "after in sort order" (i.e. &lt; for
+ * descending properties). Nulls sort first in MongoDB, so they are handled explicitly rather than compared.
+ */
+final class RestaurantPageQuery {
+
+    private RestaurantPageQuery() {
+    }
+
+    static Query build(String city, Sort sort, List<Object> after, long skip, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (city != null && !city.isEmpty()) {
+            filters.add(Criteria.where("city").is(city));
+        }
+        if (after != null && !after.isEmpty()) {
+            filters.add(after(sort.toList(), after));
+        }
+
+        Query query = filters.isEmpty() ? new Query() : new Query(new Criteria().andOperator(filters));
+        return query.with(sort).skip(skip).limit(limit);
+    }
+
+    /** All restaurants of {@code city} (all cities if null) in {@code _id} order, served by the _id or city_id index. */
+    static Query all(String city) {
+        return build(city, Sort.by("_id"), null, 0, 0);
+    }
+
+    private static Criteria after(List<Sort.Order> orders, List<Object> values) {
+        List<Criteria> alternatives = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Criteria strictlyAfter = strictlyAfter(orders.get(i), values.get(i));
+            if (strictlyAfter == null) {
+                continue;
+            }
+            List<Criteria> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(Criteria.where(orders.get(j).getProperty()).is(values.get(j)));
+            }
+            terms.add(strictlyAfter);
+            alternatives.add(terms.size() == 1 ? strictlyAfter : new Criteria().andOperator(terms));
+        }
+        // Nothing can sort after the position (e.g. the last value of a descending property was null)
+        return alternatives.isEmpty()
+                ? Criteria.where("_id").exists(false)
+                : new Criteria().orOperator(alternatives);
+    }
+
+    private static Criteria strictlyAfter(Sort.Order order, Object value) {
+        String property = order.getProperty();
+        if (order.isAscending()) {
+            return value == null ? Criteria.where(property).ne(null) : Criteria.where(property).gt(value);
+        }
+        if (value == null) {
+            return null;
+        }
+        return new Criteria().orOperator(Criteria.where(property).lt(value), Criteria.where(property).is(null));
+    }
+}
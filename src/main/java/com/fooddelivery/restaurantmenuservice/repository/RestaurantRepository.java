@@ -4,6 +4,6 @@ import com.fooddelivery.restaurantmenuservice.model.Restaurant;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
-public interface RestaurantRepository extends MongoRepository<Restaurant, String> {
+public interface RestaurantRepository extends MongoRepository<Restaurant, String>, RestaurantRepositoryCustom {
     List<Restaurant> findByCity(String city);
 }
@@ -0,0 +1,35 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Paged restaurant reads that run entirely in MongoDB (sort, skip and limit), see {@link RestaurantPageQuery},
+ * and status lookups decoded by {@link CatalogCodecs} instead of the mapping layer.
+ */
+public interface RestaurantRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} restaurants of {@code city} (all cities if null) in {@code sort} order.
+     * With {@code after} (one value per sort property) only restaurants that sort strictly after that
+     * position are returned, which keeps deep pages as cheap as the first one; otherwise {@code skip} applies.
+     */
+    List<Restaurant> findPage(String city, Sort sort, List<Object> after, long skip, int limit);
+
+    /**
+     * Every restaurant of {@code city} (all cities if null) in {@code _id} order, read lazily from one cursor in
+     * batches of {@code batchSize}. The stream holds the cursor open and must be closed.
+     */
+    Stream<Restaurant> streamAll(String city, int batchSize);
+
+    /** Reads only {@code isOpen} and {@code city} of a restaurant. */
+    Optional<RestaurantStatusView> findStatusById(String id);
+
+    List<RestaurantStatusView> findStatusByIdIn(Collection<String> ids);
+}
@@ -0,0 +1,55 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.conversions.Bson;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+class RestaurantRepositoryCustomImpl implements RestaurantRepositoryCustom {
+
+    private static final Bson STATUS_FIELDS = Projections.include("isOpen", "city");
+
+    private final MongoTemplate mongoTemplate;
+
+    RestaurantRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Restaurant> findPage(String city, Sort sort, List<Object> after, long skip, int limit) {
+        return mongoTemplate.find(RestaurantPageQuery.build(city, sort, after, skip, limit), Restaurant.class);
+    }
+
+    @Override
+    public Stream<Restaurant> streamAll(String city, int batchSize) {
+        return mongoTemplate.stream(RestaurantPageQuery.all(city).cursorBatchSize(batchSize), Restaurant.class);
+    }
+
+    @Override
+    public Optional<RestaurantStatusView> findStatusById(String id) {
+        return findStatuses(Filters.eq("_id", CatalogCodecs.toStoredId(id))).stream().findFirst();
+    }
+
+    @Override
+    public List<RestaurantStatusView> findStatusByIdIn(Collection<String> ids) {
+        return findStatuses(Filters.in("_id", ids.stream().map(CatalogCodecs::toStoredId).toList()));
+    }
+
+    private List<RestaurantStatusView> findStatuses(Bson filter) {
+        // execute() keeps the template's exception translation while the driver decodes with CatalogCodecs
+        return mongoTemplate.execute(Restaurant.class, collection -> collection
+                .withCodecRegistry(CatalogCodecs.registry(collection.getCodecRegistry()))
+                .find(filter, RestaurantStatusView.class)
+                .projection(STATUS_FIELDS)
+                .into(new ArrayList<>()));
+    }
+}
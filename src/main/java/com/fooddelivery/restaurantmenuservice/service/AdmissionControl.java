@@ -0,0 +1,215 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of {@code validate-order}, so that a promotion flooding a few restaurants sheds load
+ * instead of exhausting the MongoDB pool and timing out every caller. Two checks, both lock-free:
+ *
+ * <ul>
+ *   <li>Per restaurant, a token bucket of {@code menu.admission.restaurant-rate} validations per second with bursts
+ *   of {@code menu.admission.restaurant-burst}. Excess requests get 429 with a Retry-After.</li>
+ *   <li>Globally, a limit on validations in flight that adapts to latency (AIMD): it grows by one while requests
+ *   finish within {@code menu.admission.target-latency} and the limit is actually in use, and shrinks by 10% (at
+ *   most once per target latency) when they do not. Requests over the limit get 503 at once.</li>
+ * </ul>
+ *
+ * Callers pair {@link #acquire} (or {@link #acquireBatch}) with {@link #release} in a finally block (or doFinally).
+ */
+@Component
+public class AdmissionControl {
+
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final boolean enabled;
+    private final long emissionIntervalNanos; // Time to earn one token
+    private final long burstNanos;            // How far a bucket may run ahead of now: burst - 1 intervals
+    private final int maxTrackedRestaurants;
+    private final int evictionInterval;
+    private final long targetLatencyNanos;
+    private final int minLimit;
+    private final int maxLimit;
+
+    // Per restaurant, the time at which its bucket is full again (GCRA, an equivalent form of the token bucket)
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger insertsSinceEviction = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${menu.admission.enabled:true}") boolean enabled,
+                            @Value("${menu.admission.restaurant-rate:200}") double restaurantRate,
+                            @Value("${menu.admission.restaurant-burst:400}") int restaurantBurst,
+                            @Value("${menu.admission.max-tracked-restaurants:10000}") int maxTrackedRestaurants,
+                            @Value("${menu.admission.target-latency:PT0.1S}") Duration targetLatency,
+                            @Value("${menu.admission.initial-limit:100}") int initialLimit,
+                            @Value("${menu.admission.min-limit:10}") int minLimit,
+                            @Value("${menu.admission.max-limit:1000}") int maxLimit) {
+        this.enabled = enabled;
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / restaurantRate));
+        this.burstNanos = emissionIntervalNanos * Math.max(0, restaurantBurst - 1);
+        this.maxTrackedRestaurants = maxTrackedRestaurants;
+        this.evictionInterval = Math.max(1, maxTrackedRestaurants / 16);
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+
+        this.rateLimited = rejections(meterRegistry, "restaurant_rate");
+        this.overloaded = rejections(meterRegistry, "overload");
+        Gauge.builder("menu.admission.limit", limit, AtomicInteger::get)
+                .description("Current limit on order validations in flight")
+                .register(meterRegistry);
+        Gauge.builder("menu.admission.in.flight", inFlight, AtomicInteger::get)
+                .description("Order validations in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits one validation for {@code restaurantId}, or throws 429 (restaurant over its rate) or 503 (service
+     * over its concurrency limit). Returns the start time to pass to {@link #release}.
+     */
+    public long acquire(String restaurantId) {
+        long now = System.nanoTime();
+        if (!enabled) {
+            return now;
+        }
+        if (restaurantId != null) {
+            long waitNanos = takeToken(restaurantId, now);
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many validations for restaurant " + restaurantId + ".", waitNanos);
+            }
+        }
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            if (restaurantId != null) {
+                // Shed without running, so it must not count against the restaurant's rate either
+                returnToken(restaurantId);
+            }
+            overloaded.increment();
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Order validation is overloaded.", targetLatencyNanos);
+        }
+        return now;
+    }
+
+    /**
+     * Admits a {@code validate-orders} batch: the batch holds one permit of the global limit, as its lookups are
+     * shared, and throws 503 like {@link #acquire} when there is none. Each entry still takes a token from its
+     * restaurant's bucket, so batching cannot bypass the per-restaurant rate; entries over it are flagged in the
+     * result, to be answered {@code RATE_LIMITED} without validating. Release with {@link BatchAdmission#startNanos}.
+     */
+    public BatchAdmission acquireBatch(List<OrderValidationRequest> requests) {
+        // Global check first, so that a shed batch spends no restaurant's tokens
+        long now = acquire(null);
+        BitSet rateLimitedEntries = new BitSet(requests.size());
+        if (enabled) {
+            for (int i = 0; i < requests.size(); i++) {
+                String restaurantId = requests.get(i) == null ? null : requests.get(i).getRestaurantId();
+                if (restaurantId != null && takeToken(restaurantId, now) > 0) {
+                    rateLimited.increment();
+                    rateLimitedEntries.set(i);
+                }
+            }
+        }
+        return new BatchAdmission(now, rateLimitedEntries);
+    }
+
+    /** Ends a validation admitted at {@code startNanos} and adapts the concurrency limit to its latency. */
+    public void release(long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        int inFlightBefore = inFlight.getAndDecrement();
+        int current = limit.get();
+        if (now - startNanos > targetLatencyNanos) {
+            long last = lastDecrease.get();
+            // One decrease per target latency: a burst of slow requests is one signal, not many
+            if (now - last >= targetLatencyNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.set(Math.max(minLimit, (int) (current * DECREASE_FACTOR)));
+            }
+        } else if (current < maxLimit && inFlightBefore * 2 >= current) {
+            // Only grow while the limit is in use; an idle service learns nothing about its capacity
+            limit.compareAndSet(current, current + 1);
+        }
+    }
+
+    /** Takes a token from the restaurant's bucket; returns 0 if there was one, else how long until there is. */
+    private long takeToken(String restaurantId, long now) {
+        AtomicLong bucket = buckets.get(restaurantId);
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedRestaurants) {
+                evictFullBuckets(now);
+            }
+            bucket = buckets.computeIfAbsent(restaurantId, id -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long base = Math.max(fullAt, now);
+            if (base - now > burstNanos) {
+                return base - now - burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Gives back a token taken by {@link #takeToken}. */
+    private void returnToken(String restaurantId) {
+        AtomicLong bucket = buckets.get(restaurantId);
+        // A bucket evicted meanwhile was full, so there is nothing to give back to
+        if (bucket != null) {
+            bucket.addAndGet(-emissionIntervalNanos);
+        }
+    }
+
+    /**
+     * Buckets that have refilled completely are indistinguishable from new ones, so dropping them is free. The scan
+     * walks every bucket, so it runs once per {@link #evictionInterval} new restaurants rather than on each one:
+     * under a steady stream of new restaurants the map may exceed its bound by that many between scans.
+     */
+    private void evictFullBuckets(long now) {
+        if (insertsSinceEviction.incrementAndGet() < evictionInterval) {
+            return;
+        }
+        insertsSinceEviction.set(0);
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    /** Number of restaurants with a bucket. */
+    int trackedRestaurants() {
+        return buckets.size();
+    }
+
+    /** An admitted batch: when it started, and which of its entries (by position) are over their restaurant's rate. */
+    public record BatchAdmission(long startNanos, BitSet rateLimited) {
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("menu.admission.rejections")
+                .description("Order validations rejected before running, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request turned away by {@link AdmissionControl}: 429 or 503 with a {@code Retry-After} header, which both web
+ * stacks copy onto the error response.
+ */
+public class AdmissionRejectedException extends ResponseStatusException {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    AdmissionRejectedException(HttpStatus status, String reason, long retryAfterNanos) {
+        super(status, reason);
+        // Retry-After is in whole seconds; round up so a client that honours it is admitted
+        headers.set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1L, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
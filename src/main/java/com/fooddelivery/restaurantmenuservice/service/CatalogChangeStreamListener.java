@@ -0,0 +1,286 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tails the MongoDB change stream of the {@code restaurants} and {@code menu_items} collections and pushes every
+ * change into the local {@link MenuSnapshotStore}, so a write made through any replica is visible on all of them.
+ *
+ * A pod starts the stream at the cluster time of its own start, before it serves requests: its snapshots, search
+ * index and listings start empty and are read from MongoDB after that, so no earlier change is missing from them,
+ * and no resume token is persisted. The
+ * exception is a store warmed from a {@link CatalogSnapshotFile}: the stream then starts at the file's export time,
+ * so every change made since is replayed. Within a run, a stream that fails is reopened after its last token.
+ * Replication lag (event wall time to local apply) is exposed as {@code menu.changestream.lag}. Change streams need
+ * a replica set, so the listener is opt-in via {@code menu.change-stream.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "menu.change-stream.enabled", havingValue = "true")
+public class CatalogChangeStreamListener implements SmartLifecycle {
+
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeStreamListener.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MenuSnapshotStore snapshotStore;
+    private final MenuSearchService searchService;
+    private final RestaurantListingService listingService;
+    private final ObjectProvider<CatalogSnapshotFile> catalogFile;
+    private final String restaurantsCollection;
+    private final String menuItemsCollection;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter restaurantEvents;
+    private final Counter menuItemEvents;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    // Only touched by the worker thread once started
+    private BsonDocument resumeToken;
+    private BsonTimestamp startAtOperationTime; // Only used until the stream hands out its first resume token
+
+    public CatalogChangeStreamListener(MongoTemplate mongoTemplate,
+                                       MenuSnapshotStore snapshotStore,
+                                       MenuSearchService searchService,
+                                       RestaurantListingService listingService,
+                                       ObjectProvider<CatalogSnapshotFile> catalogFile,
+                                       MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotStore = snapshotStore;
+        this.searchService = searchService;
+        this.listingService = listingService;
+        this.catalogFile = catalogFile;
+        this.restaurantsCollection = mongoTemplate.getCollectionName(Restaurant.class);
+        this.menuItemsCollection = mongoTemplate.getCollectionName(MenuItem.class);
+
+        Gauge.builder("menu.changestream.lag", lagMillis, AtomicLong::get)
+                .description("Time between a change being committed in MongoDB and applied to the local read model")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.restaurantEvents = Counter.builder("menu.changestream.events")
+                .tag("collection", restaurantsCollection)
+                .register(meterRegistry);
+        this.menuItemEvents = Counter.builder("menu.changestream.events")
+                .tag("collection", menuItemsCollection)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        CatalogSnapshotFile file = catalogFile.getIfAvailable();
+        startAtOperationTime = file == null ? null : file.getLoadedOperationTime();
+        boolean fromFile = startAtOperationTime != null;
+        if (!fromFile) {
+            // Pinned before the web server takes requests, so no read of MongoDB precedes the stream's start
+            startAtOperationTime = currentOperationTime();
+        }
+        resumeToken = null;
+        running = true;
+        worker = new Thread(this::run, "catalog-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Catalog change stream started ({})",
+                fromFile ? "from catalog file export time" : "from now");
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                log.warn("Catalog change stream did not stop within 5 s");
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Before the web server, which starts in a phase just below the default. */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void run() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openCursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    if (event != null) {
+                        if (!apply(event)) {
+                            break; // Stream was invalidated; reopen from the current time
+                        }
+                        resumeToken = event.getResumeToken();
+                    } else {
+                        // Nothing left to apply: caught up, whatever the lag of the last event was
+                        lagMillis.set(0);
+                        if (cursor.getResumeToken() != null && !cursor.getResumeToken().equals(resumeToken)) {
+                            // Post-batch token: keeps the resume point moving while the collections are quiet
+                            resumeToken = cursor.getResumeToken();
+                        }
+                    }
+                }
+            } catch (MongoException e) {
+                if (e.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // The oplog no longer holds our position: anything cached may have missed changes
+                    log.warn("Change stream resume point is no longer in the oplog; dropping cached snapshots");
+                    resumeToken = null;
+                    startAtOperationTime = null;
+                    snapshotStore.clear();
+                    searchService.rebuild();
+                    listingService.rebuild();
+                } else if (running) {
+                    log.warn("Catalog change stream failed, reopening: {}", e.getMessage());
+                    pause();
+                }
+            } catch (RuntimeException e) {
+                if (running) {
+                    log.warn("Catalog change stream failed, reopening", e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", restaurantsCollection, menuItemsCollection))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        } else if (startAtOperationTime != null) {
+            stream = stream.startAtOperationTime(startAtOperationTime);
+        }
+        return stream.cursor();
+    }
+
+    /**
+     * Applies one change event to the snapshot store. Returns false when the stream was invalidated.
+     */
+    private boolean apply(ChangeStreamDocument<Document> event) {
+        recordLag(event);
+        OperationType type = event.getOperationType();
+        if (type == OperationType.INVALIDATE || type == OperationType.DROP
+                || type == OperationType.DROP_DATABASE || type == OperationType.RENAME) {
+            snapshotStore.clear();
+            searchService.rebuild();
+            listingService.rebuild();
+            if (type == OperationType.INVALIDATE) {
+                resumeToken = null;
+                startAtOperationTime = null;
+                return false;
+            }
+            return true;
+        }
+
+        String collection = event.getNamespace() == null ? null : event.getNamespace().getCollectionName();
+        String id = documentId(event.getDocumentKey());
+        Document fullDocument = event.getFullDocument();
+        if (id == null) {
+            return true;
+        }
+
+        if (restaurantsCollection.equals(collection)) {
+            restaurantEvents.increment();
+            if (type == OperationType.DELETE || fullDocument == null) {
+                snapshotStore.evict(id);
+                searchService.removeRestaurant(id);
+                listingService.removeRestaurant(id);
+            } else {
+                Restaurant restaurant = mongoTemplate.getConverter().read(Restaurant.class, fullDocument);
+                snapshotStore.applyRestaurant(restaurant);
+                searchService.applyRestaurant(restaurant);
+                listingService.applyRestaurant(restaurant);
+            }
+        } else if (menuItemsCollection.equals(collection)) {
+            menuItemEvents.increment();
+            if (type == OperationType.DELETE || fullDocument == null) {
+                snapshotStore.removeMenuItem(id);
+                searchService.removeMenuItem(id);
+            } else {
+                MenuItem menuItem = mongoTemplate.getConverter().read(MenuItem.class, fullDocument);
+                snapshotStore.applyMenuItem(menuItem);
+                searchService.applyMenuItem(menuItem);
+            }
+        }
+        return true;
+    }
+
+    private void recordLag(ChangeStreamDocument<Document> event) {
+        long committedAtMillis;
+        if (event.getWallTime() != null) {
+            committedAtMillis = event.getWallTime().getValue();
+        } else if (event.getClusterTime() != null) {
+            committedAtMillis = TimeUnit.SECONDS.toMillis(event.getClusterTime().getTime());
+        } else {
+            return;
+        }
+        lagMillis.set(Math.max(0, System.currentTimeMillis() - committedAtMillis));
+    }
+
+    /** Cluster time as reported by a replica set, or null (the stream then starts whenever it is opened). */
+    private BsonTimestamp currentOperationTime() {
+        Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+        return hello != null && hello.get("operationTime") instanceof BsonTimestamp operationTime ? operationTime : null;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static String documentId(BsonDocument documentKey) {
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.toString();
+    }
+}
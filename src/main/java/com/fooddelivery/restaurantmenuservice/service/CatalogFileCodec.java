@@ -0,0 +1,374 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Binary columnar layout of the menu catalog file written and read by {@link CatalogSnapshotFile}.
+ *
+ * <pre>
+ * header   magic "MENUCAT1", format version, created-at millis, MongoDB operation time (-1 if unknown),
+ *          restaurant count, item count, byte length of each column
+ * columns  restaurant ids | restaurant open bitset | restaurant cities | item offsets (int per restaurant + 1) |
+ *          item ids | item names | item categories | item prices (long minor units) | item availability bitset |
+ *          item versions (long, -1 if none)
+ * trailer  CRC32 of everything before it
+ * </pre>
+ *
+ * Each restaurant's items are the contiguous range [offset[r], offset[r + 1]) of the item columns. Strings are an
+ * int byte length (-1 for null) followed by UTF-8 bytes. All numbers are big-endian.
+ */
+final class CatalogFileCodec {
+
+    static final long MAGIC = 0x4d454e5543415431L; // "MENUCAT1"
+    static final int FORMAT_VERSION = 2;
+
+    private static final int COLUMNS = 10;
+    private static final int HEADER_BYTES = 8 + 4 + 8 + 8 + 4 + 4 + 4 * COLUMNS;
+    private static final long NULL_PRICE = Long.MIN_VALUE;
+    private static final long NULL_VERSION = -1L;
+
+    private CatalogFileCodec() {
+    }
+
+    /**
+     * Accumulates the catalog column by column; each restaurant must be followed by its items. Columns are spilled
+     * to temporary files in {@code spillDirectory} as they grow, so only the two bitsets (one bit per restaurant and
+     * per item) are held in memory; {@link #close} deletes the spill files.
+     */
+    static final class Writer implements Closeable {
+        private final List<Column> spilled = new ArrayList<>();
+        private final Column restaurantIds;
+        private final Column cities;
+        private final Column offsets;
+        private final Column itemIds;
+        private final Column names;
+        private final Column categories;
+        private final Column prices;
+        private final Column versions;
+        private final BitSet open = new BitSet();
+        private final BitSet available = new BitSet();
+        private int restaurantCount;
+        private int itemCount;
+
+        Writer(Path spillDirectory) throws IOException {
+            Files.createDirectories(spillDirectory);
+            try {
+                restaurantIds = spill(spillDirectory);
+                cities = spill(spillDirectory);
+                offsets = spill(spillDirectory);
+                itemIds = spill(spillDirectory);
+                names = spill(spillDirectory);
+                categories = spill(spillDirectory);
+                prices = spill(spillDirectory);
+                versions = spill(spillDirectory);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+
+        private Column spill(Path directory) throws IOException {
+            Column column = new Column(Files.createTempFile(directory, "catalog-column", ".tmp"));
+            spilled.add(column);
+            return column;
+        }
+
+        void addRestaurant(String id, boolean isOpen, String city) {
+            restaurantIds.writeString(id);
+            cities.writeString(city);
+            offsets.writeInt(itemCount);
+            open.set(restaurantCount, isOpen);
+            restaurantCount++;
+        }
+
+        void addItem(String id, String name, String category, Money price, boolean isAvailable, Long version) {
+            itemIds.writeString(id);
+            names.writeString(name);
+            categories.writeString(category);
+            prices.writeLong(price == null ? NULL_PRICE : price.getMinorUnits());
+            available.set(itemCount, isAvailable);
+            versions.writeLong(version == null ? NULL_VERSION : version);
+            itemCount++;
+        }
+
+        int getRestaurantCount() { return restaurantCount; }
+
+        int getItemCount() { return itemCount; }
+
+        /** Writes the file next to {@code file} and atomically moves it into place, so readers never see half a file. */
+        void writeTo(Path file, long createdAtMillis, long operationTime) throws IOException {
+            offsets.writeInt(itemCount); // Closing offset of the last restaurant
+            Column openBits = Column.bits(open, restaurantCount);
+            Column availableBits = Column.bits(available, itemCount);
+            Column[] columns = {restaurantIds, openBits, cities, offsets, itemIds, names, categories, prices, availableBits,
+                    versions};
+            for (Column column : columns) {
+                column.flush();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putLong(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(createdAtMillis)
+                    .putLong(operationTime)
+                    .putInt(restaurantCount)
+                    .putInt(itemCount);
+            for (Column column : columns) {
+                header.putInt(column.size());
+            }
+
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                CRC32 crc = new CRC32();
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    out.write(header.array());
+                    crc.update(header.array());
+                    for (Column column : columns) {
+                        column.writeTo(out, crc);
+                    }
+                    out.write(ByteBuffer.allocate(8).putLong(crc.getValue()).array());
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (Column column : spilled) {
+                try {
+                    column.delete();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /** A decoded file header; the columns are read lazily from the (memory-mapped) buffer. */
+    static final class Catalog {
+        private final ByteBuffer buffer;
+        private final long createdAtMillis;
+        private final long operationTime;
+        private final int restaurantCount;
+        private final int itemCount;
+        private final int[] columnOffsets = new int[COLUMNS];
+
+        private Catalog(ByteBuffer buffer) {
+            this.buffer = buffer;
+            if (buffer.limit() < HEADER_BYTES + 8 || buffer.getLong(0) != MAGIC) {
+                throw new IllegalArgumentException("Not a menu catalog file");
+            }
+            if (buffer.getInt(8) != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported catalog format version " + buffer.getInt(8));
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, buffer.limit() - 8));
+            if (crc.getValue() != buffer.getLong(buffer.limit() - 8)) {
+                throw new IllegalArgumentException("Catalog file checksum mismatch");
+            }
+            this.createdAtMillis = buffer.getLong(12);
+            this.operationTime = buffer.getLong(20);
+            this.restaurantCount = buffer.getInt(28);
+            this.itemCount = buffer.getInt(32);
+            int offset = HEADER_BYTES;
+            for (int i = 0; i < COLUMNS; i++) {
+                columnOffsets[i] = offset;
+                offset += buffer.getInt(36 + 4 * i);
+            }
+        }
+
+        long getCreatedAtMillis() { return createdAtMillis; }
+
+        /** MongoDB cluster time read just before the export started, or -1 if the server did not report one. */
+        long getOperationTime() { return operationTime; }
+
+        int getRestaurantCount() { return restaurantCount; }
+
+        int getItemCount() { return itemCount; }
+
+        /** Decodes restaurant by restaurant (status, city and id only) together with its menu items. */
+        void forEachRestaurant(BiConsumer<Restaurant, List<MenuItem>> consumer) {
+            ByteBuffer restaurantIds = column(0);
+            BitSet open = bits(column(1), restaurantCount);
+            ByteBuffer cities = column(2);
+            ByteBuffer offsets = column(3);
+            ByteBuffer itemIds = column(4);
+            ByteBuffer names = column(5);
+            ByteBuffer categories = column(6);
+            ByteBuffer prices = column(7);
+            BitSet available = bits(column(8), itemCount);
+            ByteBuffer versions = column(9);
+
+            int from = offsets.getInt();
+            for (int r = 0; r < restaurantCount; r++) {
+                Restaurant restaurant = new Restaurant();
+                restaurant.setId(readString(restaurantIds));
+                restaurant.setOpen(open.get(r));
+                restaurant.setCity(readString(cities));
+                int to = offsets.getInt();
+                List<MenuItem> menuItems = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    long price = prices.getLong();
+                    long version = versions.getLong();
+                    MenuItem menuItem = new MenuItem(readString(itemIds), restaurant.getId(), readString(names),
+                            readString(categories), price == NULL_PRICE ? null : Money.ofMinor(price), available.get(i));
+                    menuItem.setVersion(version == NULL_VERSION ? null : version);
+                    menuItems.add(menuItem);
+                }
+                consumer.accept(restaurant, menuItems);
+                from = to;
+            }
+        }
+
+        private ByteBuffer column(int index) {
+            int end = index + 1 < COLUMNS ? columnOffsets[index + 1] : buffer.limit() - 8;
+            return buffer.slice(columnOffsets[index], end - columnOffsets[index]);
+        }
+    }
+
+    /** Validates the header and checksum of a catalog held in {@code buffer}. */
+    static Catalog read(ByteBuffer buffer) {
+        return new Catalog(buffer);
+    }
+
+    private static String readString(ByteBuffer column) {
+        int length = column.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        column.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BitSet bits(ByteBuffer column, int count) {
+        long[] words = new long[(count + 63) / 64];
+        column.asLongBuffer().get(words);
+        return BitSet.valueOf(words);
+    }
+
+    /** Bytes of one column, appended to a spill file, or held in memory when there is none (the bitsets). */
+    private static final class Column {
+        private final Path file;
+        private final ByteArrayOutputStream memory;
+        private final DataOutputStream out;
+
+        Column(Path file) throws IOException {
+            this.file = file;
+            this.memory = null;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        }
+
+        private Column(ByteArrayOutputStream memory) {
+            this.file = null;
+            this.memory = memory;
+            this.out = new DataOutputStream(memory);
+        }
+
+        static Column bits(BitSet bits, int count) {
+            Column column = new Column(new ByteArrayOutputStream());
+            long[] words = Arrays.copyOf(bits.toLongArray(), (count + 63) / 64);
+            for (long word : words) {
+                column.writeLong(word);
+            }
+            return column;
+        }
+
+        void writeString(String value) {
+            try {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(utf8.length);
+                    out.write(utf8);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int size() {
+            return out.size();
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        void writeTo(OutputStream target, CRC32 crc) throws IOException {
+            if (memory != null) {
+                byte[] data = memory.toByteArray();
+                target.write(data);
+                crc.update(data);
+                return;
+            }
+            byte[] buffer = new byte[1 << 16];
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    target.write(buffer, 0, read);
+                    crc.update(buffer, 0, read);
+                }
+            }
+        }
+
+        void delete() throws IOException {
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
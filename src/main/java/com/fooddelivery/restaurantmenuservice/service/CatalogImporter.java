@@ -0,0 +1,304 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.CatalogImportResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Streaming CSV import for restaurants and menu items, used by DataLoader at startup and by the admin import
+ * endpoint.
+ *
+ * The file is read sequentially in chunks of {@code menu.import.batch-size} lines. Chunks are parsed on a small
+ * worker pool while the calling thread writes earlier chunks, one unordered bulk write per chunk, so a file
+ * costs one round-trip per batch instead of one per row. At most two chunks per worker are in flight, which
+ * bounds memory however large the file is.
+ *
+ * A row MongoDB refuses, such as a duplicate id on insert, is rejected like a row that does not parse: the rest of
+ * its chunk and every other chunk are still written, and the result counts what was.
+ */
+@Service
+public class CatalogImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImporter.class);
+
+    private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final MenuSnapshotStore snapshotStore;
+    private final MenuSearchService searchService;
+    private final RestaurantListingService listingService;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final ExecutorService parsers;
+
+    public CatalogImporter(MongoTemplate mongoTemplate, MenuSnapshotStore snapshotStore,
+                           MenuSearchService searchService, RestaurantListingService listingService,
+                           @Value("${menu.import.batch-size:1000}") int batchSize,
+                           @Value("${menu.import.parallelism:0}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotStore = snapshotStore;
+        this.searchService = searchService;
+        this.listingService = listingService;
+        this.batchSize = batchSize;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = threads * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.parsers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "catalog-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        parsers.shutdownNow();
+    }
+
+    /**
+     * Imports restaurants.csv rows (restaurant_id,name,cuisine,city,rating,is_open,created_at).
+     * With {@code upsert} existing restaurants are updated field by field ($set); otherwise rows are inserted.
+     */
+    public CatalogImportResult importRestaurants(InputStream csv, boolean upsert) throws IOException {
+        return importCsv(csv, Restaurant.class, CatalogImporter::parseRestaurant, upsert);
+    }
+
+    /** Imports menu_items.csv rows (item_id,restaurant_id,name,category,price,is_available). */
+    public CatalogImportResult importMenuItems(InputStream csv, boolean upsert) throws IOException {
+        return importCsv(csv, MenuItem.class, CatalogImporter::parseMenuItem, upsert);
+    }
+
+    private <T> CatalogImportResult importCsv(InputStream csv, Class<T> type, Function<String[], T> parser,
+                                              boolean upsert) throws IOException {
+        long started = System.nanoTime();
+        Totals totals = new Totals();
+        Deque<Future<ParsedChunk<T>>> inFlight = new ArrayDeque<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            reader.readLine(); // Header
+            List<String> lines = new ArrayList<>(batchSize);
+            long lineNumber = 1;
+            long firstLineOfChunk = 2;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    inFlight.add(submit(lines, firstLineOfChunk, parser));
+                    lines = new ArrayList<>(batchSize);
+                    firstLineOfChunk = lineNumber + 1;
+                    if (inFlight.size() >= maxInFlight) {
+                        write(type, await(inFlight.poll()), upsert, totals);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                inFlight.add(submit(lines, firstLineOfChunk, parser));
+            }
+            while (!inFlight.isEmpty()) {
+                write(type, await(inFlight.poll()), upsert, totals);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            if (totals.inserted + totals.upserted + totals.modified > 0) {
+                // Imported prices/availability bypass the service's write-through, so drop every cached menu
+                snapshotStore.clear();
+                searchService.rebuild();
+                if (type == Restaurant.class) {
+                    listingService.rebuild();
+                }
+            }
+        }
+
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        CatalogImportResult result = new CatalogImportResult(mongoTemplate.getCollectionName(type), totals.rows,
+                totals.inserted, totals.upserted, totals.modified, totals.rejected, totals.errors, durationMillis);
+        log.info("Imported {} rows into {} in {} ms ({} rows/s): {} inserted, {} upserted, {} modified, {} rejected",
+                result.getRows(), result.getCollection(), durationMillis, result.getRowsPerSecond(),
+                result.getInserted(), result.getUpserted(), result.getModified(), result.getRejected());
+        return result;
+    }
+
+    private <T> Future<ParsedChunk<T>> submit(List<String> lines, long firstLine, Function<String[], T> parser) {
+        return parsers.submit(() -> {
+            ParsedChunk<T> chunk = new ParsedChunk<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(parser.apply(line.split(",", -1)), firstLine + i);
+                } catch (RuntimeException e) {
+                    chunk.errors.add("line " + (firstLine + i) + ": " + e.getMessage());
+                }
+            }
+            return chunk;
+        });
+    }
+
+    private static <T> ParsedChunk<T> await(Future<ParsedChunk<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import failed", e.getCause());
+        }
+    }
+
+    private <T> void write(Class<T> type, ParsedChunk<T> chunk, boolean upsert, Totals totals) {
+        totals.rows += chunk.documents.size() + chunk.errors.size();
+        chunk.errors.forEach(totals::reject);
+        if (chunk.documents.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        if (upsert) {
+            String versionField = versionField(type);
+            for (T document : chunk.documents) {
+                Document fields = new Document();
+                mongoTemplate.getConverter().write(document, fields);
+                Object id = fields.remove("_id");
+                Update update = new Update();
+                if (versionField != null) {
+                    // Like any other write: bump the version so optimistic writers that read the old row get a 409
+                    fields.remove(versionField);
+                    update.inc(versionField, 1L);
+                }
+                fields.forEach(update::set);
+                bulk.upsert(new Query(Criteria.where("_id").is(id)), update);
+            }
+        } else {
+            bulk.insert(chunk.documents);
+        }
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().isEmpty()) {
+                // A write concern error alone: nothing was refused, but it is unknown what was written
+                throw e;
+            }
+            // Unordered, so every row but the refused ones was written
+            for (BulkWriteError error : e.getErrors()) {
+                totals.reject("line " + chunk.lines[error.getIndex()] + ": " + error.getMessage());
+            }
+            result = e.getResult();
+        }
+        totals.inserted += result.getInsertedCount();
+        totals.upserted += result.getUpserts().size();
+        totals.modified += result.getModifiedCount();
+    }
+
+    /** The stored name of the @Version property of {@code type}, or null if it has none. */
+    private String versionField(Class<?> type) {
+        MongoPersistentProperty version = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type).getVersionProperty();
+        return version == null ? null : version.getFieldName();
+    }
+
+    static Restaurant parseRestaurant(String[] values) {
+        requireColumns(values, 7);
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(values[0]);
+        restaurant.setName(values[1]);
+        restaurant.setCuisine(values[2]);
+        restaurant.setCity(values[3]);
+        restaurant.setRating(Double.parseDouble(values[4]));
+        restaurant.setOpen(Boolean.parseBoolean(values[5]));
+        restaurant.setCreatedAt(LocalDateTime.parse(values[6], CREATED_AT));
+        return restaurant;
+    }
+
+    static MenuItem parseMenuItem(String[] values) {
+        requireColumns(values, 6);
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(values[0]);
+        menuItem.setRestaurantId(values[1]);
+        menuItem.setName(values[2]);
+        menuItem.setCategory(values[3]);
+        menuItem.setPrice(Money.parse(values[4]));
+        menuItem.setAvailable(Boolean.parseBoolean(values[5]));
+        menuItem.setVersion(0L); // Bulk inserts bypass the template's version handling; 0 is what insert() would write
+        return menuItem;
+    }
+
+    private static void requireColumns(String[] values, int expected) {
+        if (values.length != expected) {
+            throw new IllegalArgumentException("expected " + expected + " columns but found " + values.length);
+        }
+        if (values[0].isBlank()) {
+            throw new IllegalArgumentException("missing id");
+        }
+    }
+
+    private static final class ParsedChunk<T> {
+        final List<T> documents;
+        /** The file line of each document, by position in {@link #documents}, which is also its bulk write index. */
+        final long[] lines;
+        final List<String> errors = new ArrayList<>();
+
+        ParsedChunk(int capacity) {
+            this.documents = new ArrayList<>(capacity);
+            this.lines = new long[capacity];
+        }
+
+        void add(T document, long line) {
+            lines[documents.size()] = line;
+            documents.add(document);
+        }
+    }
+
+    private static final class Totals {
+        long rows;
+        long inserted;
+        long upserted;
+        long modified;
+        long rejected;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Warm start for {@link MenuSnapshotStore} from a local catalog file (format: {@link CatalogFileCodec}).
+ *
+ * On startup the file is memory-mapped and every restaurant in it is installed in the store before the first
+ * request, instead of each pod warming up through one findByRestaurantId per restaurant. With city partitioning
+ * only this pod's cities are installed (see {@link CityPartitioner}). While running, the file is re-exported every
+ * {@code menu.catalog-file.export-interval} from a single streaming pass over both collections (see {@link #export}).
+ *
+ * A file is only trusted if its changes since export can be caught up: either the change stream is enabled and the
+ * file records the MongoDB operation time it was exported at (the stream then starts there, see
+ * {@link CatalogChangeStreamListener}), or the file is younger than {@code menu.snapshot.max-age}.
+ */
+@Component
+@ConditionalOnProperty(name = "menu.catalog-file.enabled", havingValue = "true")
+public class CatalogSnapshotFile {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotFile.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MenuSnapshotStore snapshotStore;
+    private final CityPartitioner partitioner;
+    private final Path path;
+    private final Duration exportInterval;
+    private final Duration snapshotMaxAge;
+    private final boolean changeStreamEnabled;
+    private final ScheduledExecutorService exporter = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-file-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BsonTimestamp loadedOperationTime;
+
+    public CatalogSnapshotFile(MongoTemplate mongoTemplate, MenuSnapshotStore snapshotStore, CityPartitioner partitioner,
+                               @Value("${menu.catalog-file.path:menu-catalog.bin}") Path path,
+                               @Value("${menu.catalog-file.export-interval:PT10M}") Duration exportInterval,
+                               @Value("${menu.snapshot.max-age:PT5M}") Duration snapshotMaxAge,
+                               @Value("${menu.change-stream.enabled:false}") boolean changeStreamEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotStore = snapshotStore;
+        this.partitioner = partitioner;
+        this.path = path;
+        this.exportInterval = exportInterval;
+        this.snapshotMaxAge = snapshotMaxAge;
+        this.changeStreamEnabled = changeStreamEnabled;
+    }
+
+    /** Operation time of the file that was loaded, or null if none was (the change stream then starts as usual). */
+    public BsonTimestamp getLoadedOperationTime() {
+        return loadedOperationTime;
+    }
+
+    /** Runs while the context starts, so the store is warm before the web server takes traffic. */
+    @PostConstruct
+    void load() {
+        if (!Files.isReadable(path)) {
+            log.info("No catalog file at {}; menu snapshots will load on demand", path);
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CatalogFileCodec.Catalog catalog = CatalogFileCodec.read(buffer);
+
+            Duration age = Duration.ofMillis(System.currentTimeMillis() - catalog.getCreatedAtMillis());
+            boolean canCatchUp = changeStreamEnabled && catalog.getOperationTime() >= 0;
+            if (!canCatchUp && age.compareTo(snapshotMaxAge) > 0) {
+                log.info("Ignoring catalog file {}: {} old and no change stream to catch up from", path, age);
+                return;
+            }
+
+            long version = snapshotStore.nextVersion();
+            catalog.forEachRestaurant((restaurant, menuItems) -> {
+                // The file holds every city; with city partitioning only this pod's are kept
+                if (partitioner.owns(restaurant.getCity())) {
+                    snapshotStore.install(restaurant, menuItems, version);
+                }
+            });
+            if (canCatchUp) {
+                loadedOperationTime = new BsonTimestamp(catalog.getOperationTime());
+            }
+            log.info("Loaded {} restaurants and {} menu items from {} ({} old), keeping {} restaurants, in {} ms",
+                    catalog.getRestaurantCount(), catalog.getItemCount(), path, age, snapshotStore.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog file {}", path, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void scheduleExports() {
+        // Export right away if nothing usable was on disk, so the next pod (or restart) starts warm
+        long initialDelay = loadedOperationTime == null ? 0 : exportInterval.toMillis();
+        exporter.scheduleWithFixedDelay(this::exportQuietly, initialDelay, exportInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        exporter.shutdownNow();
+    }
+
+    /**
+     * Writes the current catalog to the file in one pass over each collection, holding only the restaurants (id,
+     * status and city) in memory. Menu items are streamed sorted by restaurant id, and each restaurant is written
+     * with its group as soon as the group ends; restaurants without items follow at the end. Items are joined to
+     * their restaurant by id rather than merged in sort order: {@code _id} may be an ObjectId or a string, and
+     * MongoDB sorts those by type first, which no comparison of the decoded ids reproduces. The columns are spilled
+     * to disk next to the file while they are written (see {@link CatalogFileCodec.Writer}).
+     */
+    public void export() throws IOException {
+        long started = System.nanoTime();
+        // Taken before reading: anything written during the export is replayed by the change stream on load
+        BsonTimestamp operationTime = currentOperationTime();
+
+        Query restaurantQuery = new Query();
+        restaurantQuery.fields().include("id", "isOpen", "city");
+        Query menuItemQuery = new Query().with(Sort.by("restaurantId", "id"));
+
+        Map<String, Restaurant> restaurants = new LinkedHashMap<>();
+        try (Stream<Restaurant> all = mongoTemplate.stream(restaurantQuery, Restaurant.class)) {
+            all.forEach(restaurant -> restaurants.put(restaurant.getId(), restaurant));
+        }
+
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(path.toAbsolutePath().getParent());
+             Stream<MenuItem> menuItems = mongoTemplate.stream(menuItemQuery, MenuItem.class)) {
+            String group = null;
+            boolean listed = false;
+            for (Iterator<MenuItem> items = menuItems.iterator(); items.hasNext(); ) {
+                MenuItem menuItem = items.next();
+                if (menuItem.getRestaurantId() == null) {
+                    continue;
+                }
+                if (!menuItem.getRestaurantId().equals(group)) {
+                    group = menuItem.getRestaurantId();
+                    // Removed once written; items of restaurants that do not exist are never picked up
+                    Restaurant restaurant = restaurants.remove(group);
+                    listed = restaurant != null;
+                    if (listed) {
+                        writer.addRestaurant(restaurant.getId(), restaurant.isOpen(), restaurant.getCity());
+                    }
+                }
+                if (listed) {
+                    writer.addItem(menuItem.getId(), menuItem.getName(), menuItem.getCategory(),
+                            menuItem.getPrice(), menuItem.isAvailable(), menuItem.getVersion());
+                }
+            }
+            for (Restaurant restaurant : restaurants.values()) {
+                writer.addRestaurant(restaurant.getId(), restaurant.isOpen(), restaurant.getCity());
+            }
+            writer.writeTo(path, System.currentTimeMillis(), operationTime == null ? -1 : operationTime.getValue());
+            log.info("Exported {} restaurants and {} menu items to {} in {} ms", writer.getRestaurantCount(),
+                    writer.getItemCount(), path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    private void exportQuietly() {
+        try {
+            export();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalog file export to {} failed", path, e);
+        }
+    }
+
+    /** Cluster time as reported by a replica set; standalone servers report none. */
+    private BsonTimestamp currentOperationTime() {
+        Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+        return hello.get("operationTime") instanceof BsonTimestamp operationTime ? operationTime : null;
+    }
+}
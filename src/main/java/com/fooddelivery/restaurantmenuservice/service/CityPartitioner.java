@@ -0,0 +1,121 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Assigns every city to one partition of the service with a consistent-hash ring, so that a pod caches only the
+ * restaurants of its own cities and the memory per pod stays bounded as cities are added.
+ *
+ * Partitions are named in {@code menu.partition.nodes}, and {@code menu.partition.self} says which one this pod
+ * serves; a partition is typically one Deployment with as many replicas as its cities need. Each partition owns
+ * {@code menu.partition.virtual-nodes} points on the ring, and a city belongs to the first point at or after its
+ * hash. Adding a partition therefore moves only about {@code 1/n} of the cities, all of them to the new partition.
+ * Cities are compared case-insensitively; restaurants without a city belong to every partition.
+ *
+ * Hash: 64-bit FNV-1a over the UTF-16 chars of {@code node + "#" + i} (points) or the lower-cased city, followed by
+ * the MurmurHash3 finalizer. Routers can rebuild the ring from that, or read it from {@code GET /v1/partitions}.
+ */
+@Component
+public class CityPartitioner {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final String self;
+    private final List<String> nodes;
+    private final int virtualNodes;
+
+    // The ring: points sorted ascending, owners[i] owns points[i]
+    private final long[] points;
+    private final String[] owners;
+
+    public CityPartitioner(@Value("${menu.partition.enabled:false}") boolean enabled,
+                           @Value("${menu.partition.self:}") String self,
+                           @Value("${menu.partition.nodes:}") List<String> nodes,
+                           @Value("${menu.partition.virtual-nodes:128}") int virtualNodes) {
+        this.enabled = enabled;
+        this.self = self;
+        this.nodes = nodes.stream().map(String::trim).filter(node -> !node.isEmpty()).distinct().toList();
+        this.virtualNodes = virtualNodes;
+        if (enabled && !this.nodes.contains(self)) {
+            throw new IllegalStateException("menu.partition.self (" + self + ") must be one of menu.partition.nodes "
+                    + this.nodes);
+        }
+        if (enabled && virtualNodes < 1) {
+            // An empty ring would leave every city without an owner
+            throw new IllegalStateException("menu.partition.virtual-nodes (" + virtualNodes + ") must be at least 1");
+        }
+
+        int size = enabled ? this.nodes.size() * virtualNodes : 0;
+        long[][] ring = new long[size][];
+        int n = 0;
+        for (int node = 0; node < (enabled ? this.nodes.size() : 0); node++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring[n++] = new long[]{hash(this.nodes.get(node) + "#" + i), node};
+            }
+        }
+        // Ties (practically impossible) go to the node listed first, so every pod builds the same ring
+        Arrays.sort(ring, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = ring[i][0];
+            owners[i] = this.nodes.get((int) ring[i][1]);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The partition this pod serves, or null when partitioning is off. */
+    public String getSelf() {
+        return enabled ? self : null;
+    }
+
+    public List<String> getNodes() {
+        return enabled ? nodes : List.of();
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /** The partition that owns {@code city}; this pod's when partitioning is off or the city is null. */
+    public String ownerOf(String city) {
+        if (!enabled || city == null) {
+            return getSelf();
+        }
+        int slot = Arrays.binarySearch(points, hash(city.toLowerCase(Locale.ROOT)));
+        if (slot < 0) {
+            slot = -slot - 1;
+        }
+        // Past the last point the ring wraps around to the first
+        return owners[slot == points.length ? 0 : slot];
+    }
+
+    /** Whether this pod caches restaurants of {@code city}. */
+    public boolean owns(String city) {
+        return !enabled || city == null || self.equals(ownerOf(city));
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // FNV alone leaves similar short strings close together on the ring
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,149 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The MongoDB reads of the direct path (snapshots disabled), shared between concurrent requests for the same
+ * restaurant, so that a popular restaurant costs a few queries per moment rather than one per request:
+ *
+ * <ul>
+ *   <li>Restaurant status and whole-menu reads are single-flight: identical lookups in flight share one query.</li>
+ *   <li>Item lookups are micro-batched per restaurant. The first lookup opens a batch and waits
+ *   {@code menu.direct.batch-window}; lookups for the same restaurant arriving meanwhile add their item ids, and
+ *   one {@code $in} query over all of them answers the whole batch. The window is zero, and batching off, unless
+ *   configured: every batched lookup pays up to the window in latency.</li>
+ * </ul>
+ *
+ * With snapshots enabled, {@link MenuSnapshotStore} coalesces its own loads.
+ */
+@Component
+public class MenuReadCoalescer {
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final long batchWindowNanos;
+    private final SingleFlight<String, Optional<RestaurantStatusView>> statusLookups;
+    private final SingleFlight<String, List<MenuItem>> menuLookups;
+    private final Counter batchedItemLookups;
+
+    private final ConcurrentMap<String, ItemBatch> openBatches = new ConcurrentHashMap<>();
+
+    public MenuReadCoalescer(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${menu.direct.batch-window:PT0S}") Duration batchWindow) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.statusLookups = new SingleFlight<>(meterRegistry, "status");
+        this.menuLookups = new SingleFlight<>(meterRegistry, "menu");
+        this.batchedItemLookups = Counter.builder("menu.read.coalesced")
+                .description("Reads answered by an identical query already in flight instead of their own")
+                .tag("lookup", "items")
+                .register(meterRegistry);
+    }
+
+    public Optional<RestaurantStatusView> findStatus(String restaurantId) {
+        if (restaurantId == null) {
+            return Optional.empty();
+        }
+        return statusLookups.call(restaurantId, () -> restaurantRepository.findStatusById(restaurantId));
+    }
+
+    /** The whole menu of a restaurant. The list is shared between callers and must not be modified. */
+    public List<MenuItem> findMenu(String restaurantId) {
+        return menuLookups.call(restaurantId, () -> menuItemRepository.findMenuByRestaurantId(restaurantId));
+    }
+
+    /** The items among {@code itemIds} that exist and belong to {@code restaurantId}, each at most once. */
+    public List<MenuItemPriceView> findItems(String restaurantId, Collection<String> itemIds) {
+        if (batchWindowNanos <= 0 || restaurantId == null) {
+            return menuItemRepository.findPriceViewsByIdInAndRestaurantId(itemIds, restaurantId);
+        }
+        while (true) {
+            ItemBatch batch = openBatches.computeIfAbsent(restaurantId, id -> new ItemBatch());
+            boolean leader;
+            synchronized (batch) {
+                if (batch.closed) {
+                    // Its leader has just taken it to query; open the next one
+                    openBatches.remove(restaurantId, batch);
+                    continue;
+                }
+                batch.itemIds.addAll(itemIds);
+                leader = !batch.led;
+                batch.led = true;
+            }
+            if (!leader) {
+                batchedItemLookups.increment();
+                return select(batch.await(), itemIds);
+            }
+            return select(runBatch(restaurantId, batch), itemIds);
+        }
+    }
+
+    private Map<String, MenuItemPriceView> runBatch(String restaurantId, ItemBatch batch) {
+        LockSupport.parkNanos(batchWindowNanos);
+        List<String> itemIds;
+        synchronized (batch) {
+            batch.closed = true;
+            itemIds = new ArrayList<>(batch.itemIds);
+        }
+        openBatches.remove(restaurantId, batch);
+        try {
+            Map<String, MenuItemPriceView> found = new HashMap<>();
+            for (MenuItemPriceView menuItem : menuItemRepository.findPriceViewsByIdInAndRestaurantId(itemIds, restaurantId)) {
+                found.put(menuItem.id(), menuItem);
+            }
+            batch.result.complete(found);
+            return found;
+        } catch (RuntimeException | Error e) {
+            // Followers are parked on the result: they must be released whatever the query threw
+            batch.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static List<MenuItemPriceView> select(Map<String, MenuItemPriceView> found, Collection<String> itemIds) {
+        List<MenuItemPriceView> selected = new ArrayList<>(itemIds.size());
+        for (String itemId : new LinkedHashSet<>(itemIds)) {
+            MenuItemPriceView menuItem = found.get(itemId);
+            if (menuItem != null) {
+                selected.add(menuItem);
+            }
+        }
+        return selected;
+    }
+
+    /** Item ids of one restaurant collected during one window. Guarded by itself until closed. */
+    private static final class ItemBatch {
+        private final Set<String> itemIds = new LinkedHashSet<>();
+        private final CompletableFuture<Map<String, MenuItemPriceView>> result = new CompletableFuture<>();
+        private boolean led;
+        private boolean closed;
+
+        Map<String, MenuItemPriceView> await() {
+            return SingleFlight.await(result);
+        }
+    }
+}
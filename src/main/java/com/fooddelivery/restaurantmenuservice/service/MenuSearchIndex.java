@@ -0,0 +1,708 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchHit;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchRequest;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over every menu item, behind {@code GET /v1/menu-items/search}. It indexes the item name
+ * and category and the cuisine and city of the item's restaurant.
+ *
+ * Each indexed item is a document with an int id. A word maps to its postings: the ids of the documents containing
+ * it in ascending order, each with a bit mask of the fields it occurs in, which decides its weight. Exact filters
+ * (category, cuisine, city, restaurant) are postings as well, kept apart from the words. A query is therefore an
+ * intersection of sorted id lists, driven by the shortest one.
+ *
+ * Documents are append-only. Replacing an item marks its old document dead and appends a new one, so postings stay
+ * sorted without moving entries. Queries skip dead documents, and a rebuild drops them (see MenuSearchService).
+ * Reads share a read lock and writes take the write lock; writes are admin updates and change events, rare next to
+ * searches.
+ */
+public final class MenuSearchIndex {
+
+    static final int NAME = 1;
+    static final int CATEGORY = 2;
+    static final int CUISINE = 4;
+    static final int CITY = 8;
+
+    // The last query word also matches longer words ("chick" -> chicken, chickpea), at most this many of them
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int MIN_DEAD_FOR_COMPACTION = 10_000;
+
+    private final long[] priceBounds; // Exclusive upper bounds of the price facet buckets, in minor units
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Postings> keywords = new HashMap<>(); // "field:value" -> postings
+    private final Map<String, Integer> docByItemId = new HashMap<>();
+    private final Map<String, Integer> restaurantOrdById = new HashMap<>();
+    private final List<RestaurantEntry> restaurants = new ArrayList<>();
+    private final Map<String, Integer> valueOrds = new HashMap<>(); // "field:value" -> ordinal in values
+    private final List<String> values = new ArrayList<>();
+
+    // Document columns, addressed by document id
+    private String[] itemIds = new String[1024];
+    private String[] names = new String[1024];
+    private int[] restaurantOrds = new int[1024];
+    private int[] categoryOrds = new int[1024]; // Ordinals in values, -1 = none
+    private int[] cuisineOrds = new int[1024];
+    private int[] cityOrds = new int[1024];
+    private long[] prices = new long[1024];
+    private byte[] priceBuckets = new byte[1024]; // -1 = no price
+    private boolean[] available = new boolean[1024];
+    private float[] tieBreaks = new float[1024]; // See tieBreak(), kept current so ranking never looks up restaurants
+    private final BitSet dead = new BitSet();
+    private int docCount;
+    private int deadCount;
+
+    /** {@code priceBuckets} are the bucket boundaries of the price facet, e.g. 100, 200, 500. */
+    public MenuSearchIndex(List<BigDecimal> priceBuckets) {
+        this.priceBounds = priceBuckets.stream().mapToLong(bound -> Money.of(bound).getMinorUnits()).sorted().toArray();
+        if (priceBounds.length >= Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("At most " + (Byte.MAX_VALUE - 1) + " price buckets are supported");
+        }
+    }
+
+    /** Adds or updates a restaurant; when its cuisine or city changes, its items are re-indexed. */
+    public void putRestaurant(Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            RestaurantEntry entry = restaurants.get(restaurantOrd(restaurant.getId()));
+            boolean reindex = !Objects.equals(entry.cuisine, restaurant.getCuisine())
+                    || !Objects.equals(entry.city, restaurant.getCity());
+            double rating = restaurant.getRating() == null ? 0.0 : restaurant.getRating();
+            boolean rerank = entry.open != restaurant.isOpen() || entry.rating != rating;
+            entry.name = restaurant.getName();
+            entry.cuisine = restaurant.getCuisine();
+            entry.city = restaurant.getCity();
+            entry.open = restaurant.isOpen();
+            entry.rating = rating;
+            if (reindex) {
+                for (int doc : liveDocs(keyword("restaurant", restaurant.getId()))) {
+                    kill(doc);
+                    addDoc(itemIds[doc], restaurantOrds[doc], names[doc],
+                            categoryOrds[doc] < 0 ? null : values.get(categoryOrds[doc]), prices[doc], available[doc]);
+                }
+            } else if (rerank) {
+                for (int doc : liveDocs(keyword("restaurant", restaurant.getId()))) {
+                    tieBreaks[doc] = tieBreak(entry, available[doc]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes a restaurant's items from the results. */
+    public void removeRestaurant(String restaurantId) {
+        lock.writeLock().lock();
+        try {
+            for (int doc : liveDocs(keyword("restaurant", restaurantId))) {
+                kill(doc);
+                docByItemId.remove(itemIds[doc]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds or replaces a menu item. */
+    public void putItem(MenuItem menuItem) {
+        if (menuItem.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = docByItemId.get(menuItem.getId());
+            if (previous != null) {
+                kill(previous);
+            }
+            addDoc(menuItem.getId(), restaurantOrd(menuItem.getRestaurantId()), menuItem.getName(), menuItem.getCategory(),
+                    menuItem.getPrice() == null ? NO_PRICE : menuItem.getPrice().getMinorUnits(), menuItem.isAvailable());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeItem(String itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByItemId.remove(itemId);
+            if (doc != null) {
+                kill(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Sets the availability of items of one restaurant in place; availability is a column, not a term. */
+    public void setAvailability(String restaurantId, Collection<String> itemIds, boolean isAvailable) {
+        lock.writeLock().lock();
+        try {
+            Integer ord = restaurantOrdById.get(restaurantId);
+            for (String itemId : itemIds) {
+                Integer doc = docByItemId.get(itemId);
+                if (doc != null && ord != null && restaurantOrds[doc] == ord) {
+                    available[doc] = isAvailable;
+                    tieBreaks[doc] = tieBreak(restaurants.get(ord), isAvailable);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Number of items that can be found. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Whether enough documents are dead (replaced or removed) that rebuilding would reclaim real memory. */
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            return deadCount >= MIN_DEAD_FOR_COMPACTION && deadCount * 4L >= docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query: the top {@code limit} matches by score, plus category and price facets over all matches.
+     * A match scores the sum over the query words of idf times the weight of the best field the word occurs in
+     * (name, then category, cuisine, city). Ties, and queries without words, rank orderable items (available, at an
+     * open restaurant) first, then by restaurant rating.
+     */
+    public MenuSearchResult search(MenuSearchRequest request) {
+        String text = request.getQ() == null ? "" : request.getQ();
+        List<String> words = new ArrayList<>(tokens(text));
+        boolean prefixLast = !text.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        long minPrice = request.getMinPrice() == null ? Long.MIN_VALUE : Money.of(request.getMinPrice()).getMinorUnits();
+        long maxPrice = request.getMaxPrice() == null ? Long.MAX_VALUE : Money.of(request.getMaxPrice()).getMinorUnits();
+        boolean priceFiltered = request.getMinPrice() != null || request.getMaxPrice() != null;
+
+        lock.readLock().lock();
+        try {
+            Collector collector = new Collector(request.getLimit());
+            List<Clause> clauses = new ArrayList<>(words.size() + 4);
+            for (int i = 0; i < words.size(); i++) {
+                Clause clause = wordClause(words.get(i), prefixLast && i == words.size() - 1);
+                if (clause == null) {
+                    return collector.toResult();
+                }
+                clauses.add(clause);
+            }
+            if (!addFilter(clauses, "category", request.getCategory(), categoryOrds)
+                    || !addFilter(clauses, "cuisine", request.getCuisine(), cuisineOrds)
+                    || !addFilter(clauses, "city", request.getCity(), cityOrds)
+                    || !addFilter(clauses, "restaurant", request.getRestaurantId(), null)) {
+                return collector.toResult();
+            }
+            clauses.sort(Comparator.comparingInt(clause -> clause.size));
+
+            if (clauses.isEmpty()) {
+                for (int doc = 0; doc < docCount; doc++) {
+                    consider(collector, doc, 0f, request.getAvailable(), priceFiltered, minPrice, maxPrice);
+                }
+                return collector.toResult();
+            }
+            Clause[] sorted = clauses.toArray(new Clause[0]);
+            Clause driver = sorted[0];
+            int[] cursors = new int[sorted.length];
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int doc = driver.docs[i];
+                float score = driver.score(i);
+                for (int c = 1; c < sorted.length; c++) {
+                    Clause clause = sorted[c];
+                    if (clause.column != null) {
+                        // A filter that does not drive is cheaper to check on the document than to seek
+                        if (clause.column[doc] != clause.value) {
+                            continue candidates;
+                        }
+                        continue;
+                    }
+                    int at = clause.seek(cursors[c], doc);
+                    cursors[c] = at;
+                    if (at == clause.size) {
+                        break candidates;
+                    }
+                    if (clause.docs[at] != doc) {
+                        continue candidates;
+                    }
+                    score += clause.score(at);
+                }
+                consider(collector, doc, score, request.getAvailable(), priceFiltered, minPrice, maxPrice);
+            }
+            return collector.toResult();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lower-cased words of {@code text}: runs of letters and digits, in order, without duplicates. */
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void consider(Collector collector, int doc, float score, Boolean availableFilter,
+                          boolean priceFiltered, long minPrice, long maxPrice) {
+        if (dead.get(doc)) {
+            return;
+        }
+        if (availableFilter != null && available[doc] != availableFilter) {
+            return;
+        }
+        long price = prices[doc];
+        if (priceFiltered && (price == NO_PRICE || price < minPrice || price > maxPrice)) {
+            return;
+        }
+        collector.add(doc, score);
+    }
+
+    /** The documents matching one query word (and, for the last word, the words it prefixes), or null if none. */
+    private Clause wordClause(String word, boolean prefix) {
+        int live = Math.max(1, docCount - deadCount);
+        if (!prefix) {
+            Postings postings = terms.get(word);
+            return postings == null ? null : new Clause(postings, idf(live, postings.size));
+        }
+        List<Postings> expansions = new ArrayList<>();
+        List<Float> idfs = new ArrayList<>();
+        for (Map.Entry<String, Postings> term : terms.tailMap(word, true).entrySet()) {
+            if (!term.getKey().startsWith(word) || expansions.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+            expansions.add(term.getValue());
+            idfs.add(idf(live, term.getValue().size));
+        }
+        if (expansions.isEmpty()) {
+            return null;
+        }
+        if (expansions.size() == 1) {
+            return new Clause(expansions.get(0), idfs.get(0));
+        }
+        // Union of the expansions: (doc, score) pairs sorted by doc, keeping the best score of each doc.
+        // Scores are positive floats, whose bit patterns sort like their values.
+        int total = 0;
+        for (Postings postings : expansions) {
+            total += postings.size;
+        }
+        long[] entries = new long[total];
+        int n = 0;
+        for (int e = 0; e < expansions.size(); e++) {
+            Postings postings = expansions.get(e);
+            float idf = idfs.get(e);
+            for (int i = 0; i < postings.size; i++) {
+                float score = idf * weight(postings.fields[i]);
+                entries[n++] = ((long) postings.docs[i] << 32) | Float.floatToIntBits(score);
+            }
+        }
+        Arrays.sort(entries);
+        int[] docs = new int[total];
+        float[] scores = new float[total];
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            int doc = (int) (entries[i] >>> 32);
+            if (i + 1 < total && (int) (entries[i + 1] >>> 32) == doc) {
+                continue; // A later entry of the same doc has a higher score
+            }
+            docs[size] = doc;
+            scores[size] = Float.intBitsToFloat((int) entries[i]);
+            size++;
+        }
+        return new Clause(docs, scores, size);
+    }
+
+    private boolean addFilter(List<Clause> clauses, String field, String value, int[] column) {
+        if (value == null || value.isBlank()) {
+            return true;
+        }
+        String key = keyword(field, value);
+        Postings postings = keywords.get(key);
+        if (postings == null) {
+            return false;
+        }
+        clauses.add(new Clause(postings, column, column == null ? -1 : valueOrds.get(key)));
+        return true;
+    }
+
+    private static float idf(int live, int documentFrequency) {
+        return (float) Math.log(1.0 + (double) live / documentFrequency);
+    }
+
+    private static float weight(int fields) {
+        if ((fields & NAME) != 0) {
+            return 3f;
+        }
+        if ((fields & CATEGORY) != 0) {
+            return 2f;
+        }
+        return (fields & CUISINE) != 0 ? 1.5f : 1f;
+    }
+
+    /** Ranks equal scores: orderable items (available, at an open restaurant) first, then by restaurant rating. */
+    private static float tieBreak(RestaurantEntry restaurant, boolean isAvailable) {
+        // Ratings are 0 to 5, so the orderable offset always dominates
+        return (isAvailable && restaurant.open ? 10f : 0f) + (float) restaurant.rating;
+    }
+
+    private int bucket(long price) {
+        int bucket = Arrays.binarySearch(priceBounds, price);
+        return bucket >= 0 ? bucket + 1 : -bucket - 1;
+    }
+
+    private static String keyword(String field, String value) {
+        return field + ':' + value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int restaurantOrd(String restaurantId) {
+        Integer ord = restaurantOrdById.get(restaurantId);
+        if (ord == null) {
+            // Items may be indexed before their restaurant (e.g. change events); the entry is filled in later
+            ord = restaurants.size();
+            restaurants.add(new RestaurantEntry(restaurantId));
+            restaurantOrdById.put(restaurantId, ord);
+        }
+        return ord;
+    }
+
+    private int valueOrd(String field, String value) {
+        if (value == null) {
+            return -1;
+        }
+        return valueOrds.computeIfAbsent(keyword(field, value), key -> {
+            values.add(value);
+            return values.size() - 1;
+        });
+    }
+
+    private int[] liveDocs(String keyword) {
+        Postings postings = keywords.get(keyword);
+        if (postings == null) {
+            return new int[0];
+        }
+        // Copied first: re-indexing appends to this very list
+        return Arrays.stream(postings.docs, 0, postings.size).filter(doc -> !dead.get(doc)).toArray();
+    }
+
+    private void kill(int doc) {
+        if (!dead.get(doc)) {
+            dead.set(doc);
+            deadCount++;
+        }
+    }
+
+    private void addDoc(String itemId, int restaurantOrd, String name, String category, long price, boolean isAvailable) {
+        if (docCount == itemIds.length) {
+            int capacity = docCount * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            restaurantOrds = Arrays.copyOf(restaurantOrds, capacity);
+            categoryOrds = Arrays.copyOf(categoryOrds, capacity);
+            cuisineOrds = Arrays.copyOf(cuisineOrds, capacity);
+            cityOrds = Arrays.copyOf(cityOrds, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            priceBuckets = Arrays.copyOf(priceBuckets, capacity);
+            available = Arrays.copyOf(available, capacity);
+            tieBreaks = Arrays.copyOf(tieBreaks, capacity);
+        }
+        int doc = docCount++;
+        RestaurantEntry restaurant = restaurants.get(restaurantOrd);
+        itemIds[doc] = itemId;
+        names[doc] = name;
+        restaurantOrds[doc] = restaurantOrd;
+        categoryOrds[doc] = valueOrd("category", category);
+        cuisineOrds[doc] = valueOrd("cuisine", restaurant.cuisine);
+        cityOrds[doc] = valueOrd("city", restaurant.city);
+        prices[doc] = price;
+        priceBuckets[doc] = price == NO_PRICE ? -1 : (byte) bucket(price);
+        available[doc] = isAvailable;
+        tieBreaks[doc] = tieBreak(restaurant, isAvailable);
+        docByItemId.put(itemId, doc);
+
+        Map<String, Integer> fields = new HashMap<>();
+        addTokens(fields, name, NAME);
+        addTokens(fields, category, CATEGORY);
+        addTokens(fields, restaurant.cuisine, CUISINE);
+        addTokens(fields, restaurant.city, CITY);
+        fields.forEach((term, mask) -> terms.computeIfAbsent(term, key -> new Postings()).add(doc, mask));
+
+        addKeyword(doc, "restaurant", restaurant.id);
+        addKeyword(doc, "category", category);
+        addKeyword(doc, "cuisine", restaurant.cuisine);
+        addKeyword(doc, "city", restaurant.city);
+    }
+
+    private static void addTokens(Map<String, Integer> fields, String text, int field) {
+        for (String token : tokens(text)) {
+            fields.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    private void addKeyword(int doc, String field, String value) {
+        if (value != null) {
+            keywords.computeIfAbsent(keyword(field, value), key -> new Postings()).add(doc, 0);
+        }
+    }
+
+    /** Ascending document ids with the fields each one matched in; grows by doubling. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int doc, int mask) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) mask;
+            size++;
+        }
+    }
+
+    /** One query condition as a sorted document list, with the score each document contributes. */
+    private static final class Clause {
+        final int[] docs;
+        final int size;
+        final int[] column;             // Filter: a document matches if column[doc] == value
+        final int value;
+        private final float[] scores;   // Union of prefix expansions
+        private final byte[] fields;    // Single word: idf * weight(fields)
+        private final float idf;
+
+        Clause(Postings postings, float idf) {
+            this(postings.docs, postings.size, null, -1, null, postings.fields, idf);
+        }
+
+        Clause(Postings postings, int[] column, int value) {
+            this(postings.docs, postings.size, column, value, null, null, 0f);
+        }
+
+        Clause(int[] docs, float[] scores, int size) {
+            this(docs, size, null, -1, scores, null, 0f);
+        }
+
+        private Clause(int[] docs, int size, int[] column, int value, float[] scores, byte[] fields, float idf) {
+            this.docs = docs;
+            this.size = size;
+            this.column = column;
+            this.value = value;
+            this.scores = scores;
+            this.fields = fields;
+            this.idf = idf;
+        }
+
+        float score(int index) {
+            if (scores != null) {
+                return scores[index];
+            }
+            return fields == null ? 0f : idf * weight(fields[index]);
+        }
+
+        /** First index at or after {@code from} whose document is &gt;= {@code doc}: a galloping search. */
+        int seek(int from, int doc) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /** Counts facets over every match and keeps the best {@code limit} in a min-heap (worst hit at the root). */
+    private final class Collector {
+        private final int limit;
+        private final int[] heapDocs;
+        private final float[] heapScores;
+        private final long[] categoryCounts = new long[values.size()];
+        private final long[] priceCounts = new long[priceBounds.length + 1];
+        private int heapSize;
+        private long total;
+
+        Collector(int limit) {
+            this.limit = Math.max(0, limit);
+            this.heapDocs = new int[this.limit];
+            this.heapScores = new float[this.limit];
+        }
+
+        void add(int doc, float score) {
+            total++;
+            if (categoryOrds[doc] >= 0) {
+                categoryCounts[categoryOrds[doc]]++;
+            }
+            if (priceBuckets[doc] >= 0) {
+                priceCounts[priceBuckets[doc]]++;
+            }
+            if (limit == 0) {
+                return;
+            }
+            if (heapSize < limit) {
+                heapDocs[heapSize] = doc;
+                heapScores[heapSize] = score;
+                siftUp(heapSize++);
+            } else if (compare(doc, score, heapDocs[0], heapScores[0]) > 0) {
+                heapDocs[0] = doc;
+                heapScores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        MenuSearchResult toResult() {
+            Integer[] order = new Integer[heapSize];
+            for (int i = 0; i < heapSize; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compare(heapDocs[b], heapScores[b], heapDocs[a], heapScores[a]));
+            List<MenuSearchHit> hits = new ArrayList<>(heapSize);
+            for (int i : order) {
+                hits.add(hit(heapDocs[i], heapScores[i]));
+            }
+
+            Integer[] categories = new Integer[categoryCounts.length];
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = i;
+            }
+            Arrays.sort(categories, (a, b) -> Long.compare(categoryCounts[b], categoryCounts[a]));
+            Map<String, Long> categoryFacet = new LinkedHashMap<>();
+            for (int category : categories) {
+                if (categoryCounts[category] > 0) {
+                    categoryFacet.merge(values.get(category), categoryCounts[category], Long::sum);
+                }
+            }
+
+            List<MenuSearchResult.PriceBucket> priceFacet = new ArrayList<>(priceCounts.length);
+            for (int i = 0; i < priceCounts.length; i++) {
+                priceFacet.add(new MenuSearchResult.PriceBucket(
+                        Money.ofMinor(i == 0 ? 0 : priceBounds[i - 1]),
+                        i < priceBounds.length ? Money.ofMinor(priceBounds[i]) : null,
+                        priceCounts[i]));
+            }
+            return new MenuSearchResult(total, hits, categoryFacet, priceFacet);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(heapDocs[index], heapScores[index], heapDocs[parent], heapScores[parent]) >= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int worst = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < heapSize; child++) {
+                    if (compare(heapDocs[child], heapScores[child], heapDocs[worst], heapScores[worst]) < 0) {
+                        worst = child;
+                    }
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = heapDocs[a];
+            float score = heapScores[a];
+            heapDocs[a] = heapDocs[b];
+            heapScores[a] = heapScores[b];
+            heapDocs[b] = doc;
+            heapScores[b] = score;
+        }
+    }
+
+    /** Positive if {@code a} ranks above {@code b}. */
+    private int compare(int a, float scoreA, int b, float scoreB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB ? 1 : -1;
+        }
+        if (tieBreaks[a] != tieBreaks[b]) {
+            return tieBreaks[a] > tieBreaks[b] ? 1 : -1;
+        }
+        return Integer.compare(b, a);
+    }
+
+    private MenuSearchHit hit(int doc, float score) {
+        RestaurantEntry restaurant = restaurants.get(restaurantOrds[doc]);
+        return new MenuSearchHit(itemIds[doc], names[doc], categoryOrds[doc] < 0 ? null : values.get(categoryOrds[doc]),
+                prices[doc] == NO_PRICE ? null : Money.ofMinor(prices[doc]), available[doc],
+                restaurant.id, restaurant.name, restaurant.cuisine, restaurant.city, restaurant.open, score);
+    }
+
+    private static final class RestaurantEntry {
+        final String id;
+        String name;
+        String cuisine;
+        String city;
+        boolean open;
+        double rating;
+
+        RestaurantEntry(String id) {
+            this.id = id;
+        }
+    }
+}
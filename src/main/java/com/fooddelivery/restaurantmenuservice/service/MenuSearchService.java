@@ -0,0 +1,95 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchRequest;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Owns the {@link MenuSearchIndex} behind {@code GET /v1/menu-items/search}.
+ *
+ * The index is built from MongoDB in the background once the application is ready. Searches answer 503 until the
+ * first build is done. Writes made through the service and change stream events are applied to the index as they
+ * happen, and replayed onto a new index being built (see {@link RebuildableIndex}). A rebuild also runs after CSV
+ * imports and when replaced items have left too many dead documents behind.
+ */
+@Service
+public class MenuSearchService {
+
+    private final RebuildableIndex<MenuSearchIndex> index;
+
+    public MenuSearchService(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${menu.search.enabled:true}") boolean enabled,
+                             @Value("${menu.search.price-buckets:100,200,300,500}") List<BigDecimal> priceBuckets) {
+        this.index = new RebuildableIndex<>("menu-search-index", enabled, () -> {
+            MenuSearchIndex fresh = new MenuSearchIndex(priceBuckets);
+            restaurantRepository.findAll().forEach(fresh::putRestaurant);
+            menuItemRepository.forEachMenuItem(fresh::putItem);
+            return fresh;
+        }, MenuSearchIndex::size, MenuSearchIndex::needsCompaction);
+
+        Gauge.builder("menu.search.index.items", index, RebuildableIndex::size)
+                .description("Menu items that can be found through the search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        index.rebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        index.shutdown();
+    }
+
+    /** Rebuilds the index from MongoDB in the background; searches keep using the current one meanwhile. */
+    public void rebuild() {
+        index.rebuild();
+    }
+
+    public MenuSearchResult search(MenuSearchRequest request) {
+        MenuSearchIndex current = index.current();
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    index.isEnabled() ? "Menu search index is still loading." : "Menu search is disabled.");
+        }
+        return current.search(request);
+    }
+
+    public void applyRestaurant(Restaurant restaurant) {
+        index.apply(target -> target.putRestaurant(restaurant));
+    }
+
+    public void removeRestaurant(String restaurantId) {
+        index.apply(target -> target.removeRestaurant(restaurantId));
+    }
+
+    public void applyMenuItem(MenuItem menuItem) {
+        index.apply(target -> target.putItem(menuItem));
+    }
+
+    public void removeMenuItem(String itemId) {
+        index.apply(target -> target.removeItem(itemId));
+    }
+
+    public void applyAvailability(String restaurantId, Collection<String> itemIds, boolean available) {
+        index.apply(target -> target.setAvailability(restaurantId, itemIds, available));
+    }
+}
@@ -0,0 +1,230 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory holder of {@link RestaurantSnapshot}s used by order validation.
+ *
+ * Reads are a single ConcurrentHashMap lookup and never take a lock. Snapshots are loaded
+ * lazily on first use, replaced copy-on-write when the service writes, and reloaded once they
+ * are older than {@code menu.snapshot.max-age} so changes made directly in the database are
+ * eventually picked up. Concurrent misses for the same restaurant share one load (see {@link SingleFlight}).
+ *
+ * With city partitioning ({@link CityPartitioner}) only restaurants of this pod's cities are kept. A restaurant of
+ * another partition's city is still loaded and answered, but not cached, and counted as a foreign load.
+ */
+@Component
+public class MenuSnapshotStore {
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CityPartitioner partitioner;
+    private final long maxAgeNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter foreignLoads;
+    private final SingleFlight<String, Optional<RestaurantSnapshot>> loads;
+
+    private final ConcurrentMap<String, RestaurantSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public MenuSnapshotStore(RestaurantRepository restaurantRepository,
+                             MenuItemRepository menuItemRepository,
+                             CityPartitioner partitioner,
+                             MeterRegistry meterRegistry,
+                             @Value("${menu.snapshot.max-age:PT5M}") Duration maxAge) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.partitioner = partitioner;
+        this.maxAgeNanos = maxAge.toNanos();
+
+        // Hit ratio = hits / (hits + misses); a miss is a restaurant that is not loaded or has expired
+        this.hits = Counter.builder("menu.snapshot.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("menu.snapshot.lookups").tag("result", "miss").register(meterRegistry);
+        this.foreignLoads = Counter.builder("menu.partition.foreign.loads")
+                .description("Restaurants loaded for a city owned by another partition, answered but not cached")
+                .register(meterRegistry);
+        this.loads = new SingleFlight<>(meterRegistry, "snapshot");
+        Gauge.builder("menu.snapshot.restaurants", snapshots, Map::size)
+                .description("Restaurants currently held in the in-memory menu snapshots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the snapshot for a restaurant, loading it from MongoDB on a miss or when it has expired.
+     * An empty result means the restaurant does not exist.
+     */
+    public Optional<RestaurantSnapshot> get(String restaurantId) {
+        RestaurantSnapshot snapshot = peek(restaurantId);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        if (restaurantId == null) {
+            return Optional.empty();
+        }
+        // A cold or just-expired popular restaurant would otherwise be loaded once per request in flight
+        return loads.call(restaurantId, () -> refresh(restaurantId));
+    }
+
+    /** Returns the cached snapshot if it is loaded and not expired, without ever touching MongoDB. */
+    public RestaurantSnapshot peek(String restaurantId) {
+        RestaurantSnapshot snapshot = restaurantId == null ? null : snapshots.get(restaurantId);
+        if (snapshot != null && System.nanoTime() - snapshot.getLoadedAtNanos() < maxAgeNanos) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the snapshots for many restaurants at once. All misses are loaded together with one {@code $in}
+     * query per collection; restaurants that do not exist are absent from the result.
+     */
+    public Map<String, RestaurantSnapshot> getAll(Collection<String> restaurantIds) {
+        Map<String, RestaurantSnapshot> result = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        long now = System.nanoTime();
+        for (String restaurantId : restaurantIds) {
+            RestaurantSnapshot snapshot = restaurantId == null ? null : snapshots.get(restaurantId);
+            if (snapshot != null && now - snapshot.getLoadedAtNanos() < maxAgeNanos) {
+                result.put(restaurantId, snapshot);
+            } else if (restaurantId != null) {
+                missing.add(restaurantId);
+            }
+        }
+        hits.increment(result.size());
+        misses.increment(missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long version = versions.incrementAndGet();
+        Map<String, List<MenuItem>> menus = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findMenuByRestaurantIdIn(missing)) {
+            menus.computeIfAbsent(menuItem.getRestaurantId(), id -> new ArrayList<>()).add(menuItem);
+        }
+        for (RestaurantStatusView restaurant : restaurantRepository.findStatusByIdIn(missing)) {
+            List<MenuItem> menuItems = menus.getOrDefault(restaurant.id(), List.of());
+            result.put(restaurant.id(), install(RestaurantSnapshot.of(restaurant, menuItems, version)));
+        }
+        return result;
+    }
+
+    /** Reloads a restaurant and its whole menu from MongoDB. */
+    public Optional<RestaurantSnapshot> refresh(String restaurantId) {
+        // Take the version before reading so that a slower, older load can never replace a newer one
+        long version = versions.incrementAndGet();
+        Optional<RestaurantStatusView> restaurant = restaurantRepository.findStatusById(restaurantId);
+        if (restaurant.isEmpty()) {
+            snapshots.remove(restaurantId);
+            return Optional.empty();
+        }
+        List<MenuItem> menuItems = menuItemRepository.findMenuByRestaurantId(restaurantId);
+        return Optional.of(install(RestaurantSnapshot.of(restaurant.get(), menuItems, version)));
+    }
+
+    /**
+     * Reserves a version for a load that is about to start; used by callers that fetch the data themselves
+     * (e.g. the reactive service) and then hand it to {@link #install(Restaurant, List, long)}.
+     */
+    long nextVersion() {
+        return versions.incrementAndGet();
+    }
+
+    RestaurantSnapshot install(Restaurant restaurant, List<MenuItem> menuItems, long version) {
+        return install(RestaurantSnapshot.of(restaurant, menuItems, version));
+    }
+
+    RestaurantSnapshot install(RestaurantStatusView restaurant, List<MenuItem> menuItems, long version) {
+        return install(RestaurantSnapshot.of(restaurant, menuItems, version));
+    }
+
+    /** Applies a saved restaurant to an already loaded snapshot; unknown restaurants are loaded lazily. */
+    public void applyRestaurant(Restaurant restaurant) {
+        update(restaurant.getId(), current -> current.withRestaurant(restaurant, versions.incrementAndGet()));
+    }
+
+    /** Applies a saved menu item to the snapshot of its restaurant, if that snapshot is loaded. */
+    public void applyMenuItem(MenuItem menuItem) {
+        if (menuItem.getRestaurantId() != null) {
+            update(menuItem.getRestaurantId(), current -> current.withItem(menuItem, versions.incrementAndGet()));
+        }
+    }
+
+    /** Applies a bulk availability change to the snapshot of its restaurant, if that snapshot is loaded. */
+    public void applyAvailability(String restaurantId, Collection<String> itemIds, boolean available) {
+        update(restaurantId, current -> current.withAvailability(itemIds, available, versions.incrementAndGet()));
+    }
+
+    /** Removes a deleted menu item; delete events only carry the item id, so every loaded snapshot is checked. */
+    public void removeMenuItem(String itemId) {
+        for (RestaurantSnapshot candidate : snapshots.values()) {
+            if (candidate.containsItem(itemId)) {
+                update(candidate.getRestaurantId(), current -> current.containsItem(itemId)
+                        ? current.withoutItem(itemId, versions.incrementAndGet())
+                        : current);
+            }
+        }
+    }
+
+    public void evict(String restaurantId) {
+        snapshots.remove(restaurantId);
+    }
+
+    public void clear() {
+        snapshots.clear();
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * Replaces a loaded snapshot with {@code change} applied to it, atomically: two writes to the same restaurant
+     * racing each other would otherwise each copy the same snapshot and one of them would be lost. The version is
+     * taken inside {@code change}, so it is newer than any load that started before. A restaurant moved to another
+     * partition's city is dropped.
+     */
+    private void update(String restaurantId, UnaryOperator<RestaurantSnapshot> change) {
+        snapshots.computeIfPresent(restaurantId, (id, current) -> {
+            RestaurantSnapshot updated = change.apply(current);
+            return partitioner.owns(updated.getCity()) ? updated : null;
+        });
+    }
+
+    private RestaurantSnapshot install(RestaurantSnapshot snapshot) {
+        if (!partitioner.owns(snapshot.getCity())) {
+            foreignLoads.increment();
+            // The restaurant may have just moved to another partition's city; drop what this pod held of it
+            snapshots.computeIfPresent(snapshot.getRestaurantId(),
+                    (id, existing) -> snapshot.getVersion() > existing.getVersion() ? null : existing);
+            return snapshot;
+        }
+        return snapshots.merge(snapshot.getRestaurantId(), snapshot,
+                (existing, candidate) -> candidate.getVersion() > existing.getVersion() ? candidate : existing);
+    }
+}
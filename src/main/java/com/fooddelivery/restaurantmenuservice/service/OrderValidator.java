@@ -0,0 +1,135 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order validation business rules, evaluated against a {@link RestaurantSnapshot}.
+ * Shared by the servlet and reactive services so both stacks answer identically.
+ *
+ * The core works on item indexes into the snapshot's columns, so apart from the response a call allocates only two
+ * int arrays sized to the order: no id lists, maps, streams, builders or boxed prices. Nothing is kept per thread,
+ * which would cost one set of buffers per virtual thread. Totals are summed exactly in long minor units; item prices
+ * in the response are the snapshot's shared Money instances.
+ */
+final class OrderValidator {
+
+    /**
+     * Largest quantity of one item an order may ask for. It keeps every line total, and the sum of a batch-sized
+     * order's lines, far inside a long of minor units, so pricing never overflows.
+     */
+    static final int MAX_QUANTITY = 10_000;
+
+    private OrderValidator() {
+    }
+
+    static OrderValidationResponse validate(RestaurantSnapshot snapshot, OrderValidationRequest request,
+                                            ValidationMetrics metrics) {
+        // Business Rule: A restaurant may accept orders only when is_open=true.
+        if (!snapshot.isOpen()) {
+            metrics.restaurantClosed();
+            return rejected(RejectionCode.RESTAURANT_CLOSED, "Reject orders if restaurant is closed. Restaurant is currently closed and cannot accept orders.");
+        }
+
+        List<OrderValidationRequest.ItemRequest> items = request.getItems();
+        int count = items.size();
+        int[] resolved = new int[count];
+        int[] seen = new int[tableSize(count)];
+
+        // 2. Every requested item must exist on this restaurant's menu (a repeated id counts as missing, as with $in)
+        for (int i = 0; i < count; i++) {
+            int index = snapshot.indexOf(items.get(i).getItemId());
+            if (index < 0 || !add(seen, index)) {
+                metrics.itemNotFound();
+                return rejected(RejectionCode.ITEM_NOT_FOUND, "One or more requested items do not exist on the menu.");
+            }
+            resolved[i] = index;
+        }
+
+        // 3. Final Availability and Total Calculation
+        long calculatedTotal = 0L;
+        for (int i = 0; i < count; i++) {
+            int index = resolved[i];
+
+                        // Business Rule: All requested items must be is_available=true.
+            if (!snapshot.isItemAvailable(index)) {
+                metrics.itemUnavailable();
+                return rejected(RejectionCode.ITEM_UNAVAILABLE, "Reject orders if item not available. Item '" + snapshot.itemName(index) + "' is currently unavailable.");
+            }
+
+            // Calculate item subtotal and cumulative total
+            calculatedTotal = Math.addExact(calculatedTotal,
+                    Math.multiplyExact(snapshot.itemPriceMinor(index), (long) items.get(i).getQuantity()));
+        }
+
+        List<OrderValidationResponse.ValidatedItem> validatedItems = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = resolved[i];
+            validatedItems.add(new OrderValidationResponse.ValidatedItem(
+                    snapshot.itemId(index), snapshot.itemPrice(index), items.get(i).getQuantity()));
+        }
+
+        // 4. Success Response
+        metrics.valid();
+        return new OrderValidationResponse(true, null, snapshot.getCity(), Money.ofMinor(calculatedTotal), validatedItems);
+    }
+
+    /**
+     * Rejects with 400 an order that the rules cannot be evaluated on: no item list, a null entry in it, or a
+     * quantity outside 1..{@value #MAX_QUANTITY}. {@code order} names it in the message, e.g. "Order 3 of the batch".
+     */
+    static void checkItems(OrderValidationRequest request, String order) {
+        boolean complete = request != null && request.getItems() != null;
+        for (int i = 0; complete && i < request.getItems().size(); i++) {
+            complete = request.getItems().get(i) != null;
+        }
+        if (!complete) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, order + " must have a list of items.");
+        }
+        for (OrderValidationRequest.ItemRequest item : request.getItems()) {
+            if (item.getQuantity() < 1 || item.getQuantity() > MAX_QUANTITY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, order + " asks for " + item.getQuantity()
+                        + " of item '" + item.getItemId() + "'; quantities must be between 1 and " + MAX_QUANTITY + ".");
+            }
+        }
+    }
+
+    /** The answer to a batch entry that admission control shed because its restaurant is over its rate. */
+    static OrderValidationResponse rateLimited(String restaurantId) {
+        return rejected(RejectionCode.RATE_LIMITED, "Too many validations for restaurant " + restaurantId + ".");
+    }
+
+    private static OrderValidationResponse rejected(RejectionCode code, String reason) {
+        return new OrderValidationResponse(false, reason, code, null, null, null);
+    }
+
+    /** A power of two at least twice {@code count}, so that the set of item indexes stays at most half full. */
+    private static int tableSize(int count) {
+        return Math.max(4, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+    }
+
+    /**
+     * Adds an item index to an open-addressing set, held as index + 1 so that 0 marks an empty slot. Returns false
+     * if it was already there.
+     */
+    private static boolean add(int[] set, int index) {
+        int mask = set.length - 1;
+        int hash = index * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (set[slot] != 0) {
+            if (set[slot] == index + 1) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        set[slot] = index + 1;
+        return true;
+    }
+}
@@ -0,0 +1,301 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateRequest;
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateResult;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantExport;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantPage;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.ReactiveMenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.ReactiveRestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Non-blocking implementation of {@link RestaurantMenuService}, active with the "reactive" profile.
+ * Business rules are shared through {@link OrderValidator}, so both stacks return identical responses.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRestaurantMenuService {
+
+    private final ReactiveRestaurantRepository restaurantRepository;
+    private final ReactiveMenuItemRepository menuItemRepository;
+    private final MenuSnapshotStore snapshotStore;
+    private final ValidationMetrics validationMetrics;
+    private final MenuSearchService searchService;
+    private final RestaurantListingService listingService;
+    private final boolean snapshotsEnabled;
+    private final int writeMaxAttempts;
+    private final int exportBatchSize;
+    private final SingleFlight<String, RestaurantSnapshot> snapshotLoads;
+    private final SingleFlight<String, RestaurantStatusView> statusLookups;
+
+    public ReactiveRestaurantMenuService(ReactiveRestaurantRepository restaurantRepository,
+                                         ReactiveMenuItemRepository menuItemRepository,
+                                         MenuSnapshotStore snapshotStore,
+                                         ValidationMetrics validationMetrics,
+                                         MenuSearchService searchService,
+                                         RestaurantListingService listingService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${menu.snapshot.enabled:true}") boolean snapshotsEnabled,
+                                         @Value("${menu.write.max-attempts:3}") int writeMaxAttempts,
+                                         @Value("${menu.export.batch-size:100}") int exportBatchSize) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.snapshotStore = snapshotStore;
+        this.validationMetrics = validationMetrics;
+        this.searchService = searchService;
+        this.listingService = listingService;
+        this.snapshotsEnabled = snapshotsEnabled;
+        this.writeMaxAttempts = writeMaxAttempts;
+        this.exportBatchSize = exportBatchSize;
+        // Same lookup tags as the blocking stack, so menu.read.coalesced reads the same on either
+        this.snapshotLoads = new SingleFlight<>(meterRegistry, "snapshot");
+        this.statusLookups = new SingleFlight<>(meterRegistry, "status");
+    }
+
+    /**
+     * Validates an order. A warm snapshot answers without I/O; otherwise the restaurant and the menu
+     * are fetched concurrently rather than one after the other.
+     */
+    public Mono<OrderValidationResponse> validateOrder(OrderValidationRequest request) {
+        try {
+            OrderValidator.checkItems(request, "The order");
+        } catch (ResponseStatusException e) {
+            return Mono.error(e);
+        }
+        if (snapshotsEnabled) {
+            RestaurantSnapshot cached = snapshotStore.peek(request.getRestaurantId());
+            if (cached != null) {
+                return Mono.just(OrderValidator.validate(cached, request, validationMetrics));
+            }
+        }
+        return loadSnapshot(request)
+                .switchIfEmpty(Mono.error(() -> {
+                    validationMetrics.restaurantNotFound();
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found.");
+                }))
+                .map(snapshot -> OrderValidator.validate(snapshot, request, validationMetrics));
+    }
+
+    public Mono<List<OrderValidationResponse>> validateOrders(List<OrderValidationRequest> requests) {
+        return validateOrders(requests, new BitSet());
+    }
+
+    /** See {@link RestaurantMenuService#validateOrders(List, BitSet)}. */
+    public Mono<List<OrderValidationResponse>> validateOrders(List<OrderValidationRequest> requests, BitSet rateLimited) {
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                OrderValidator.checkItems(requests.get(i), "Order " + i + " of the batch");
+            }
+        } catch (ResponseStatusException e) {
+            return Mono.error(e);
+        }
+
+        Map<String, RestaurantSnapshot> snapshots = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (rateLimited.get(i)) {
+                continue;
+            }
+            String restaurantId = requests.get(i).getRestaurantId();
+            RestaurantSnapshot cached = snapshotsEnabled ? snapshotStore.peek(restaurantId) : null;
+            if (cached != null) {
+                snapshots.put(restaurantId, cached);
+            } else if (restaurantId != null) {
+                missing.add(restaurantId);
+            }
+        }
+
+        Mono<Map<String, RestaurantSnapshot>> loaded = missing.isEmpty()
+                ? Mono.just(snapshots)
+                : loadSnapshots(missing).map(fresh -> {
+                    snapshots.putAll(fresh);
+                    return snapshots;
+                });
+
+        return loaded.map(all -> {
+            List<OrderValidationResponse> responses = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                OrderValidationRequest request = requests.get(i);
+                RestaurantSnapshot snapshot = request.getRestaurantId() == null ? null : all.get(request.getRestaurantId());
+                if (rateLimited.get(i)) {
+                    responses.add(OrderValidator.rateLimited(request.getRestaurantId()));
+                } else if (snapshot == null) {
+                    validationMetrics.restaurantNotFound();
+                    responses.add(OrderValidationResponse.builder().isValid(false).rejectionReason("Restaurant not found.")
+                            .rejectionCode(RejectionCode.RESTAURANT_NOT_FOUND).build());
+                } else {
+                    responses.add(OrderValidator.validate(snapshot, request, validationMetrics));
+                }
+            }
+            return responses;
+        });
+    }
+
+    public Mono<RestaurantPage> getAllRestaurants(String city, Pageable pageable, String cursor) {
+        return Mono.fromCallable(() -> RestaurantCursor.resolve(city, pageable, cursor))
+                .flatMap(position -> restaurantRepository.findPage(position.getCity(), position.getSort(),
+                                position.getAfter(), position.getSkip(), pageable.getPageSize() + 1)
+                        .collectList()
+                        .map(rows -> position.toPage(rows, pageable)));
+    }
+
+    /**
+     * Every restaurant of {@code city} (all cities if null) with its menu, in {@code _id} order; see
+     * RestaurantMenuService#exportCatalog. Batches are fetched one at a time as the subscriber asks for more, so a
+     * slow client holds back the cursor instead of filling the heap.
+     */
+    public Flux<RestaurantExport> exportCatalog(String city) {
+        return restaurantRepository.streamAll(city, exportBatchSize)
+                .buffer(exportBatchSize)
+                .concatMap(batch -> menuItemRepository.findByRestaurantIdIn(batch.stream().map(Restaurant::getId).toList())
+                        .collectMultimap(MenuItem::getRestaurantId)
+                        .flatMapIterable(menus -> batch.stream()
+                                .map(restaurant -> new RestaurantExport(restaurant,
+                                        List.copyOf(menus.getOrDefault(restaurant.getId(), List.of()))))
+                                .toList()), 1);
+    }
+
+    public Mono<Restaurant> getRestaurantById(String id) {
+        return restaurantRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found")));
+    }
+
+    public Mono<List<MenuItem>> getRestaurantMenu(String restaurantId) {
+        return getRestaurantMenuSnapshot(restaurantId).map(RestaurantSnapshot::toMenuItems);
+    }
+
+    /** The menu as a snapshot, which also carries its ETag (see RestaurantSnapshot#getMenuETag). */
+    public Mono<RestaurantSnapshot> getRestaurantMenuSnapshot(String restaurantId) {
+        RestaurantSnapshot cached = snapshotsEnabled ? snapshotStore.peek(restaurantId) : null;
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (snapshotsEnabled && restaurantId != null) {
+            // Load and install it like a validation miss, so concurrent misses share one load and the next read is warm
+            return loadAndInstall(restaurantId)
+                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found")));
+        }
+        return Mono.zip(findStatus(restaurantId)
+                                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found"))),
+                        menuItemRepository.findByRestaurantId(restaurantId).collectList())
+                .map(tuple -> RestaurantSnapshot.of(tuple.getT1(), tuple.getT2(), 0L));
+    }
+
+    public Mono<Restaurant> createRestaurant(Restaurant restaurant) {
+        return restaurantRepository.save(restaurant)
+                .doOnNext(saved -> {
+                    snapshotStore.applyRestaurant(saved);
+                    searchService.applyRestaurant(saved);
+                    listingService.applyRestaurant(saved);
+                });
+    }
+
+    /** One findAndModify of price and availability; see RestaurantMenuService#updateMenuItem. */
+    public Mono<MenuItem> updateMenuItem(String id, MenuItem menuItem) {
+        return menuItemRepository.updatePriceAndAvailability(id, menuItem.getPrice(), menuItem.isAvailable(),
+                        menuItem.getVersion())
+                .switchIfEmpty(Mono.defer(() -> menuItemRepository.findById(id)
+                        .map(current -> RestaurantMenuService.updateRejected(menuItem.getVersion(), current))
+                        .defaultIfEmpty(RestaurantMenuService.updateRejected(menuItem.getVersion(), null))
+                        .flatMap(rejection -> Mono.<MenuItem>error(rejection))))
+                .doOnNext(saved -> {
+                    snapshotStore.applyMenuItem(saved);
+                    searchService.applyMenuItem(saved);
+                });
+    }
+
+    /** One idempotent multi-document update, retried on transient failures; see RestaurantMenuService#updateAvailability. */
+    public Mono<AvailabilityUpdateResult> updateAvailability(String restaurantId, AvailabilityUpdateRequest request) {
+        List<String> itemIds = request.getItemIds();
+        String changeId = UUID.randomUUID().toString();
+        return WriteRetries.sum(writeMaxAttempts,
+                        menuItemRepository.updateAvailability(restaurantId, itemIds, request.isAvailable(), changeId),
+                        menuItemRepository.countAvailabilityChange(restaurantId, itemIds, changeId))
+                .doOnNext(updated -> {
+                    snapshotStore.applyAvailability(restaurantId, itemIds, request.isAvailable());
+                    searchService.applyAvailability(restaurantId, itemIds, request.isAvailable());
+                })
+                .map(updated -> new AvailabilityUpdateResult(itemIds.size(), updated));
+    }
+
+    /**
+     * Fetches one restaurant's status and its menu in parallel. With snapshots enabled the whole menu is read and installed
+     * in the store, so the next call is served from memory; otherwise only the requested items are read. Concurrent
+     * loads of the same restaurant share one query (see SingleFlight); the item lookup differs per order and is not shared.
+     */
+    private Mono<RestaurantSnapshot> loadSnapshot(OrderValidationRequest request) {
+        String restaurantId = request.getRestaurantId();
+        if (restaurantId == null) {
+            return Mono.empty();
+        }
+        if (!snapshotsEnabled) {
+            List<String> itemIds = request.getItems().stream()
+                    .map(OrderValidationRequest.ItemRequest::getItemId)
+                    .toList();
+            return Mono.zip(findStatus(restaurantId),
+                            menuItemRepository.findPriceViewsByIdInAndRestaurantId(itemIds, restaurantId)
+                                    .map(MenuItemPriceView::toMenuItem)
+                                    .collectList())
+                    .map(tuple -> RestaurantSnapshot.of(tuple.getT1(), tuple.getT2(), 0L));
+        }
+        return loadAndInstall(restaurantId);
+    }
+
+    /** The restaurant and its whole menu, installed in the snapshot store; empty if it does not exist. */
+    private Mono<RestaurantSnapshot> loadAndInstall(String restaurantId) {
+        return snapshotLoads.callAsync(restaurantId, () -> {
+            long version = snapshotStore.nextVersion();
+            return Mono.zip(restaurantRepository.findStatusById(restaurantId),
+                            menuItemRepository.findByRestaurantId(restaurantId).collectList())
+                    .map(tuple -> snapshotStore.install(tuple.getT1(), tuple.getT2(), version));
+        });
+    }
+
+    private Mono<RestaurantStatusView> findStatus(String restaurantId) {
+        return statusLookups.callAsync(restaurantId, () -> restaurantRepository.findStatusById(restaurantId));
+    }
+
+    private Mono<Map<String, RestaurantSnapshot>> loadSnapshots(Set<String> restaurantIds) {
+        long version = snapshotStore.nextVersion();
+        return Mono.zip(restaurantRepository.findStatusByIdIn(restaurantIds).collectList(),
+                        menuItemRepository.findByRestaurantIdIn(restaurantIds).collectList())
+                .map(tuple -> {
+                    Map<String, List<MenuItem>> menus = new HashMap<>();
+                    for (MenuItem menuItem : tuple.getT2()) {
+                        menus.computeIfAbsent(menuItem.getRestaurantId(), id -> new ArrayList<>()).add(menuItem);
+                    }
+                    Map<String, RestaurantSnapshot> result = new HashMap<>();
+                    for (RestaurantStatusView restaurant : tuple.getT1()) {
+                        List<MenuItem> menuItems = menus.getOrDefault(restaurant.id(), List.of());
+                        result.put(restaurant.id(), snapshotsEnabled
+                                ? snapshotStore.install(restaurant, menuItems, version)
+                                : RestaurantSnapshot.of(restaurant, menuItems, 0L));
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,139 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * An in-memory read model built by a full scan of MongoDB and kept current by applying writes to it, as used by
+ * {@link MenuSearchService} and {@link RestaurantListingService}.
+ *
+ * Builds run on a background thread of their own; readers keep the current index, or null before the first build,
+ * until the new one is swapped in. Changes applied while a build scans are also queued and replayed onto the new
+ * index before the swap, so nothing is lost between the scan and the swap. A failed build is logged and leaves the
+ * current index in place.
+ */
+final class RebuildableIndex<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(RebuildableIndex.class);
+
+    private final String name;
+    private final boolean enabled;
+    private final Supplier<T> scan;
+    private final ToIntFunction<T> size;
+    private final Predicate<T> needsRebuild;
+    private final AtomicBoolean buildQueued = new AtomicBoolean();
+    private final ExecutorService builder;
+
+    private volatile T index;
+
+    // Guarded by this
+    private boolean building;
+    private final List<Consumer<T>> pending = new ArrayList<>();
+
+    /**
+     * @param name         names the build thread and the log lines, e.g. "menu-search-index"
+     * @param scan         builds a complete index from MongoDB
+     * @param size         entries of an index, for the log and the owner's gauge
+     * @param needsRebuild checked after each change outside a build; true queues a rebuild, e.g. to compact
+     */
+    RebuildableIndex(String name, boolean enabled, Supplier<T> scan, ToIntFunction<T> size,
+                     Predicate<T> needsRebuild) {
+        this.name = name;
+        this.enabled = enabled;
+        this.scan = scan;
+        this.size = size;
+        this.needsRebuild = needsRebuild;
+        this.builder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The current index, or null until the first build is done or when disabled. */
+    T current() {
+        return index;
+    }
+
+    /** Entries of the current index; 0 before the first build. */
+    int size() {
+        T current = index;
+        return current == null ? 0 : size.applyAsInt(current);
+    }
+
+    /** Rebuilds the index in the background, unless a rebuild is already queued. */
+    void rebuild() {
+        if (enabled && buildQueued.compareAndSet(false, true)) {
+            builder.execute(() -> {
+                buildQueued.set(false);
+                build();
+            });
+        }
+    }
+
+    /** Applies {@code change} to the current index, and to the one being built if a build is running. */
+    void apply(Consumer<T> change) {
+        if (!enabled) {
+            return;
+        }
+        T current;
+        boolean rebuilding;
+        synchronized (this) {
+            if (building) {
+                pending.add(change);
+            }
+            current = index;
+            rebuilding = building;
+        }
+        if (current != null) {
+            change.accept(current);
+            if (!rebuilding && needsRebuild.test(current)) {
+                rebuild();
+            }
+        }
+    }
+
+    void shutdown() {
+        builder.shutdownNow();
+    }
+
+    private void build() {
+        synchronized (this) {
+            building = true;
+            pending.clear();
+        }
+        try {
+            long started = System.nanoTime();
+            T fresh = scan.get();
+            synchronized (this) {
+                // Replayed in order; a change the scan already saw is simply applied again
+                pending.forEach(change -> change.accept(fresh));
+                index = fresh;
+            }
+            log.info("Built {} of {} entries in {} ms", name, size.applyAsInt(fresh),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.warn("Could not build {}: {}", name, e.getMessage());
+        } finally {
+            synchronized (this) {
+                building = false;
+                pending.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantPage;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Position of a GET /v1/restaurants page: either an offset into the requested sort, or a keyset cursor.
+ * Cursors are opaque to clients: the city filter, the sort and the sort values of the last restaurant of the
+ * previous page, as base64url-encoded JSON. Every sort ends with {@code id}, so positions are unique.
+ * A decoded cursor is trusted no further than a query parameter: each value must have the type of its sort property
+ * (or be null), so a crafted cursor cannot put query operators such as {@code {"$ne": null}} into the filter.
+ */
+final class RestaurantCursor {
+
+    private static final Map<String, SortKey> SORTABLE = new LinkedHashMap<>();
+
+    static {
+        SORTABLE.put("id", new SortKey(String.class, Restaurant::getId));
+        SORTABLE.put("name", new SortKey(String.class, Restaurant::getName));
+        SORTABLE.put("cuisine", new SortKey(String.class, Restaurant::getCuisine));
+        SORTABLE.put("city", new SortKey(String.class, Restaurant::getCity));
+        SORTABLE.put("rating", new SortKey(Double.class, Restaurant::getRating));
+        // Stored as a BSON date; converted the same way Spring Data writes LocalDateTime (system time zone)
+        SORTABLE.put("createdAt", new SortKey(Date.class, restaurant -> restaurant.getCreatedAt() == null
+                ? null : Date.from(restaurant.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant())));
+    }
+
+    private final String city;
+    private final Sort sort;
+    private final List<Object> after;
+    private final long skip;
+
+    private RestaurantCursor(String city, Sort sort, List<Object> after, long skip) {
+        this.city = city;
+        this.sort = sort;
+        this.after = after;
+        this.skip = skip;
+    }
+
+    /** Resolves a request: the cursor if one is given (its city and sort win), otherwise the offset of {@code pageable}. */
+    static RestaurantCursor resolve(String city, Pageable pageable, String cursor) {
+        if (cursor != null && !cursor.isEmpty()) {
+            return decode(cursor);
+        }
+        return new RestaurantCursor(city, keysetSort(pageable.getSort()), List.of(), pageable.getOffset());
+    }
+
+    String getCity() { return city; }
+
+    Sort getSort() { return sort; }
+
+    List<Object> getAfter() { return after; }
+
+    long getSkip() { return skip; }
+
+    /** Turns up to {@code pageable.getPageSize() + 1} rows read at this position into a page. */
+    RestaurantPage toPage(List<Restaurant> rows, Pageable pageable) {
+        int size = pageable.getPageSize();
+        boolean hasNext = rows.size() > size;
+        List<Restaurant> items = hasNext ? rows.subList(0, size) : rows;
+        return new RestaurantPage(items, after.isEmpty() ? pageable.getPageNumber() : null, size,
+                hasNext ? encode(items.get(size - 1)) : null);
+    }
+
+    /** Validates a requested sort and appends {@code id} as the tie-breaker (unsorted means by id). */
+    private static Sort keysetSort(Sort requested) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : requested) {
+            if (!SORTABLE.containsKey(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cannot sort restaurants by '" + order.getProperty() + "'. Sortable fields: " + SORTABLE.keySet());
+            }
+            if (order.getProperty().equals("id")) {
+                return Sort.by(orders).and(Sort.by(order.getDirection(), "id"));
+            }
+            orders.add(new Sort.Order(order.getDirection(), order.getProperty()));
+        }
+        return Sort.by(orders).and(Sort.by("id"));
+    }
+
+    /** Encodes the position right after {@code last}. */
+    private String encode(Restaurant last) {
+        List<Document> orders = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(new Document("p", order.getProperty()).append("d", order.getDirection().name()));
+            values.add(SORTABLE.get(order.getProperty()).value().apply(last));
+        }
+        String json = new Document("c", city).append("s", orders).append("v", values).toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static RestaurantCursor decode(String cursor) {
+        try {
+            Document document = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            List<Document> orders = document.getList("s", Document.class);
+            List<Object> values = document.getList("v", Object.class);
+            if (orders == null || values == null || orders.isEmpty() || orders.size() != values.size()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            List<Sort.Order> sortOrders = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                String property = orders.get(i).getString("p");
+                SortKey key = SORTABLE.get(property);
+                if (key == null) {
+                    throw new IllegalArgumentException("Unknown sort property " + property);
+                }
+                Object value = values.get(i);
+                if (value != null && value.getClass() != key.type()) {
+                    throw new IllegalArgumentException("Unexpected value for " + property);
+                }
+                sortOrders.add(new Sort.Order(Sort.Direction.valueOf(orders.get(i).getString("d")), property));
+            }
+            return new RestaurantCursor(document.getString("c"), Sort.by(sortOrders), values, 0);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    /** A sortable property: the Java type its cursor value must have, and how to read it from a restaurant. */
+    private record SortKey(Class<?> type, Function<Restaurant, Object> value) {
+    }
+}
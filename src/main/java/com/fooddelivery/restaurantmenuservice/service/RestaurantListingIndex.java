@@ -0,0 +1,266 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Restaurants listed per city, best rated first, behind {@code GET /v1/restaurants/top-rated}.
+ *
+ * Each city is an immutable listing: its restaurants sorted by rating (highest first, unrated last, then by id, the
+ * order of the city_rating_id index), and the same order per cuisine. Every one of those orders is kept three times:
+ * all restaurants, only the open ones and only the closed ones. A top-k query picks the array matching its cuisine
+ * and {@code open} filters and copies its first {@code k} rows, so it costs O(k) however large the city is and
+ * however few of its restaurants match. Cities and cuisines match case-insensitively.
+ *
+ * Writes replace the listing of the affected city copy-on-write; they are serialized, while queries take no lock.
+ * A write copies the arrays it touches, so it costs O(n) in the size of the city.
+ */
+public class RestaurantListingIndex {
+
+    private static final Comparator<Row> BEST_FIRST = Comparator
+            .comparing(Row::rating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Row::id);
+
+    private final ConcurrentMap<String, CityListing> cities = new ConcurrentHashMap<>();
+    // Guarded by this; delete events carry only the id, so this finds the row to remove and its city
+    private final Map<String, Row> listed = new HashMap<>();
+
+    /** Builds the index in one pass: rows are grouped and sorted once per city rather than inserted one by one. */
+    public static RestaurantListingIndex of(Iterable<Restaurant> restaurants) {
+        RestaurantListingIndex index = new RestaurantListingIndex();
+        Map<String, List<Row>> rowsByCity = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant.getId() == null || restaurant.getCity() == null) {
+                continue;
+            }
+            Row row = Row.of(restaurant);
+            Row previous = index.listed.put(row.id(), row);
+            if (previous != null) {
+                rowsByCity.get(key(previous.city())).remove(previous);
+            }
+            rowsByCity.computeIfAbsent(key(row.city()), city -> new ArrayList<>()).add(row);
+        }
+        rowsByCity.forEach((city, rows) -> {
+            if (!rows.isEmpty()) {
+                index.cities.put(city, new CityListing(rows.toArray(Row[]::new)));
+            }
+        });
+        return index;
+    }
+
+    /** Adds or updates a restaurant, moving it if its city changed. Restaurants without a city are not listed. */
+    public synchronized void putRestaurant(Restaurant restaurant) {
+        if (restaurant.getId() == null) {
+            return;
+        }
+        String city = restaurant.getCity() == null ? null : key(restaurant.getCity());
+        Row previous = listed.get(restaurant.getId());
+        if (previous != null && !key(previous.city()).equals(city)) {
+            removeRestaurant(restaurant.getId());
+            previous = null;
+        }
+        if (city == null) {
+            return;
+        }
+        // Within a city the old row is replaced in the same new listing, so queries never miss the restaurant
+        CityListing current = cities.get(city);
+        Row row = Row.of(restaurant);
+        cities.put(city, current == null ? new CityListing(new Row[]{row}) : current.with(previous, row));
+        listed.put(row.id(), row);
+    }
+
+    public synchronized void removeRestaurant(String restaurantId) {
+        Row previous = listed.remove(restaurantId);
+        if (previous == null) {
+            return;
+        }
+        String city = key(previous.city());
+        CityListing remaining = cities.get(city).without(previous);
+        if (remaining == null) {
+            cities.remove(city);
+        } else {
+            cities.put(city, remaining);
+        }
+    }
+
+    /**
+     * The best rated {@code limit} restaurants of {@code city}, of {@code cuisine} unless null, open or closed as
+     * {@code open} says unless null. Each is a new entity.
+     */
+    public List<Restaurant> top(String city, String cuisine, Boolean open, int limit) {
+        CityListing listing = city == null ? null : cities.get(key(city));
+        Ranking ranking = listing == null ? null : cuisine == null ? listing.all : listing.byCuisine.get(key(cuisine));
+        if (ranking == null) {
+            return List.of();
+        }
+        Row[] rows = ranking.rows(open);
+        int count = Math.min(limit, rows.length);
+        List<Restaurant> top = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            top.add(rows[i].toRestaurant());
+        }
+        return top;
+    }
+
+    /** Restaurants listed. */
+    public synchronized int size() {
+        return listed.size();
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /** One city, immutable: every restaurant best first, and the same order per cuisine (lower-cased key). */
+    private static final class CityListing {
+        private final Ranking all;
+        private final Map<String, Ranking> byCuisine;
+
+        CityListing(Row[] rows) {
+            Arrays.sort(rows, BEST_FIRST);
+            this.all = Ranking.of(rows);
+            Map<String, List<Row>> split = new HashMap<>();
+            for (Row row : rows) {
+                if (row.cuisine() != null) {
+                    split.computeIfAbsent(key(row.cuisine()), key -> new ArrayList<>()).add(row);
+                }
+            }
+            this.byCuisine = new HashMap<>(split.size() * 2);
+            split.forEach((cuisine, cuisineRows) -> byCuisine.put(cuisine, Ranking.of(cuisineRows.toArray(Row[]::new))));
+        }
+
+        private CityListing(Ranking all, Map<String, Ranking> byCuisine) {
+            this.all = all;
+            this.byCuisine = byCuisine;
+        }
+
+        /**
+         * A copy with {@code row} added, replacing {@code previous} (the listed row of the same restaurant) unless
+         * null. Only the rankings involved get new arrays.
+         */
+        CityListing with(Row previous, Row row) {
+            Map<String, Ranking> cuisines = new HashMap<>(byCuisine);
+            Ranking remaining = all;
+            if (previous != null) {
+                remaining = all.without(previous);
+                if (previous.cuisine() != null) {
+                    cuisines.computeIfPresent(key(previous.cuisine()), (cuisine, ranking) -> ranking.without(previous));
+                }
+            }
+            if (row.cuisine() != null) {
+                cuisines.compute(key(row.cuisine()), (cuisine, ranking) -> Ranking.add(ranking, row));
+            }
+            return new CityListing(Ranking.add(remaining, row), cuisines);
+        }
+
+        /** A copy without {@code previous}, which must be listed here, or null if it was the last restaurant. */
+        CityListing without(Row previous) {
+            Ranking remaining = all.without(previous);
+            if (remaining == null) {
+                return null;
+            }
+            Map<String, Ranking> cuisines = new HashMap<>(byCuisine);
+            if (previous.cuisine() != null) {
+                cuisines.computeIfPresent(key(previous.cuisine()), (cuisine, ranking) -> ranking.without(previous));
+            }
+            return new CityListing(remaining, cuisines);
+        }
+    }
+
+    /** Restaurants best first, immutable: all of them, and the same order split into the open and the closed ones. */
+    private static final class Ranking {
+        private final Row[] all;
+        private final Row[] open;
+        private final Row[] closed;
+
+        private Ranking(Row[] all, Row[] open, Row[] closed) {
+            this.all = all;
+            this.open = open;
+            this.closed = closed;
+        }
+
+        /** {@code sorted} must be best first already. */
+        static Ranking of(Row[] sorted) {
+            List<Row> open = new ArrayList<>();
+            List<Row> closed = new ArrayList<>();
+            for (Row row : sorted) {
+                (row.open() ? open : closed).add(row);
+            }
+            return new Ranking(sorted, open.toArray(Row[]::new), closed.toArray(Row[]::new));
+        }
+
+        /** {@code ranking} with {@code row} inserted, or a ranking of just {@code row} if null. */
+        static Ranking add(Ranking ranking, Row row) {
+            if (ranking == null) {
+                return of(new Row[]{row});
+            }
+            return row.open()
+                    ? new Ranking(insert(ranking.all, row), insert(ranking.open, row), ranking.closed)
+                    : new Ranking(insert(ranking.all, row), ranking.open, insert(ranking.closed, row));
+        }
+
+        /** A copy without {@code row}, which must be in this ranking, or null if it was the only one. */
+        Ranking without(Row row) {
+            if (all.length == 1) {
+                return null;
+            }
+            return row.open()
+                    ? new Ranking(remove(all, row), remove(open, row), closed)
+                    : new Ranking(remove(all, row), open, remove(closed, row));
+        }
+
+        Row[] rows(Boolean open) {
+            return open == null ? all : open ? this.open : closed;
+        }
+
+        private static Row[] insert(Row[] sorted, Row row) {
+            int at = Arrays.binarySearch(sorted, row, BEST_FIRST);
+            at = at < 0 ? -at - 1 : at;
+            Row[] copy = new Row[sorted.length + 1];
+            System.arraycopy(sorted, 0, copy, 0, at);
+            copy[at] = row;
+            System.arraycopy(sorted, at, copy, at + 1, sorted.length - at);
+            return copy;
+        }
+
+        /** {@code row} must be in {@code sorted}; it is found by its sort position rather than by a scan. */
+        private static Row[] remove(Row[] sorted, Row row) {
+            int at = Arrays.binarySearch(sorted, row, BEST_FIRST);
+            Row[] copy = new Row[sorted.length - 1];
+            System.arraycopy(sorted, 0, copy, 0, at);
+            System.arraycopy(sorted, at + 1, copy, at, sorted.length - at - 1);
+            return copy;
+        }
+    }
+
+    private record Row(String id, String name, String cuisine, String city, Double rating, boolean open,
+                       LocalDateTime createdAt) {
+
+        static Row of(Restaurant restaurant) {
+            return new Row(restaurant.getId(), restaurant.getName(), restaurant.getCuisine(), restaurant.getCity(),
+                    restaurant.getRating(), restaurant.isOpen(), restaurant.getCreatedAt());
+        }
+
+        Restaurant toRestaurant() {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(id);
+            restaurant.setName(name);
+            restaurant.setCuisine(cuisine);
+            restaurant.setCity(city);
+            restaurant.setRating(rating);
+            restaurant.setOpen(open);
+            restaurant.setCreatedAt(createdAt);
+            return restaurant;
+        }
+    }
+}
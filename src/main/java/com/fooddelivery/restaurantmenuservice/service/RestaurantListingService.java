@@ -0,0 +1,90 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Owns the {@link RestaurantListingIndex} behind {@code GET /v1/restaurants/top-rated}.
+ *
+ * Built like the search index (see {@link RebuildableIndex}): from MongoDB in the background once the application
+ * is ready, answering 503 until then, with writes made meanwhile replayed onto the new index before it is swapped
+ * in. Restaurants saved through the service and restaurant change stream events are applied as they happen, and
+ * CSV imports rebuild it. With city partitioning only this pod's cities are listed; other cities answer 421.
+ */
+@Service
+public class RestaurantListingService {
+
+    private static final HttpStatusCode MISDIRECTED_REQUEST = HttpStatusCode.valueOf(421);
+
+    private final CityPartitioner partitioner;
+    private final RebuildableIndex<RestaurantListingIndex> index;
+
+    public RestaurantListingService(RestaurantRepository restaurantRepository, CityPartitioner partitioner,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${menu.listings.enabled:true}") boolean enabled) {
+        this.partitioner = partitioner;
+        this.index = new RebuildableIndex<>("restaurant-listings", enabled,
+                () -> RestaurantListingIndex.of(restaurantRepository.findAll().stream()
+                        .filter(restaurant -> partitioner.owns(restaurant.getCity()))
+                        .toList()),
+                RestaurantListingIndex::size, listings -> false);
+
+        Gauge.builder("menu.listings.restaurants", index, RebuildableIndex::size)
+                .description("Restaurants held in the per-city top-rated listings")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        index.rebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        index.shutdown();
+    }
+
+    /** Rebuilds the listings from MongoDB in the background; queries keep using the current ones meanwhile. */
+    public void rebuild() {
+        index.rebuild();
+    }
+
+    /** See {@link RestaurantListingIndex#top}. */
+    public List<Restaurant> topRated(String city, String cuisine, Boolean open, int limit) {
+        if (!partitioner.owns(city)) {
+            throw new ResponseStatusException(MISDIRECTED_REQUEST,
+                    "Restaurants of " + city + " are listed by partition " + partitioner.ownerOf(city) + ".");
+        }
+        RestaurantListingIndex current = index.current();
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    index.isEnabled() ? "Restaurant listings are still loading." : "Restaurant listings are disabled.");
+        }
+        return current.top(city, cuisine, open, limit);
+    }
+
+    public void applyRestaurant(Restaurant restaurant) {
+        if (partitioner.owns(restaurant.getCity())) {
+            index.apply(target -> target.putRestaurant(restaurant));
+        } else {
+            // Possibly moved to another partition's city
+            index.apply(target -> target.removeRestaurant(restaurant.getId()));
+        }
+    }
+
+    public void removeRestaurant(String restaurantId) {
+        index.apply(target -> target.removeRestaurant(restaurantId));
+    }
+}
@@ -1,105 +1,235 @@
 package com.fooddelivery.restaurantmenuservice.service;
 
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateRequest;
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateResult;
 import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
 import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantExport;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantPage;
 import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
 import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
 import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
 import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class RestaurantMenuService {
 
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
+    private final MenuSnapshotStore snapshotStore;
+    private final MenuReadCoalescer directReads;
+    private final ValidationMetrics validationMetrics;
+    private final MenuSearchService searchService;
+    private final RestaurantListingService listingService;
+    private final boolean snapshotsEnabled;
+    private final int writeMaxAttempts;
+    private final int exportBatchSize;
 
-    public RestaurantMenuService(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository) {
+    public RestaurantMenuService(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+                                 MenuSnapshotStore snapshotStore, MenuReadCoalescer directReads,
+                                 ValidationMetrics validationMetrics,
+                                 MenuSearchService searchService, RestaurantListingService listingService,
+                                 @Value("${menu.snapshot.enabled:true}") boolean snapshotsEnabled,
+                                 @Value("${menu.write.max-attempts:3}") int writeMaxAttempts,
+                                 @Value("${menu.export.batch-size:100}") int exportBatchSize) {
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
+        this.snapshotStore = snapshotStore;
+        this.directReads = directReads;
+        this.validationMetrics = validationMetrics;
+        this.searchService = searchService;
+        this.listingService = listingService;
+        this.snapshotsEnabled = snapshotsEnabled;
+        this.writeMaxAttempts = writeMaxAttempts;
+        this.exportBatchSize = exportBatchSize;
     }
 
         /**
          * CRITICAL API: Validates order against business rules (is_open, is_available, pricing).
          * This is called synchronously by the Order Service to achieve decoupling (API Composition).
+         * Reads come from the in-memory {@link MenuSnapshotStore}, so a warm restaurant costs no Mongo round-trip.
          */
     public OrderValidationResponse validateOrder(OrderValidationRequest request) {
-        // 1. Check Restaurant Existence and Status
-        Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found."));
+        OrderValidator.checkItems(request, "The order");
 
-        // Business Rule: A restaurant may accept orders only when is_open=true.
-        if (!restaurant.isOpen()) {
-            return OrderValidationResponse.builder()
-                    .isValid(false)
-                    .rejectionReason("Reject orders if restaurant is closed. Restaurant is currently closed and cannot accept orders.")
-                    .build();
-        }
+        // 1. Check Restaurant Existence and Status
+        RestaurantSnapshot snapshot = snapshotsEnabled
+                ? snapshotStore.get(request.getRestaurantId()).orElseThrow(this::restaurantNotFound)
+                : loadDirect(request);
 
-        // 2. Fetch all requested Menu Items
-        List<String> requestedItemIds = request.getItems().stream()
-                .map(OrderValidationRequest.ItemRequest::getItemId)
-                .toList();
+        return OrderValidator.validate(snapshot, request, validationMetrics);
+    }
 
-        List<MenuItem> actualMenuItems = menuItemRepository
-                .findByIdInAndRestaurantId(requestedItemIds, request.getRestaurantId());
+    /**
+     * Validates many orders in one call. Restaurants and menu items for the whole batch are fetched with a single
+     * {@code $in} query per collection; an unknown restaurant rejects only its own entry instead of failing the batch.
+     */
+    public List<OrderValidationResponse> validateOrders(List<OrderValidationRequest> requests) {
+        return validateOrders(requests, new BitSet());
+    }
 
-        if (actualMenuItems.size() != requestedItemIds.size()) {
-            return OrderValidationResponse.builder()
-                    .isValid(false)
-                    .rejectionReason("One or more requested items do not exist on the menu.")
-                    .build();
+    /**
+     * As {@link #validateOrders(List)}, with the entries flagged in {@code rateLimited} (see
+     * {@link AdmissionControl#acquireBatch}) answered RATE_LIMITED without being looked up.
+     */
+    public List<OrderValidationResponse> validateOrders(List<OrderValidationRequest> requests, BitSet rateLimited) {
+        for (int i = 0; i < requests.size(); i++) {
+            OrderValidator.checkItems(requests.get(i), "Order " + i + " of the batch");
         }
 
-        Map<String, MenuItem> itemMap = actualMenuItems.stream()
-                .collect(Collectors.toMap(MenuItem::getId, item -> item));
-
-        // 3. Final Availability and Total Calculation
-        double calculatedTotal = 0.0;
-        List<OrderValidationResponse.ValidatedItem> validatedItems = new java.util.ArrayList<>();
+        Set<String> restaurantIds = new HashSet<>();
+        List<OrderValidationRequest> admitted = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            OrderValidationRequest request = requests.get(i);
+            if (!rateLimited.get(i)) {
+                admitted.add(request);
+                if (request.getRestaurantId() != null) {
+                    restaurantIds.add(request.getRestaurantId());
+                }
+            }
+        }
 
-        for (OrderValidationRequest.ItemRequest requestedItem : request.getItems()) {
-            MenuItem currentItem = itemMap.get(requestedItem.getItemId());
+        Map<String, RestaurantSnapshot> snapshots = snapshotsEnabled
+                ? snapshotStore.getAll(restaurantIds)
+                : loadDirect(restaurantIds, admitted);
 
-                        // Business Rule: All requested items must be is_available=true.
-            if (!currentItem.isAvailable()) {
-                return OrderValidationResponse.builder()
+        List<OrderValidationResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            OrderValidationRequest request = requests.get(i);
+            if (rateLimited.get(i)) {
+                responses.add(OrderValidator.rateLimited(request.getRestaurantId()));
+                continue;
+            }
+            RestaurantSnapshot snapshot = request.getRestaurantId() == null ? null : snapshots.get(request.getRestaurantId());
+            if (snapshot == null) {
+                validationMetrics.restaurantNotFound();
+                responses.add(OrderValidationResponse.builder()
                         .isValid(false)
-                                                .rejectionReason("Reject orders if item not available. Item '" + currentItem.getName() + "' is currently unavailable.")
-                        .build();
+                        .rejectionReason("Restaurant not found.")
+                        .rejectionCode(RejectionCode.RESTAURANT_NOT_FOUND)
+                        .build());
+            } else {
+                responses.add(OrderValidator.validate(snapshot, request, validationMetrics));
             }
+        }
+        return responses;
+    }
 
-            // Calculate item subtotal and cumulative total
-            double itemSubtotal = currentItem.getPrice() * requestedItem.getQuantity(); // Use standard multiplication
-            calculatedTotal += itemSubtotal; // Use standard addition
+    /**
+     * Batch counterpart of {@link #loadDirect(OrderValidationRequest)}: one query for the restaurants and one for
+     * every requested item across the batch, grouped back per restaurant.
+     */
+    private Map<String, RestaurantSnapshot> loadDirect(Set<String> restaurantIds, List<OrderValidationRequest> requests) {
+        Set<String> itemIds = new HashSet<>();
+        for (OrderValidationRequest request : requests) {
+            for (OrderValidationRequest.ItemRequest item : request.getItems()) {
+                if (item.getItemId() != null) {
+                    itemIds.add(item.getItemId());
+                }
+            }
+        }
+
+        Map<String, List<MenuItem>> itemsByRestaurant = new HashMap<>();
+        for (MenuItemPriceView menuItem : menuItemRepository.findPriceViewsByIdIn(itemIds)) {
+            itemsByRestaurant.computeIfAbsent(menuItem.restaurantId(), id -> new ArrayList<>()).add(menuItem.toMenuItem());
+        }
+
+        Map<String, RestaurantSnapshot> snapshots = new HashMap<>();
+        for (RestaurantStatusView restaurant : restaurantRepository.findStatusByIdIn(restaurantIds)) {
+            snapshots.put(restaurant.id(),
+                    RestaurantSnapshot.of(restaurant, itemsByRestaurant.getOrDefault(restaurant.id(), List.of()), 0L));
+        }
+        return snapshots;
+    }
 
-            validatedItems.add(OrderValidationResponse.ValidatedItem.builder()
-                    .itemId(currentItem.getId())
-                    .price(currentItem.getPrice()) // Send back the official price
-                    .quantity(requestedItem.getQuantity())
-                    .build());
+    /**
+     * Reads the restaurant status and only the requested items straight from MongoDB (used when snapshots are
+     * disabled). Both reads are projections decoded without the mapping layer, see CatalogCodecs, and are shared
+     * with concurrent requests for the same restaurant, see MenuReadCoalescer.
+     */
+    private RestaurantSnapshot loadDirect(OrderValidationRequest request) {
+        RestaurantStatusView restaurant = directReads.findStatus(request.getRestaurantId())
+                .orElseThrow(this::restaurantNotFound);
+        if (!restaurant.isOpen()) {
+            return RestaurantSnapshot.of(restaurant, List.of(), 0L);
+        }
+        List<String> requestedItemIds = request.getItems().stream()
+                .map(OrderValidationRequest.ItemRequest::getItemId)
+                .toList();
+        List<MenuItem> menuItems = new ArrayList<>(requestedItemIds.size());
+        for (MenuItemPriceView menuItem : directReads.findItems(request.getRestaurantId(), requestedItemIds)) {
+            menuItems.add(menuItem.toMenuItem());
         }
+        return RestaurantSnapshot.of(restaurant, menuItems, 0L);
+    }
 
-        // 4. Success Response
-        return OrderValidationResponse.builder()
-                .isValid(true)
-                .restaurantCity(restaurant.getCity()) // CRITICAL for Delivery Service check
-                .calculatedItemsTotal(calculatedTotal) // Used by Order Service to calculate final total
-                .validatedItems(validatedItems)
-                .build();
+    private ResponseStatusException restaurantNotFound() {
+        validationMetrics.restaurantNotFound();
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found.");
+    }
+
+    /**
+     * Lists restaurants one page at a time, sorted, skipped and limited in MongoDB. With a cursor the query
+     * continues after the previous page's last restaurant instead of skipping, so deep pages stay cheap.
+     */
+    public RestaurantPage getAllRestaurants(String city, Pageable pageable, String cursor) {
+        RestaurantCursor position = RestaurantCursor.resolve(city, pageable, cursor);
+        // One extra row tells whether there is a next page without counting the collection
+        List<Restaurant> rows = restaurantRepository.findPage(position.getCity(), position.getSort(),
+                position.getAfter(), position.getSkip(), pageable.getPageSize() + 1);
+        return position.toPage(rows, pageable);
+    }
+
+    /**
+     * Hands every restaurant of {@code city} (all cities if null), with its menu, to {@code sink} in {@code _id}
+     * order. Restaurants come from a single cursor; the menus of each batch of restaurants are read with one
+     * {@code $in} query, so memory stays bounded by the batch size however large the catalog is. A slow sink
+     * simply leaves the cursor waiting.
+     */
+    public void exportCatalog(String city, Consumer<RestaurantExport> sink) {
+        List<Restaurant> batch = new ArrayList<>(exportBatchSize);
+        try (Stream<Restaurant> restaurants = restaurantRepository.streamAll(city, exportBatchSize)) {
+            restaurants.forEach(restaurant -> {
+                batch.add(restaurant);
+                if (batch.size() == exportBatchSize) {
+                    exportBatch(batch, sink);
+                    batch.clear();
+                }
+            });
+        }
+        exportBatch(batch, sink);
     }
 
-    public List<Restaurant> getAllRestaurants(String city, org.springframework.data.domain.Pageable pageable) {
-        if (city != null && !city.isEmpty()) {
-            return restaurantRepository.findByCity(city);
+    private void exportBatch(List<Restaurant> batch, Consumer<RestaurantExport> sink) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, List<MenuItem>> menus = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findMenuByRestaurantIdIn(batch.stream().map(Restaurant::getId).toList())) {
+            menus.computeIfAbsent(menuItem.getRestaurantId(), id -> new ArrayList<>()).add(menuItem);
+        }
+        for (Restaurant restaurant : batch) {
+            sink.accept(new RestaurantExport(restaurant, menus.getOrDefault(restaurant.getId(), List.of())));
         }
-        return restaurantRepository.findAll();
     }
 
     public Restaurant getRestaurantById(String id) {
@@ -108,23 +238,71 @@ public class RestaurantMenuService {
     }
 
     public List<MenuItem> getRestaurantMenu(String restaurantId) {
-        Restaurant restaurant = getRestaurantById(restaurantId);
-        return menuItemRepository.findByRestaurantId(restaurantId);
+        return getRestaurantMenuSnapshot(restaurantId).toMenuItems();
+    }
+
+    /**
+     * The menu as a snapshot, which also carries its ETag: a conditional GET can be answered from it
+     * before any entity is built or serialized.
+     */
+    public RestaurantSnapshot getRestaurantMenuSnapshot(String restaurantId) {
+        if (snapshotsEnabled) {
+            // Same reads as below (restaurant, then its menu), but shared with validateOrder and kept warm
+            return snapshotStore.get(restaurantId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found"));
+        }
+        RestaurantStatusView restaurant = directReads.findStatus(restaurantId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found"));
+        return RestaurantSnapshot.of(restaurant, directReads.findMenu(restaurantId), 0L);
     }
 
     public Restaurant createRestaurant(Restaurant restaurant) {
-        return restaurantRepository.save(restaurant);
+        Restaurant saved = restaurantRepository.save(restaurant);
+        snapshotStore.applyRestaurant(saved);
+        searchService.applyRestaurant(saved);
+        listingService.applyRestaurant(saved);
+        return saved;
     }
 
+    /**
+     * Sets the availability and, when given, the price of an item in one findAndModify round-trip. Only those two
+     * fields are written, so a concurrent change to anything else is never overwritten. If the request carries the
+     * {@code version} the item was read at, the update only applies at that version; otherwise the last writer wins.
+     */
     public MenuItem updateMenuItem(String id, MenuItem menuItem) {
-        MenuItem existing = menuItemRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Menu item not found"));
-        
-        if (menuItem.getPrice() != null) {
-            existing.setPrice(menuItem.getPrice());
+        MenuItem saved = menuItemRepository.updatePriceAndAvailability(id, menuItem.getPrice(), menuItem.isAvailable(),
+                menuItem.getVersion());
+        if (saved == null) {
+            // Nothing matched; only now is it worth a read to tell a missing item from a stale version
+            throw updateRejected(menuItem.getVersion(), menuItemRepository.findById(id).orElse(null));
+        }
+        snapshotStore.applyMenuItem(saved);
+        searchService.applyMenuItem(saved);
+        return saved;
+    }
+
+    /**
+     * Marks many items of a restaurant available or sold out with one multi-document update. The update only touches
+     * items not yet in the requested state, so it is idempotent and retried on transient failures (see WriteRetries).
+     * The items are tagged with a per-call change id, so the count still includes what a failed attempt changed.
+     */
+    public AvailabilityUpdateResult updateAvailability(String restaurantId, AvailabilityUpdateRequest request) {
+        List<String> itemIds = request.getItemIds();
+        String changeId = UUID.randomUUID().toString();
+        long updated = WriteRetries.sum(writeMaxAttempts,
+                () -> menuItemRepository.updateAvailability(restaurantId, itemIds, request.isAvailable(), changeId),
+                () -> menuItemRepository.countAvailabilityChange(restaurantId, itemIds, changeId));
+        snapshotStore.applyAvailability(restaurantId, itemIds, request.isAvailable());
+        searchService.applyAvailability(restaurantId, itemIds, request.isAvailable());
+        return new AvailabilityUpdateResult(itemIds.size(), updated);
+    }
+
+    /** 404 if the item does not exist, 409 if it has moved past the version the client expected. */
+    static ResponseStatusException updateRejected(Long expectedVersion, MenuItem current) {
+        if (current == null) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Menu item not found");
         }
-        existing.setAvailable(menuItem.isAvailable());
-        
-        return menuItemRepository.save(existing);
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Menu item was modified concurrently: expected version "
+                + expectedVersion + ", current version is " + current.getVersion() + ". Re-read it and retry.");
     }
 }
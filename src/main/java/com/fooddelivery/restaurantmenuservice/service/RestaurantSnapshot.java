@@ -0,0 +1,284 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable, versioned view of one restaurant as validateOrder and menu reads need it:
+ * its open status, its city and its menu as an id -> name/category/price/availability/version table.
+ * Instances are never mutated; writes produce a new snapshot with a higher version.
+ *
+ * Menu items are stored column-wise (parallel arrays addressed by item index) behind an open-addressing
+ * id index, so a lookup is a hash probe over a String[] and prices are read as primitive minor units.
+ */
+public final class RestaurantSnapshot {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NO_VERSION = -1L; // Item versions are never negative; an item without one reads as null
+
+    private final String restaurantId;
+    private final long version;
+    private final boolean open;
+    private final String city;
+    private final long loadedAtNanos;
+
+    // Item columns, addressed by item index
+    private final String[] ids;
+    private final String[] names;
+    private final String[] categories;
+    private final long[] minorPrices;
+    private final Money[] prices; // Same values as minorPrices, shared by every response that quotes them
+    private final boolean[] available;
+    private final long[] versions; // MenuItem.version, for clients that update with optimistic locking
+
+    // Open-addressing index: slot -> item index + 1 (0 = empty); capacity is a power of two, at most half full
+    private final int[] slots;
+    private final int mask;
+
+    private String menuETag; // Computed on first use; racing threads compute the same value
+
+    private RestaurantSnapshot(String restaurantId, long version, boolean open, String city, long loadedAtNanos,
+                               List<MenuItem> menuItems) {
+        this.restaurantId = restaurantId;
+        this.version = version;
+        this.open = open;
+        this.city = city;
+        this.loadedAtNanos = loadedAtNanos;
+
+        int capacity = Integer.highestOneBit(Math.max(4, menuItems.size()) * 2 - 1) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+
+        int size = menuItems.size();
+        String[] ids = new String[size];
+        String[] names = new String[size];
+        String[] categories = new String[size];
+        long[] minorPrices = new long[size];
+        Money[] prices = new Money[size];
+        boolean[] available = new boolean[size];
+        long[] versions = new long[size];
+        int count = 0;
+        for (MenuItem menuItem : menuItems) {
+            int index = indexOf(menuItem.getId(), ids);
+            if (index < 0) {
+                index = count++;
+                insert(menuItem.getId(), index);
+            }
+            ids[index] = menuItem.getId();
+            names[index] = menuItem.getName();
+            categories[index] = menuItem.getCategory();
+            minorPrices[index] = menuItem.getPrice() == null ? 0L : menuItem.getPrice().getMinorUnits();
+            prices[index] = menuItem.getPrice();
+            available[index] = menuItem.isAvailable();
+            versions[index] = menuItem.getVersion() == null ? NO_VERSION : menuItem.getVersion();
+        }
+        this.ids = count == size ? ids : Arrays.copyOf(ids, count);
+        this.names = count == size ? names : Arrays.copyOf(names, count);
+        this.categories = count == size ? categories : Arrays.copyOf(categories, count);
+        this.minorPrices = count == size ? minorPrices : Arrays.copyOf(minorPrices, count);
+        this.prices = count == size ? prices : Arrays.copyOf(prices, count);
+        this.available = count == size ? available : Arrays.copyOf(available, count);
+        this.versions = count == size ? versions : Arrays.copyOf(versions, count);
+    }
+
+    /**
+     * Copy that shares the (immutable) item columns and index of {@code source}, except for {@code available} and
+     * {@code versions}.
+     */
+    private RestaurantSnapshot(RestaurantSnapshot source, long version, boolean open, String city, boolean[] available,
+                               long[] versions) {
+        this.restaurantId = source.restaurantId;
+        this.version = version;
+        this.open = open;
+        this.city = city;
+        this.loadedAtNanos = source.loadedAtNanos;
+        this.ids = source.ids;
+        this.names = source.names;
+        this.categories = source.categories;
+        this.minorPrices = source.minorPrices;
+        this.prices = source.prices;
+        this.available = available;
+        this.versions = versions;
+        this.slots = source.slots;
+        this.mask = source.mask;
+        this.menuETag = available == source.available && versions == source.versions ? source.menuETag : null;
+    }
+
+    static RestaurantSnapshot of(Restaurant restaurant, Collection<MenuItem> menuItems, long version) {
+        return new RestaurantSnapshot(restaurant.getId(), version, restaurant.isOpen(), restaurant.getCity(),
+                System.nanoTime(), new ArrayList<>(menuItems));
+    }
+
+    static RestaurantSnapshot of(RestaurantStatusView restaurant, Collection<MenuItem> menuItems, long version) {
+        return new RestaurantSnapshot(restaurant.id(), version, restaurant.isOpen(), restaurant.city(),
+                System.nanoTime(), new ArrayList<>(menuItems));
+    }
+
+    /** Returns a copy with the restaurant status/city replaced and the menu table kept as is. */
+    RestaurantSnapshot withRestaurant(Restaurant restaurant, long newVersion) {
+        return new RestaurantSnapshot(this, newVersion, restaurant.isOpen(), restaurant.getCity(), available, versions);
+    }
+
+    /**
+     * Returns a copy with the availability of the given items set to {@code isAvailable}; ids not on the menu are
+     * ignored. As in MongoDB, the version of every item that changes is bumped (a missing one becomes 1). Only the
+     * availability and version columns are copied, the rest of the table is shared.
+     */
+    RestaurantSnapshot withAvailability(Collection<String> itemIds, boolean isAvailable, long newVersion) {
+        boolean[] copy = available.clone();
+        long[] bumped = versions.clone();
+        for (String itemId : itemIds) {
+            int index = indexOf(itemId);
+            if (index >= 0 && copy[index] != isAvailable) {
+                copy[index] = isAvailable;
+                bumped[index] = versions[index] == NO_VERSION ? 1L : versions[index] + 1;
+            }
+        }
+        return new RestaurantSnapshot(this, newVersion, open, city, copy, bumped);
+    }
+
+    /** Returns a copy with a single menu item replaced in place, or appended if it is new. */
+    RestaurantSnapshot withItem(MenuItem menuItem, long newVersion) {
+        List<MenuItem> menuItems = toMenuItems(null);
+        int index = indexOf(menuItem.getId());
+        if (index >= 0) {
+            menuItems.set(index, menuItem);
+        } else {
+            menuItems.add(menuItem);
+        }
+        return new RestaurantSnapshot(restaurantId, newVersion, open, city, loadedAtNanos, menuItems);
+    }
+
+    /** Returns a copy without the given menu item, or this snapshot if the item is not on the menu. */
+    RestaurantSnapshot withoutItem(String itemId, long newVersion) {
+        if (!containsItem(itemId)) {
+            return this;
+        }
+        return new RestaurantSnapshot(restaurantId, newVersion, open, city, loadedAtNanos, toMenuItems(itemId));
+    }
+
+    public String getRestaurantId() { return restaurantId; }
+
+    public long getVersion() { return version; }
+
+    public boolean isOpen() { return open; }
+
+    public String getCity() { return city; }
+
+    public int getItemCount() { return ids.length; }
+
+    /** Returns the index of an item for use with the column accessors below, or -1 if it is not on the menu. */
+    public int indexOf(String itemId) {
+        return itemId == null ? -1 : indexOf(itemId, ids);
+    }
+
+    public boolean containsItem(String itemId) { return indexOf(itemId) >= 0; }
+
+    public String itemId(int index) { return ids[index]; }
+
+    public String itemName(int index) { return names[index]; }
+
+    public String itemCategory(int index) { return categories[index]; }
+
+    public long itemPriceMinor(int index) { return minorPrices[index]; }
+
+    public Money itemPrice(int index) { return prices[index]; }
+
+    public boolean isItemAvailable(int index) { return available[index]; }
+
+    /** The item's {@code MenuItem.version}, or null if it has none. */
+    public Long itemVersion(int index) { return versions[index] == NO_VERSION ? null : versions[index]; }
+
+    long getLoadedAtNanos() { return loadedAtNanos; }
+
+    /**
+     * Strong ETag of the menu representation ({@link #toMenuItems()}), e.g. {@code "9f3c2a1b0d4e5f67"}.
+     * It is a hash of the menu content rather than the version, so every replica and every reload of an
+     * unchanged menu yields the same tag, while any change to an item yields a new one.
+     */
+    public String getMenuETag() {
+        String etag = menuETag;
+        if (etag == null) {
+            long hash = hash(FNV_OFFSET_BASIS, restaurantId);
+            for (int i = 0; i < ids.length; i++) {
+                hash = hash(hash, ids[i]);
+                hash = hash(hash, names[i]);
+                hash = hash(hash, categories[i]);
+                hash = mix(hash, prices[i] == null ? -1L : minorPrices[i]);
+                hash = mix(hash, available[i] ? 1L : 0L);
+                hash = mix(hash, versions[i]);
+            }
+            etag = '"' + String.format("%016x", hash) + '"';
+            menuETag = etag;
+        }
+        return etag;
+    }
+
+    /** The menu as new entities, in the order it was loaded (which is MongoDB's natural order). */
+    public List<MenuItem> toMenuItems() {
+        return toMenuItems(null);
+    }
+
+    private int indexOf(String itemId, String[] columnIds) {
+        int slot = spread(itemId.hashCode()) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (itemId.equals(columnIds[entry - 1])) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(String itemId, int index) {
+        int slot = spread(itemId.hashCode()) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /** FNV-1a over the characters; null and "" hash differently, and a terminator keeps "ab","c" apart from "a","bc". */
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash, value.length());
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 16) {
+            hash = (hash ^ ((value >>> shift) & 0xffff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /** Rebuilds the menu as entities (minus {@code excludedId}, if not null). */
+    private List<MenuItem> toMenuItems(String excludedId) {
+        List<MenuItem> menuItems = new ArrayList<>(ids.length + 1);
+        for (int i = 0; i < ids.length; i++) {
+            if (!ids[i].equals(excludedId)) {
+                MenuItem menuItem = new MenuItem(ids[i], restaurantId, names[i], categories[i], prices[i], available[i]);
+                menuItem.setVersion(itemVersion(i));
+                menuItems.add(menuItem);
+            }
+        }
+        return menuItems;
+    }
+}
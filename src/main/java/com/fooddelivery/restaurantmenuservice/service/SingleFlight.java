@@ -0,0 +1,90 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load, and everyone asking for that key
+ * while it runs shares its result, or its exception, instead of issuing an identical query. Nothing is cached:
+ * the first call after the load has finished starts a new one, so a result is never older than the call.
+ *
+ * Calls answered by another caller's load are counted in {@code menu.read.coalesced}, tagged with the
+ * {@code lookup}.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    SingleFlight(MeterRegistry meterRegistry, String lookup) {
+        this.coalesced = Counter.builder("menu.read.coalesced")
+                .description("Reads answered by an identical query already in flight instead of their own")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
+    /** Runs {@code load} on the calling thread, or waits for the same key's load already running on another. */
+    V call(K key, Supplier<V> load) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = calls.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            V value = load.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Reactive form of {@link #call}. The load is subscribed once, independently of the callers: one of them
+     * cancelling does not cancel it for the others. An empty load completes every caller empty.
+     */
+    Mono<V> callAsync(K key, Supplier<Mono<V>> load) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> running = calls.putIfAbsent(key, call);
+            if (running != null) {
+                coalesced.increment();
+                return Mono.fromFuture(running, true);
+            }
+            call.whenComplete((value, error) -> calls.remove(key, call));
+            try {
+                load.get().subscribe(call::complete, call::completeExceptionally, () -> call.complete(null));
+            } catch (RuntimeException | Error e) {
+                // A load that throws instead of returning a failing Mono must not leave the key taken
+                call.completeExceptionally(e);
+            }
+            return Mono.fromFuture(call, true);
+        });
+    }
+
+    static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // Rethrow the loader's own exception, so a waiting caller fails exactly as the loader did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
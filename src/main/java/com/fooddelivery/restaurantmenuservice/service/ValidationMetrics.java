@@ -0,0 +1,55 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts order validations by outcome as {@code menu.validation.outcomes{outcome=...}}: {@code valid} or the
+ * rejection reason. Shared by the servlet and reactive services; the counters are resolved once, so recording
+ * is a single increment on the hot path.
+ */
+@Component
+public class ValidationMetrics {
+
+    private final Counter valid;
+    private final Counter restaurantNotFound;
+    private final Counter restaurantClosed;
+    private final Counter itemNotFound;
+    private final Counter itemUnavailable;
+
+    public ValidationMetrics(MeterRegistry meterRegistry) {
+        this.valid = outcome(meterRegistry, "valid");
+        this.restaurantNotFound = outcome(meterRegistry, "restaurant_not_found");
+        this.restaurantClosed = outcome(meterRegistry, "restaurant_closed");
+        this.itemNotFound = outcome(meterRegistry, "item_not_found");
+        this.itemUnavailable = outcome(meterRegistry, "item_unavailable");
+    }
+
+    void valid() {
+        valid.increment();
+    }
+
+    void restaurantNotFound() {
+        restaurantNotFound.increment();
+    }
+
+    void restaurantClosed() {
+        restaurantClosed.increment();
+    }
+
+    void itemNotFound() {
+        itemNotFound.increment();
+    }
+
+    void itemUnavailable() {
+        itemUnavailable.increment();
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("menu.validation.outcomes")
+                .description("Order validations by outcome: valid or the rejection reason")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
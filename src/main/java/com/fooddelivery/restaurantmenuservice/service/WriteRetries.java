@@ -0,0 +1,82 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retries of idempotent writes after transient failures (lost connection, primary step-down, timeout).
+ *
+ * Single-document writes need none of this: the driver retries them once by itself ({@code retryWrites=true}, the
+ * default) and the server deduplicates them. Multi-document updates are not retryable writes, so callers whose
+ * update is idempotent (it converges to the same state however often it runs) retry them here.
+ */
+final class WriteRetries {
+
+    private static final Duration BACKOFF = Duration.ofMillis(50);
+
+    private WriteRetries() {
+    }
+
+    static boolean isTransient(Throwable failure) {
+        return failure instanceof TransientDataAccessException || failure instanceof DataAccessResourceFailureException;
+    }
+
+    /** Runs {@code write} up to {@code maxAttempts} times, backing off linearly between attempts. */
+    static <T> T call(int maxAttempts, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(BACKOFF.toMillis() * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a multi-document write that returns how many documents it changed, retried like {@link #call}, and returns
+     * the sum over all attempts. An attempt can fail after changing some documents, and its retry skips those, so
+     * the retry's own count falls short. After a retry the sum is therefore read with {@code countAll}, which counts
+     * what every attempt of this write changed (the write tags its documents for it); a first-try success needs no read.
+     */
+    static long sum(int maxAttempts, LongSupplier write, LongSupplier countAll) {
+        AtomicInteger attempts = new AtomicInteger();
+        long changed = call(maxAttempts, () -> {
+            attempts.incrementAndGet();
+            return write.getAsLong();
+        });
+        return attempts.get() == 1 ? changed : countAll.getAsLong();
+    }
+
+    /** The reactive equivalent of {@link #sum(int, LongSupplier, LongSupplier)}. */
+    static Mono<Long> sum(int maxAttempts, Mono<Long> write, Mono<Long> countAll) {
+        AtomicInteger attempts = new AtomicInteger();
+        return Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return write;
+                })
+                .retryWhen(spec(maxAttempts))
+                .flatMap(changed -> attempts.get() == 1 ? Mono.just(changed) : countAll);
+    }
+
+    /** The reactive equivalent of {@link #call}; exhausted retries propagate the last failure unchanged. */
+    static Retry spec(int maxAttempts) {
+        return Retry.backoff(Math.max(0, maxAttempts - 1), BACKOFF)
+                .filter(WriteRetries::isTransient)
+                .onRetryExhaustedThrow((retrySpec, signal) -> signal.failure());
+    }
+}
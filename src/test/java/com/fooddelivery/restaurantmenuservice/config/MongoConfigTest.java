@@ -0,0 +1,53 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The price format written in each step of the rollout, and that both formats are read in either. */
+class MongoConfigTest {
+
+    @Test
+    void writesDoublesUntilMinorUnitsAreEnabled() {
+        assertThat(write(converter(false)).get("price")).isEqualTo(240.86);
+        assertThat(write(converter(true)).get("price")).isEqualTo(24086L);
+    }
+
+    @Test
+    void readsBothFormatsWhicheverIsWritten() {
+        for (boolean writeMinorUnits : new boolean[]{false, true}) {
+            MappingMongoConverter converter = converter(writeMinorUnits);
+            assertThat(converter.read(MenuItem.class, item().append("price", 240.86)).getPrice())
+                    .isEqualTo(Money.ofMinor(24086));
+            assertThat(converter.read(MenuItem.class, item().append("price", 24086L)).getPrice())
+                    .isEqualTo(Money.ofMinor(24086));
+        }
+    }
+
+    private static Document write(MappingMongoConverter converter) {
+        Document document = new Document();
+        converter.write(new MenuItem("i1", "r1", "Paneer Tikka", "Starters", Money.ofMinor(24086), true), document);
+        return document;
+    }
+
+    private static Document item() {
+        return new Document("_id", "i1").append("restaurantId", "r1").append("name", "Paneer Tikka");
+    }
+
+    private static MappingMongoConverter converter(boolean writeMinorUnits) {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(writeMinorUnits);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,83 @@
+package com.fooddelivery.restaurantmenuservice.config;
+
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * The migration's price expression, evaluated here with the semantics MongoDB gives its operators, must convert
+ * every legacy double exactly as {@link Money#fromDouble} reads it.
+ */
+class PriceMinorUnitsMigrationTest {
+
+    @Test
+    void roundsHalfCentsUpLikeMoney() {
+        assertThat(migrate(0.125)).isEqualTo(13L);
+        assertThat(migrate(0.115)).isEqualTo(12L);
+        assertThat(migrate(2.675)).isEqualTo(268L);
+        assertThat(migrate(-0.125)).isEqualTo(-13L);
+    }
+
+    @Test
+    void convertsEveryPriceAsMoneyReadsIt() {
+        for (double price : new double[]{240.86, 153.96, 0.1, 0.005, 0.004, 19.999, 1e9 + 0.005, 0}) {
+            assertThat(migrate(price)).as("%s", price).isEqualTo(Money.fromDouble(price).getMinorUnits());
+        }
+    }
+
+    @Test
+    void refusesToRunWhileReplicasStillWriteDoubles() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+        assertThatThrownBy(() -> new PriceMinorUnitsMigration(mongoTemplate, false).run(null))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static Object migrate(double price) {
+        return evaluate(PriceMinorUnitsMigration.minorUnits("$price"), price);
+    }
+
+    /** Just the operators the migration uses, on a document whose only field is {@code $price}. */
+    private static Object evaluate(Object expression, double price) {
+        if (expression instanceof String path) {
+            return path.equals("$price") ? price : path;
+        }
+        if (!(expression instanceof Document operator)) {
+            return expression;
+        }
+        String name = operator.keySet().iterator().next();
+        Object argument = operator.get(name);
+        List<?> arguments = argument instanceof List<?> list ? list : List.of(argument);
+        return switch (name) {
+            // A double becomes a decimal of 15 significant digits, as MongoDB converts it
+            case "$toDecimal" -> evaluate(arguments.get(0), price) instanceof Double value
+                    ? new BigDecimal(value, new MathContext(15, RoundingMode.HALF_EVEN))
+                    : new BigDecimal((String) evaluate(arguments.get(0), price));
+            case "$multiply" -> decimal(arguments.get(0), price).multiply(decimal(arguments.get(1), price));
+            case "$add" -> decimal(arguments.get(0), price).add(decimal(arguments.get(1), price));
+            case "$lt" -> decimal(arguments.get(0), price).compareTo(decimal(arguments.get(1), price)) < 0;
+            case "$cond" -> (Boolean) evaluate(arguments.get(0), price)
+                    ? evaluate(arguments.get(1), price) : evaluate(arguments.get(2), price);
+            case "$trunc" -> decimal(arguments.get(0), price).setScale(0, RoundingMode.DOWN);
+            case "$toLong" -> decimal(arguments.get(0), price).longValueExact();
+            default -> throw new IllegalArgumentException("Not evaluated here: " + name);
+        };
+    }
+
+    private static BigDecimal decimal(Object expression, double price) {
+        Object value = evaluate(expression, price);
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,41 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchRequest;
+import com.fooddelivery.restaurantmenuservice.service.MenuSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class MenuSearchControllerTest {
+
+    private final MenuSearchController controller = new MenuSearchController(mock(MenuSearchService.class), 100);
+
+    @Test
+    void pricesBeyondTheMinorUnitRangeAreABadRequest() {
+        for (String price : new String[]{"92233720368547758", "-92233720368547758", "1e30", "1e1000000"}) {
+            MenuSearchRequest min = new MenuSearchRequest();
+            min.setMinPrice(new BigDecimal(price));
+            MenuSearchRequest max = new MenuSearchRequest();
+            max.setMaxPrice(new BigDecimal(price));
+
+            assertThatThrownBy(() -> controller.search(min)).as(price)
+                    .isInstanceOf(ResponseStatusException.class).hasMessageContaining("400");
+            assertThatThrownBy(() -> controller.search(max)).as(price)
+                    .isInstanceOf(ResponseStatusException.class).hasMessageContaining("400");
+        }
+    }
+
+    @Test
+    void largestAcceptedPricesReachTheIndex() {
+        MenuSearchRequest request = new MenuSearchRequest();
+        request.setMinPrice(new BigDecimal("-92233720368547757.00"));
+        request.setMaxPrice(new BigDecimal("92233720368547757"));
+
+        assertThatCode(() -> controller.search(request)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,195 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.service.AdmissionControl;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The gRPC service over the in-process transport: HTTP statuses of the unary call mapped to gRPC statuses and
+ * trailers, and the same outcomes answered in-band on the stream, which stays open.
+ */
+class OrderValidationGrpcServiceTest {
+
+    private static final Metadata.Key<String> RETRY_AFTER = Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final RestaurantMenuService service = mock(RestaurantMenuService.class);
+    // One validation per minute and restaurant: the second order of a restaurant is rate limited
+    private final AdmissionControl admissionControl = new AdmissionControl(new SimpleMeterRegistry(), true, 1.0 / 60, 1,
+            100, Duration.ofSeconds(10), 100, 10, 1000);
+    private final OrderValidationGrpcService grpcService = new OrderValidationGrpcService(service, admissionControl);
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(service.validateOrder(any())).thenAnswer(call -> {
+            OrderValidationRequest request = call.getArgument(0);
+            if (request.getItems() == null || request.getItems().isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The order must contain at least one item.");
+            }
+            return switch (request.getRestaurantId()) {
+                case "missing" -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Restaurant not found.");
+                case "broken" -> throw new IllegalStateException("MongoDB timed out");
+                default -> new OrderValidationResponse(true, null, null, "Pune", null, List.of());
+            };
+        });
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(grpcService).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void unaryCallMapsHttpStatusesToGrpcStatuses() {
+        assertThat(unary(order("r1")).isValid()).isTrue();
+
+        assertThat(unaryFailure(order("missing")).getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+        assertThat(unaryFailure(new OrderValidationRequest("r2", List.of())).getStatus().getCode())
+                .isEqualTo(Status.Code.INVALID_ARGUMENT);
+        assertThat(unaryFailure(order("broken")).getStatus().getCode()).isEqualTo(Status.Code.INTERNAL);
+
+        StatusRuntimeException rateLimited = unaryFailure(order("r1"));
+        assertThat(rateLimited.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(rateLimited.getStatus().getDescription()).contains("r1");
+        assertThat(Long.parseLong(rateLimited.getTrailers().get(RETRY_AFTER))).isBetween(1L, 60L);
+    }
+
+    @Test
+    void streamAnswersFailuresInBandAndStaysOpen() throws Exception {
+        Responses responses = new Responses();
+        StreamObserver<OrderValidationRequest> requests = ClientCalls.asyncBidiStreamingCall(
+                channel.newCall(OrderValidationGrpc.VALIDATE_ORDER_STREAM, CallOptions.DEFAULT), responses);
+
+        requests.onNext(new OrderValidationRequest("r0", List.of()));
+        requests.onNext(order("missing"));
+        requests.onNext(order("r1"));
+        requests.onNext(order("r1"));
+        requests.onNext(order("r2"));
+        requests.onCompleted();
+
+        responses.done.get(5, TimeUnit.SECONDS);
+        assertThat(responses.received).extracting(OrderValidationResponse::isValid, OrderValidationResponse::getRejectionCode)
+                .containsExactly(
+                        tuple(false, RejectionCode.INVALID_REQUEST),
+                        tuple(false, RejectionCode.RESTAURANT_NOT_FOUND),
+                        tuple(true, null),
+                        tuple(false, RejectionCode.RATE_LIMITED),
+                        tuple(true, null));
+    }
+
+    @Test
+    void unexpectedFailureEndsTheStream() {
+        Responses responses = new Responses();
+        StreamObserver<OrderValidationRequest> requests = ClientCalls.asyncBidiStreamingCall(
+                channel.newCall(OrderValidationGrpc.VALIDATE_ORDER_STREAM, CallOptions.DEFAULT), responses);
+
+        requests.onNext(order("r1"));
+        requests.onNext(order("broken"));
+        requests.onNext(order("r2"));
+
+        assertThatThrownBy(() -> responses.done.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(StatusRuntimeException.class)
+                .cause().satisfies(e -> assertThat(Status.fromThrowable(e).getCode()).isEqualTo(Status.Code.INTERNAL));
+        assertThat(responses.received).hasSize(1);
+    }
+
+    @Test
+    void messagesOfACancelledStreamAreNeitherValidatedNorAnswered() {
+        @SuppressWarnings("unchecked")
+        ServerCall<OrderValidationRequest, OrderValidationResponse> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(OrderValidationGrpc.VALIDATE_ORDER_STREAM);
+        @SuppressWarnings("unchecked")
+        ServerCallHandler<OrderValidationRequest, OrderValidationResponse> handler =
+                (ServerCallHandler<OrderValidationRequest, OrderValidationResponse>) grpcService.bindService()
+                        .getMethod(OrderValidationGrpc.VALIDATE_ORDER_STREAM.getFullMethodName()).getServerCallHandler();
+
+        ServerCall.Listener<OrderValidationRequest> listener = handler.startCall(call, new Metadata());
+        listener.onCancel();
+        when(call.isCancelled()).thenReturn(true);
+        listener.onMessage(order("r1"));
+        listener.onHalfClose();
+
+        verify(service, never()).validateOrder(any());
+        verify(call, never()).sendMessage(any());
+    }
+
+    private OrderValidationResponse unary(OrderValidationRequest request) {
+        return ClientCalls.blockingUnaryCall(channel, OrderValidationGrpc.VALIDATE_ORDER, CallOptions.DEFAULT, request);
+    }
+
+    private StatusRuntimeException unaryFailure(OrderValidationRequest request) {
+        try {
+            unary(request);
+        } catch (StatusRuntimeException e) {
+            return e;
+        }
+        throw new AssertionError("Expected the call to fail");
+    }
+
+    private static OrderValidationRequest order(String restaurantId) {
+        return new OrderValidationRequest(restaurantId, List.of(new OrderValidationRequest.ItemRequest("i1", 1)));
+    }
+
+    /** Collects what the server sends on a stream. */
+    private static final class Responses implements StreamObserver<OrderValidationResponse> {
+        private final List<OrderValidationResponse> received = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        @Override
+        public void onNext(OrderValidationResponse response) {
+            received.add(response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            done.complete(null);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Round trips of the hand-written codec, and decoding of messages from a newer peer that carry fields this version
+ * does not know, as order_validation.proto promises either side may add.
+ */
+class OrderValidationProtobufTest {
+
+    @Test
+    void requestRoundTrips() {
+        OrderValidationRequest request = new OrderValidationRequest("r1", List.of(
+                new OrderValidationRequest.ItemRequest("i1", 2),
+                new OrderValidationRequest.ItemRequest("पनीर-टिक्का", 1),
+                new OrderValidationRequest.ItemRequest("i3", -1),
+                new OrderValidationRequest.ItemRequest("i4", Integer.MAX_VALUE)));
+
+        OrderValidationRequest decoded = roundTrip(request, OrderValidationRequest.class);
+
+        assertThat(decoded.getRestaurantId()).isEqualTo("r1");
+        assertThat(decoded.getItems()).extracting(OrderValidationRequest.ItemRequest::getItemId,
+                        OrderValidationRequest.ItemRequest::getQuantity)
+                .containsExactly(tuple("i1", 2), tuple("पनीर-टिक्का", 1), tuple("i3", -1), tuple("i4", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void validResponseRoundTrips() {
+        OrderValidationResponse response = new OrderValidationResponse(true, null, null, "Pune",
+                Money.ofMinor(48172), List.of(
+                        new OrderValidationResponse.ValidatedItem("i1", Money.ofMinor(24086), 2),
+                        new OrderValidationResponse.ValidatedItem("i2", Money.ZERO, 1),
+                        new OrderValidationResponse.ValidatedItem("i3", Money.ofMinor(-5), 1),
+                        new OrderValidationResponse.ValidatedItem("i4", Money.ofMinor(Long.MAX_VALUE), 1)));
+
+        assertThat(roundTrip(response, OrderValidationResponse.class)).isEqualTo(response);
+    }
+
+    @Test
+    void rejectionRoundTripsWithoutItsReasonText() {
+        for (RejectionCode code : RejectionCode.values()) {
+            OrderValidationResponse response = new OrderValidationResponse(false, "Restaurant is closed.", code,
+                    null, null, null);
+
+            assertThat(roundTrip(response, OrderValidationResponse.class))
+                    .isEqualTo(new OrderValidationResponse(false, null, code, null, null, null));
+        }
+    }
+
+    @Test
+    void zeroTotalIsSentUnlikeAnAbsentOne() {
+        OrderValidationResponse zero = new OrderValidationResponse(true, null, null, "Pune", Money.ZERO,
+                List.of(new OrderValidationResponse.ValidatedItem("i1", Money.ZERO, 1)));
+
+        OrderValidationResponse decoded = roundTrip(zero, OrderValidationResponse.class);
+
+        assertThat(decoded.getCalculatedItemsTotal()).isEqualTo(Money.ZERO);
+        assertThat(decoded.getValidatedItems().get(0).getPrice()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void emptyRequestDecodesToNoItems() {
+        OrderValidationRequest decoded = roundTrip(new OrderValidationRequest(null, null), OrderValidationRequest.class);
+
+        assertThat(OrderValidationProtobuf.encode(new OrderValidationRequest(null, null))).isEmpty();
+        assertThat(decoded.getRestaurantId()).isNull();
+        assertThat(decoded.getItems()).isEmpty();
+    }
+
+    @Test
+    void skipsUnknownFieldsOfEveryWireTypeAtEveryLevel() throws IOException {
+        byte[] item = message(output -> {
+            output.writeString(1, "i1");
+            output.writeInt64(15, -1);                           // Unknown varint
+            output.writeInt32(2, 3);
+            output.writeString(16, "note");                      // Unknown length-delimited
+        });
+        byte[] request = message(output -> {
+            output.writeFixed32(20, 7);                          // Unknown fixed32, before any known field
+            output.writeString(1, "r1");
+            output.writeByteArray(2, item);
+            output.writeFixed64(21, 1L << 60);                   // Unknown fixed64
+            output.writeByteArray(22, message(nested -> nested.writeString(1, "shaped like an item")));
+            output.writeByteArray(2, item);
+        });
+
+        OrderValidationRequest decoded = (OrderValidationRequest) OrderValidationProtobuf.decode(request,
+                OrderValidationRequest.class);
+
+        assertThat(decoded.getRestaurantId()).isEqualTo("r1");
+        assertThat(decoded.getItems()).extracting(OrderValidationRequest.ItemRequest::getItemId,
+                        OrderValidationRequest.ItemRequest::getQuantity)
+                .containsExactly(tuple("i1", 3), tuple("i1", 3));
+    }
+
+    @Test
+    void responseFromANewerServerKeepsTheFieldsThisVersionKnows() throws IOException {
+        byte[] validated = message(output -> {
+            output.writeString(1, "i1");
+            output.writeInt64(2, 24086);
+            output.writeBool(4, true);                           // Unknown, e.g. a future "discounted"
+            output.writeInt32(3, 2);
+        });
+        byte[] response = message(output -> {
+            output.writeBool(1, true);
+            output.writeString(3, "Pune");
+            output.writeString(6, "INR");                        // Unknown, e.g. a future currency
+            output.writeInt64(4, 48172);
+            output.writeByteArray(5, validated);
+            output.writeFixed64(7, 0);
+        });
+
+        assertThat(OrderValidationProtobuf.decode(response, OrderValidationResponse.class)).isEqualTo(
+                new OrderValidationResponse(true, null, null, "Pune", Money.ofMinor(48172),
+                        List.of(new OrderValidationResponse.ValidatedItem("i1", Money.ofMinor(24086), 2))));
+    }
+
+    @Test
+    void unknownRejectionCodeDecodesAsNone() throws IOException {
+        byte[] response = message(output -> output.writeEnum(2, 42));
+
+        OrderValidationResponse decoded = (OrderValidationResponse) OrderValidationProtobuf.decode(response,
+                OrderValidationResponse.class);
+
+        assertThat(decoded.isValid()).isFalse();
+        assertThat(decoded.getRejectionCode()).isNull();
+    }
+
+    @Test
+    void truncatedMessageIsRejected() {
+        byte[] bytes = OrderValidationProtobuf.encode(new OrderValidationRequest("r1",
+                List.of(new OrderValidationRequest.ItemRequest("i1", 2))));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+
+        assertThatThrownBy(() -> OrderValidationProtobuf.decode(truncated, OrderValidationRequest.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Malformed protobuf OrderValidationRequest");
+    }
+
+    @Test
+    void encodesFieldsAsTheProtoDeclaresThem() throws IOException {
+        byte[] expected = message(output -> {
+            output.writeString(1, "r1");
+            output.writeTag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(6);
+            output.writeString(1, "i1");
+            output.writeInt32(2, 2);
+        });
+
+        assertThat(OrderValidationProtobuf.encode(new OrderValidationRequest("r1",
+                List.of(new OrderValidationRequest.ItemRequest("i1", 2))))).isEqualTo(expected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T message, Class<T> type) {
+        return (T) OrderValidationProtobuf.decode(OrderValidationProtobuf.encode(message), type);
+    }
+
+    private static byte[] message(Fields fields) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        fields.write(output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write(CodedOutputStream output) throws IOException;
+    }
+}
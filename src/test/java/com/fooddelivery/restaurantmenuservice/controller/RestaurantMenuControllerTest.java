@@ -0,0 +1,150 @@
+package com.fooddelivery.restaurantmenuservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurantmenuservice.dto.RestaurantExport;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.service.AdmissionControl;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantMenuService;
+import com.fooddelivery.restaurantmenuservice.service.RestaurantSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Conditional GETs of the menu (exactly one ETag per response, in the form that matches the body sent) and the
+ * streamed catalog export.
+ */
+class RestaurantMenuControllerTest {
+
+    private final RestaurantMenuService service = mock(RestaurantMenuService.class);
+    private MockMvc mvc;
+    private String etag;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        RestaurantMenuController controller = new RestaurantMenuController(service, mock(AdmissionControl.class),
+                new MenuBodyCache(objectMapper, new SimpleMeterRegistry(), 10), objectMapper, 500, 500, Duration.ZERO, Duration.ofMinutes(7));
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Large enough to be sent gzip-compressed
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            menu.add(new MenuItem("i" + i, "r1", "Item " + i, "Mains", Money.ofMinor(100 + i), true));
+        }
+        etag = "\"9f3c2a1b0d4e5f67\"";
+        RestaurantSnapshot snapshot = mock(RestaurantSnapshot.class);
+        when(snapshot.getRestaurantId()).thenReturn("r1");
+        when(snapshot.getMenuETag()).thenReturn(etag);
+        when(snapshot.toMenuItems()).thenReturn(menu);
+        when(service.getRestaurantMenuSnapshot("r1")).thenReturn(snapshot);
+    }
+
+    @Test
+    void identityBodyCarriesTheStrongTagOnce() throws Exception {
+        MockHttpServletResponse response = menu(null, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeaders(HttpHeaders.ETAG)).containsExactly(etag);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void gzipBodyCarriesTheWeakTagOnce() throws Exception {
+        MockHttpServletResponse response = menu("gzip, deflate", null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeaders(HttpHeaders.ETAG)).containsExactly("W/" + etag);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void eitherFormOfTheTagYieldsNotModifiedWithThatForm() throws Exception {
+        MockHttpServletResponse strong = menu(null, etag);
+        MockHttpServletResponse weak = menu("gzip", "\"other\", W/" + etag);
+
+        assertThat(strong.getStatus()).isEqualTo(304);
+        assertThat(strong.getHeaders(HttpHeaders.ETAG)).containsExactly(etag);
+        assertThat(strong.getContentLength()).isZero();
+        assertThat(weak.getStatus()).isEqualTo(304);
+        assertThat(weak.getHeaders(HttpHeaders.ETAG)).containsExactly("W/" + etag);
+        assertThat(menu(null, "*").getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void staleTagGetsTheMenu() throws Exception {
+        MockHttpServletResponse response = menu(null, "\"0000000000000000\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeaders(HttpHeaders.ETAG)).containsExactly(etag);
+    }
+
+    @Test
+    void exportStreamsOneLinePerRestaurantUnderItsOwnTimeout() throws Exception {
+        doAnswer(call -> {
+            Consumer<RestaurantExport> sink = call.getArgument(1);
+            for (String id : List.of("r1", "r2")) {
+                Restaurant restaurant = new Restaurant();
+                restaurant.setId(id);
+                sink.accept(new RestaurantExport(restaurant, List.of()));
+            }
+            return null;
+        }).when(service).exportCatalog(eq("Pune"), any());
+
+        MvcResult started = mvc.perform(get("/v1/restaurants/export").param("city", "Pune"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(7).toMillis());
+        MockHttpServletResponse response = mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        String[] lines = response.getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"r1\"");
+        assertThat(lines[1]).contains("\"r2\"");
+    }
+
+    @Test
+    void matchesEveryListedTagWeakly() {
+        assertThat(MenuBodyCache.matchingETag(null, "\"a\"")).isNull();
+        assertThat(MenuBodyCache.matchingETag(List.of("\"b\""), "\"a\"")).isNull();
+        assertThat(MenuBodyCache.matchingETag(List.of("\"b\"", " W/\"a\" "), "\"a\"")).isEqualTo("W/\"a\"");
+        assertThat(MenuBodyCache.matchingETag(List.of("\"b\",\"a\""), "\"a\"")).isEqualTo("\"a\"");
+        assertThat(MenuBodyCache.matchingETag(List.of("a"), "\"a\"")).isNull();
+    }
+
+    private MockHttpServletResponse menu(String acceptEncoding, String ifNoneMatch) throws Exception {
+        var request = get("/v1/restaurants/r1/menu");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mvc.perform(request).andReturn().getResponse();
+    }
+}
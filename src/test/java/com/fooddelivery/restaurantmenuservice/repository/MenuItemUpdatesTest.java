@@ -0,0 +1,53 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuItemUpdatesTest {
+
+    @Test
+    void matchesAnyVersionUnlessOneIsExpected() {
+        assertThat(MenuItemUpdates.byIdAndVersion("i1", null).getQueryObject())
+                .isEqualTo(new Document("_id", "i1"));
+        assertThat(MenuItemUpdates.byIdAndVersion("i1", 3L).getQueryObject())
+                .isEqualTo(new Document("_id", "i1").append("version", 3L));
+    }
+
+    @Test
+    void setsOnlyPriceAndAvailabilityAndBumpsTheVersion() {
+        Document update = MenuItemUpdates.priceAndAvailability(Money.ofMinor(24086), false).getUpdateObject();
+
+        assertThat(update.get("$set", Document.class))
+                .isEqualTo(new Document("isAvailable", false).append("price", Money.ofMinor(24086)));
+        assertThat(update.get("$inc", Document.class)).isEqualTo(new Document("version", 1L));
+    }
+
+    @Test
+    void leavesThePriceAloneWhenNoneIsGiven() {
+        Document update = MenuItemUpdates.priceAndAvailability(null, true).getUpdateObject();
+
+        assertThat(update.get("$set", Document.class)).isEqualTo(new Document("isAvailable", true));
+        assertThat(update.get("$inc", Document.class)).isEqualTo(new Document("version", 1L));
+    }
+
+    @Test
+    void bulkAvailabilityChangeSkipsItemsAlreadyInThatStateAndTagsTheOthers() {
+        List<String> ids = List.of("i1", "i2");
+
+        assertThat(MenuItemUpdates.availabilityChange("r1", ids, false).getQueryObject()).isEqualTo(
+                new Document("_id", new Document("$in", ids)).append("restaurantId", "r1")
+                        .append("isAvailable", new Document("$ne", false)));
+        Document update = MenuItemUpdates.availability(false, "c1").getUpdateObject();
+        assertThat(update.get("$set", Document.class))
+                .isEqualTo(new Document("isAvailable", false).append("availabilityChange", "c1"));
+        assertThat(update.get("$inc", Document.class)).isEqualTo(new Document("version", 1L));
+        assertThat(MenuItemUpdates.changedBy("r1", ids, "c1").getQueryObject()).isEqualTo(
+                new Document("_id", new Document("$in", ids)).append("restaurantId", "r1")
+                        .append("availabilityChange", "c1"));
+    }
+}
@@ -0,0 +1,206 @@
+package com.fooddelivery.restaurantmenuservice.repository;
+
+import com.fooddelivery.restaurantmenuservice.config.MongoConfig;
+import com.fooddelivery.restaurantmenuservice.config.MongoIndexInitializer;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository finders against a real MongoDB with the declared indexes, captures the commands they send
+ * and explains each of them: a finder added without a matching index then fails the build with a COLLSCAN instead
+ * of showing up as production latency. Needs Docker. Without it the test is skipped, except under the {@code ci}
+ * Maven profile ({@value #REQUIRE_DOCKER}=true), where a missing Docker fails the build instead of hiding the check.
+ */
+@DataMongoTest
+@Testcontainers
+@EnabledIf("dockerAvailableOrRequired")
+@Import({MongoConfig.class, MongoIndexInitializer.class, QueryPlanTest.CapturedCommands.class})
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    static final String REQUIRE_DOCKER = "menu.tests.require-docker";
+    private static final Set<String> EXPLAINED = Set.of("find", "findAndModify", "update", "count");
+    private static final List<BsonDocument> COMMANDS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    static boolean dockerAvailableOrRequired() {
+        return Boolean.getBoolean(REQUIRE_DOCKER) || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @BeforeEach
+    void seed() {
+        restaurantRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        List<Restaurant> restaurants = new ArrayList<>();
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId("r" + i);
+            restaurant.setName("Restaurant " + i);
+            restaurant.setCuisine(i % 2 == 0 ? "Indian" : "Italian");
+            restaurant.setCity(i % 3 == 0 ? "Pune" : "Mumbai");
+            restaurant.setRating(i % 7 == 0 ? null : 3.0 + (i % 20) / 10.0);
+            restaurant.setOpen(true);
+            restaurant.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i));
+            restaurants.add(restaurant);
+            for (int j = 0; j < 5; j++) {
+                menuItems.add(new MenuItem("r" + i + "-i" + j, "r" + i, "Item " + j, "Mains", Money.ofMinor(100 + j), true));
+            }
+        }
+        restaurantRepository.saveAll(restaurants);
+        menuItemRepository.saveAll(menuItems);
+        COMMANDS.clear();
+    }
+
+    @Test
+    void restaurantFindersUseAnIndex() {
+        assertIndexed(() -> restaurantRepository.findByCity("Pune"));
+        assertIndexed(() -> restaurantRepository.findStatusById("r1"));
+        assertIndexed(() -> restaurantRepository.findStatusByIdIn(List.of("r1", "r2")));
+        try (Stream<Restaurant> all = restaurantRepository.streamAll("Pune", 50)) {
+            assertIndexed(all::count);
+        }
+        try (Stream<Restaurant> all = restaurantRepository.streamAll(null, 50)) {
+            assertIndexed(all::count);
+        }
+    }
+
+    @Test
+    void restaurantPagesUseAnIndex() {
+        Sort byRating = Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("id"));
+        Sort byId = Sort.by("id");
+        for (String city : new String[]{"Pune", null}) {
+            assertIndexed(() -> restaurantRepository.findPage(city, byRating, List.of(), 0, 21));
+            assertIndexed(() -> restaurantRepository.findPage(city, byRating, List.of(), 40, 21));
+            assertIndexed(() -> restaurantRepository.findPage(city, byRating, List.of(4.1, "r12"), 0, 21));
+            assertIndexed(() -> restaurantRepository.findPage(city, byId, List.of(), 0, 21));
+            assertIndexed(() -> restaurantRepository.findPage(city, byId, List.of("r12"), 0, 21));
+        }
+        // Only the city filter is indexed for the other sorts; the sort itself runs in memory
+        assertIndexed(() -> restaurantRepository.findPage("Pune", Sort.by("name").and(Sort.by("id")), List.of(), 0, 21));
+    }
+
+    @Test
+    void menuItemFindersUseAnIndex() {
+        assertIndexed(() -> menuItemRepository.findByRestaurantId("r1"));
+        assertIndexed(() -> menuItemRepository.findByRestaurantIdIn(List.of("r1", "r2")));
+        assertIndexed(() -> menuItemRepository.findMenuByRestaurantId("r1"));
+        assertIndexed(() -> menuItemRepository.findMenuByRestaurantIdIn(List.of("r1", "r2")));
+        assertIndexed(() -> menuItemRepository.findPriceViewsByIdIn(List.of("r1-i0", "r2-i1")));
+        assertIndexed(() -> menuItemRepository.updatePriceAndAvailability("r1-i0", Money.ofMinor(250), false, null));
+        assertIndexed(() -> menuItemRepository.updatePriceAndAvailability("r1-i0", null, true, 1L));
+        assertIndexed(() -> menuItemRepository.updateAvailability("r1", List.of("r1-i0", "r1-i1"), false, "c1"));
+        assertIndexed(() -> menuItemRepository.countAvailabilityChange("r1", List.of("r1-i0", "r1-i1"), "c1"));
+    }
+
+    @Test
+    void validationLookupIsCoveredByTheRestaurantMenuIndex() {
+        List<Document> plans = explain(() -> menuItemRepository.findPriceViewsByIdInAndRestaurantId(
+                List.of("r1-i0", "r1-i1"), "r1"));
+
+        assertThat(plans).isNotEmpty().allSatisfy(plan -> assertThat(stages(plan)).contains("IXSCAN")
+                .doesNotContain("COLLSCAN", "FETCH"));
+    }
+
+    private void assertIndexed(Runnable finder) {
+        List<Document> plans = explain(finder);
+        assertThat(plans).isNotEmpty().allSatisfy(plan -> assertThat(stages(plan)).doesNotContain("COLLSCAN"));
+    }
+
+    /** Runs {@code finder} and returns the winning plan of every command it sent. */
+    private List<Document> explain(Runnable finder) {
+        COMMANDS.clear();
+        finder.run();
+        List<Document> plans = new ArrayList<>();
+        for (BsonDocument command : List.copyOf(COMMANDS)) {
+            if (!EXPLAINED.contains(command.getFirstKey())) {
+                continue;
+            }
+            Document explained = new Document();
+            // Session, cluster time and the target database are added by the driver, and explain wraps its own
+            command.forEach((key, value) -> {
+                if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                    explained.append(key, value);
+                }
+            });
+            Document explain = mongoTemplate.getDb()
+                    .runCommand(new Document("explain", explained).append("verbosity", "queryPlanner"));
+            plans.add(explain.get("queryPlanner", Document.class).get("winningPlan", Document.class));
+        }
+        return plans;
+    }
+
+    /** Every stage name of a plan tree (classic plans and the queryPlan of slot-based plans alike). */
+    private static List<String> stages(Object plan) {
+        List<String> stages = new ArrayList<>();
+        collectStages(plan, stages::add);
+        return stages;
+    }
+
+    private static void collectStages(Object node, Consumer<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String name) {
+                stages.accept(name);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    /** Records every command the client sends. */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CapturedCommands {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCapture() {
+            CommandListener listener = new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    COMMANDS.add(event.getCommand().clone());
+                }
+            };
+            return settings -> settings.addCommandListener(listener);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rates slow enough (one token a minute) that no bucket refills while a test runs, so each outcome is exact.
+ */
+class AdmissionControlTest {
+
+    private static final double PER_MINUTE = 1.0 / 60;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void restaurantOverItsBurstGets429WithRetryAfter() {
+        AdmissionControl admission = admission(PER_MINUTE, 3, 100, 100);
+        for (int i = 0; i < 3; i++) {
+            admission.release(admission.acquire("r1"));
+        }
+
+        assertThatThrownBy(() -> admission.acquire("r1"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(Long.parseLong(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(55L, 60L);
+                });
+        // Other restaurants are unaffected
+        admission.release(admission.acquire("r2"));
+        assertThat(rejections("restaurant_rate")).isEqualTo(1);
+    }
+
+    @Test
+    void overloadGets503AndGivesTheRestaurantTokenBack() {
+        AdmissionControl admission = admission(PER_MINUTE, 3, 2, 2);
+        long first = admission.acquire("r1");
+        admission.acquire("r1");
+
+        // In-flight limit reached: shed, and the token it took is returned
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> admission.acquire("r1"))
+                    .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        admission.release(first);
+
+        // The third and last token of the burst is still there
+        admission.acquire("r1");
+        assertThatThrownBy(() -> admission.acquire("r1"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(rejections("overload")).isEqualTo(5);
+    }
+
+    @Test
+    void limitGrowsOnFastResponsesOnlyWhileInUse() {
+        AdmissionControl admission = new AdmissionControl(registry, true, 1000, 1000, 100,
+                Duration.ofHours(1), 100, 10, 1000);
+        // Idle: fast responses teach nothing
+        for (int i = 0; i < 10; i++) {
+            admission.release(admission.acquire(null));
+        }
+        assertThat(limit()).isEqualTo(100);
+
+        List<Long> held = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            held.add(admission.acquire(null));
+        }
+        // More than half of the limit in use: each fast response raises it by one
+        for (int i = 0; i < 10; i++) {
+            admission.release(admission.acquire(null));
+        }
+        assertThat(limit()).isEqualTo(110);
+        held.forEach(admission::release);
+    }
+
+    @Test
+    void slowResponsesShrinkTheLimitDownToTheMinimum() throws InterruptedException {
+        AdmissionControl admission = new AdmissionControl(registry, true, 1000, 1000, 100,
+                Duration.ofMillis(1), 20, 10, 1000);
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(2);
+            long started = admission.acquire(null);
+            admission.release(started - Duration.ofSeconds(1).toNanos());
+        }
+        assertThat(limit()).isEqualTo(10);
+    }
+
+    @Test
+    void disabledAdmitsEverything() {
+        AdmissionControl admission = new AdmissionControl(registry, false, PER_MINUTE, 1, 100,
+                Duration.ofMillis(100), 1, 1, 1);
+        for (int i = 0; i < 100; i++) {
+            admission.acquire("r1");
+        }
+        assertThat(admission.acquireBatch(List.of(order("r1"), order("r1"))).rateLimited().isEmpty()).isTrue();
+    }
+
+    @Test
+    void batchTakesOnePermitAndOneTokenPerEntry() {
+        AdmissionControl admission = admission(PER_MINUTE, 2, 1, 1);
+
+        AdmissionControl.BatchAdmission batch = admission.acquireBatch(
+                Arrays.asList(order("r1"), order("r2"), order("r1"), null, order(null), order("r1")));
+
+        // Two tokens for r1: its third entry is over the rate
+        assertThat(batch.rateLimited().stream().boxed().toList()).containsExactly(5);
+        // The whole batch holds the single permit
+        assertThatThrownBy(() -> admission.acquire("r3"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        admission.release(batch.startNanos());
+        admission.release(admission.acquire("r3"));
+    }
+
+    @Test
+    void shedBatchSpendsNoTokens() {
+        AdmissionControl admission = admission(PER_MINUTE, 1, 1, 1);
+        long held = admission.acquire(null);
+
+        assertThatThrownBy(() -> admission.acquireBatch(List.of(order("r1"))))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        admission.release(held);
+
+        assertThat(admission.acquireBatch(List.of(order("r1"))).rateLimited().isEmpty()).isTrue();
+    }
+
+    @Test
+    void refilledBucketsAreDroppedInPeriodicScans() {
+        // Buckets refill within a nanosecond, so every one is droppable by the time of the next scan
+        AdmissionControl admission = new AdmissionControl(registry, true, 1e9, 1, 160,
+                Duration.ofMillis(100), 100, 10, 1000);
+        int maxSeen = 0;
+        for (int i = 0; i < 5000; i++) {
+            admission.release(admission.acquire("r" + i));
+            maxSeen = Math.max(maxSeen, admission.trackedRestaurants());
+        }
+        // The bound is exceeded by at most one scan interval (160 / 16)
+        assertThat(maxSeen).isBetween(160, 170);
+    }
+
+    private AdmissionControl admission(double rate, int burst, int initialLimit, int maxLimit) {
+        return new AdmissionControl(registry, true, rate, burst, 10_000, Duration.ofHours(1),
+                initialLimit, Math.min(initialLimit, 10), maxLimit);
+    }
+
+    private double limit() {
+        return registry.get("menu.admission.limit").gauges().stream()
+                .mapToDouble(gauge -> gauge.value()).max().orElseThrow();
+    }
+
+    private double rejections(String reason) {
+        return registry.get("menu.admission.rejections").tag("reason", reason).counter().count();
+    }
+
+    private static OrderValidationRequest order(String restaurantId) {
+        return new OrderValidationRequest(restaurantId, List.of(new OrderValidationRequest.ItemRequest("i1", 1)));
+    }
+}
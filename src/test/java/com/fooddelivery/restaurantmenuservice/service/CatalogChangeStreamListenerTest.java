@@ -0,0 +1,282 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.config.MongoConfig;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the listener through a stand-in change stream (the driver's cursor replaced by a queue of events) into a
+ * real {@link MenuSnapshotStore}, since change streams need a replica set that the build does not have.
+ */
+class CatalogChangeStreamListenerTest {
+
+    private static final BsonTimestamp START_TIME = new BsonTimestamp(1_700_000_000, 1);
+    /** Queued like an event, makes the stand-in cursor fail as a dropped connection would. */
+    private static final ChangeStreamDocument<Document> CONNECTION_RESET = event("delete", null, null, null, "reset");
+
+    private final BlockingQueue<ChangeStreamDocument<Document>> events = new LinkedBlockingQueue<>();
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final MenuSearchService searchService = mock(MenuSearchService.class);
+    private final RestaurantListingService listingService = mock(RestaurantListingService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChangeStreamIterable<Document> stream;
+    private MenuSnapshotStore store;
+    private CatalogChangeStreamListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stream = mock(ChangeStreamIterable.class);
+        when(stream.fullDocument(any())).thenReturn(stream);
+        when(stream.maxAwaitTime(anyLong(), any())).thenReturn(stream);
+        when(stream.resumeAfter(any())).thenReturn(stream);
+        when(stream.startAtOperationTime(any())).thenReturn(stream);
+        when(stream.cursor()).thenAnswer(invocation -> new StandInCursor(events));
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.watch(any(List.class))).thenReturn(stream);
+        when(database.runCommand(any(Document.class))).thenReturn(new Document("ok", 1.0)
+                .append("operationTime", START_TIME));
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(mongoTemplate.getCollectionName(Restaurant.class)).thenReturn("restaurants");
+        when(mongoTemplate.getCollectionName(MenuItem.class)).thenReturn("menu_items");
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+
+        when(restaurantRepository.findStatusById("r1")).thenReturn(Optional.of(new RestaurantStatusView("r1", true, "Pune")));
+        when(menuItemRepository.findMenuByRestaurantId("r1")).thenReturn(List.of(MenuItem.builder()
+                .id("i1").restaurantId("r1").name("Dosa").price(Money.ofMinor(9000)).isAvailable(true).build()));
+
+        store = new MenuSnapshotStore(restaurantRepository, menuItemRepository,
+                new CityPartitioner(false, "", List.of(), 128), meterRegistry, Duration.ofMinutes(5));
+        ObjectProvider<CatalogSnapshotFile> noCatalogFile = mock(ObjectProvider.class);
+        listener = new CatalogChangeStreamListener(mongoTemplate, store, searchService, listingService,
+                noCatalogFile, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void insertUpdateAndDeleteReachTheSnapshotStore() {
+        store.get("r1");
+        listener.start();
+
+        events.add(event("insert", "menu_items", "i2", new Document("_id", "i2").append("restaurantId", "r1")
+                .append("name", "Idli").append("price", 6000L).append("isAvailable", true), "t1"));
+        eventually(() -> assertThat(store.peek("r1").containsItem("i2")).isTrue());
+
+        events.add(event("update", "restaurants", "r1", new Document("_id", "r1").append("name", "Udupi")
+                .append("city", "Pune").append("isOpen", false), "t2"));
+        eventually(() -> assertThat(store.peek("r1").isOpen()).isFalse());
+        eventually(() -> verify(listingService).applyRestaurant(argThat(restaurant -> restaurant.getId().equals("r1"))));
+
+        events.add(event("delete", "menu_items", "i1", null, "t3"));
+        eventually(() -> assertThat(store.peek("r1").containsItem("i1")).isFalse());
+        eventually(() -> verify(searchService).removeMenuItem("i1"));
+
+        events.add(event("delete", "restaurants", "r1", null, "t4"));
+        eventually(() -> assertThat(store.size()).isZero());
+        eventually(() -> verify(listingService).removeRestaurant("r1"));
+    }
+
+    @Test
+    void invalidateDropsSnapshotsAndReopensFromNow() {
+        store.get("r1");
+        listener.start();
+
+        events.add(event("insert", "menu_items", "i2", new Document("_id", "i2").append("restaurantId", "r1")
+                .append("name", "Idli").append("price", 6000L).append("isAvailable", true), "t1"));
+        events.add(event("invalidate", null, null, null, "t2"));
+
+        eventually(() -> verify(stream, times(2)).cursor());
+        assertThat(store.size()).isZero();
+        verify(searchService).rebuild();
+        verify(listingService).rebuild();
+        // The token of an invalidated stream cannot be resumed after
+        verify(stream, never()).resumeAfter(any());
+    }
+
+    @Test
+    void startsAtTheClusterTimeOfStartupAndResumesAfterTheLastEventWhenReopened() {
+        listener.start();
+        eventually(() -> verify(stream).startAtOperationTime(START_TIME));
+        verify(stream, never()).resumeAfter(any());
+
+        events.add(event("delete", "menu_items", "i9", null, "t1"));
+        eventually(() -> verify(searchService).removeMenuItem("i9"));
+        events.add(CONNECTION_RESET);
+
+        eventually(() -> verify(stream).resumeAfter(new BsonDocument("_data", new BsonString("t1"))));
+        verify(stream, times(1)).startAtOperationTime(any());
+    }
+
+    @Test
+    void lagFallsToZeroOnceCaughtUp() {
+        AtomicReference<Double> lagWhileApplying = new AtomicReference<>();
+        doAnswer(invocation -> {
+            lagWhileApplying.set(meterRegistry.get("menu.changestream.lag").gauge().value());
+            return null;
+        }).when(listingService).removeRestaurant("r1");
+        listener.start();
+
+        events.add(event("delete", "restaurants", "r1", null, "t1", System.currentTimeMillis() - 60_000));
+
+        eventually(() -> assertThat(lagWhileApplying.get()).isNotNull().isGreaterThanOrEqualTo(60_000));
+        eventually(() -> assertThat(meterRegistry.get("menu.changestream.lag").gauge().value()).isZero());
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(true);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static ChangeStreamDocument<Document> event(String type, String collection, String id,
+                                                        Document fullDocument, String token) {
+        return event(type, collection, id, fullDocument, token, System.currentTimeMillis());
+    }
+
+    private static ChangeStreamDocument<Document> event(String type, String collection, String id,
+                                                        Document fullDocument, String token, long wallTimeMillis) {
+        BsonDocument namespace = collection == null ? null
+                : new BsonDocument("db", new BsonString("menu")).append("coll", new BsonString(collection));
+        BsonDocument documentKey = id == null ? null : new BsonDocument("_id", new BsonString(id));
+        return new ChangeStreamDocument<>(type, new BsonDocument("_data", new BsonString(token)), namespace, null,
+                fullDocument, null, documentKey, null, null, null, null, new BsonDateTime(wallTimeMillis), null, null);
+    }
+
+    /** A tailable cursor over the shared queue; like the driver's, tryNext waits briefly before answering null. */
+    private static final class StandInCursor implements MongoChangeStreamCursor<ChangeStreamDocument<Document>> {
+        private final BlockingQueue<ChangeStreamDocument<Document>> events;
+        private BsonDocument resumeToken;
+
+        StandInCursor(BlockingQueue<ChangeStreamDocument<Document>> events) {
+            this.events = events;
+        }
+
+        @Override
+        public ChangeStreamDocument<Document> tryNext() {
+            try {
+                ChangeStreamDocument<Document> event = events.poll(10, TimeUnit.MILLISECONDS);
+                if (event == CONNECTION_RESET) {
+                    throw new MongoException("Connection reset");
+                }
+                if (event != null) {
+                    resumeToken = event.getResumeToken();
+                }
+                return event;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        @Override
+        public BsonDocument getResumeToken() {
+            return resumeToken;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !events.isEmpty();
+        }
+
+        @Override
+        public ChangeStreamDocument<Document> next() {
+            ChangeStreamDocument<Document> event = tryNext();
+            if (event == null) {
+                throw new NoSuchElementException();
+            }
+            return event;
+        }
+
+        @Override
+        public int available() {
+            return events.size();
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return null;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return new ServerAddress();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static void eventually(Runnable assertion) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        }
+    }
+}
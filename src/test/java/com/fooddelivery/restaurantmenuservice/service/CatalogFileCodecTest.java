@@ -0,0 +1,129 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CatalogFileCodecTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(dir)) {
+            writer.addRestaurant("r1", true, "Pune");
+            writer.addItem("i1", "Paneer Tikka", "Starters", Money.ofMinor(24086), true, 7L);
+            writer.addItem("i2", "Dal Makhani", null, null, false, null);
+            writer.addRestaurant("r2", false, null);
+            writer.addRestaurant("r3", true, "Mumbai");
+            writer.addItem("i3", "Vada Pav वडा", "Snacks", Money.ZERO, true, 0L);
+            writer.writeTo(file, 1_700_000_000_000L, 42L);
+        }
+        // The spilled columns are gone once the writer is closed
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+
+        CatalogFileCodec.Catalog catalog = CatalogFileCodec.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+
+        assertThat(catalog.getCreatedAtMillis()).isEqualTo(1_700_000_000_000L);
+        assertThat(catalog.getOperationTime()).isEqualTo(42L);
+        assertThat(catalog.getRestaurantCount()).isEqualTo(3);
+        assertThat(catalog.getItemCount()).isEqualTo(3);
+        Map<Restaurant, List<MenuItem>> read = read(catalog);
+        assertThat(read.keySet()).extracting(Restaurant::getId, Restaurant::isOpen, Restaurant::getCity)
+                .containsExactly(tuple("r1", true, "Pune"),
+                        tuple("r2", false, null),
+                        tuple("r3", true, "Mumbai"));
+        List<List<MenuItem>> menus = new ArrayList<>(read.values());
+        assertThat(menus.get(0)).containsExactly(
+                new MenuItem("i1", "r1", "Paneer Tikka", "Starters", Money.ofMinor(24086), true),
+                new MenuItem("i2", "r1", "Dal Makhani", null, null, false));
+        assertThat(menus.get(1)).isEmpty();
+        assertThat(menus.get(2)).containsExactly(
+                new MenuItem("i3", "r3", "Vada Pav वडा", "Snacks", Money.ZERO, true));
+        // MenuItem equality leaves the version out
+        assertThat(menus.stream().flatMap(List::stream).map(MenuItem::getVersion)).containsExactly(7L, null, 0L);
+    }
+
+    @Test
+    void keepsAvailabilityBitsAcrossWordBoundaries() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(dir)) {
+            for (int r = 0; r < 70; r++) {
+                writer.addRestaurant("r" + r, r % 3 == 0, "Pune");
+                writer.addItem("i" + r, "Item", "Mains", Money.ofMinor(r), r % 5 != 0, (long) r);
+            }
+            writer.writeTo(file, 0, -1);
+        }
+
+        read(CatalogFileCodec.read(ByteBuffer.wrap(Files.readAllBytes(file)))).forEach((restaurant, menu) -> {
+            int r = Integer.parseInt(restaurant.getId().substring(1));
+            assertThat(restaurant.isOpen()).isEqualTo(r % 3 == 0);
+            assertThat(menu).singleElement().satisfies(item -> {
+                assertThat(item.isAvailable()).isEqualTo(r % 5 != 0);
+                assertThat(item.getPrice()).isEqualTo(Money.ofMinor(r));
+                assertThat(item.getVersion()).isEqualTo((long) r);
+            });
+        });
+    }
+
+    @Test
+    void emptyCatalogRoundTrips() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(dir)) {
+            writer.writeTo(file, 0, -1);
+        }
+
+        CatalogFileCodec.Catalog catalog = CatalogFileCodec.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+
+        assertThat(catalog.getRestaurantCount()).isZero();
+        assertThat(read(catalog)).isEmpty();
+    }
+
+    @Test
+    void rejectsCorruptAndForeignFiles() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(dir)) {
+            writer.addRestaurant("r1", true, "Pune");
+            writer.addItem("i1", "Paneer Tikka", "Starters", Money.ofMinor(24086), true, 1L);
+            writer.writeTo(file, 0, -1);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length - 20] ^= 1;
+        assertThatThrownBy(() -> CatalogFileCodec.read(ByteBuffer.wrap(flipped)))
+                .hasMessageContaining("checksum");
+        assertThatThrownBy(() -> CatalogFileCodec.read(ByteBuffer.wrap("not a catalog at all, not at all".getBytes())))
+                .hasMessageContaining("Not a menu catalog file");
+        byte[] truncated = Arrays.copyOf(bytes, 20);
+        assertThatThrownBy(() -> CatalogFileCodec.read(ByteBuffer.wrap(truncated)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<Restaurant, List<MenuItem>> read(CatalogFileCodec.Catalog catalog) {
+        Map<Restaurant, List<MenuItem>> read = new LinkedHashMap<>();
+        catalog.forEachRestaurant(read::put);
+        return read;
+    }
+}
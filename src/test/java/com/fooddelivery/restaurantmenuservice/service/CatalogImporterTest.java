@@ -0,0 +1,257 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.config.MongoConfig;
+import com.fooddelivery.restaurantmenuservice.dto.CatalogImportResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The importer against a MongoTemplate stand-in that records the bulk writes: chunking, write order, rejected rows
+ * and the upsert form of each row.
+ */
+class CatalogImporterTest {
+
+    private static final String MENU_HEADER = "item_id,restaurant_id,name,category,price,is_available";
+    private static final String RESTAURANT_HEADER = "restaurant_id,name,cuisine,city,rating,is_open,created_at";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MenuSnapshotStore snapshotStore = mock(MenuSnapshotStore.class);
+    private final MenuSearchService searchService = mock(MenuSearchService.class);
+    private final RestaurantListingService listingService = mock(RestaurantListingService.class);
+    private final List<List<Object>> insertedChunks = new CopyOnWriteArrayList<>();
+    private final List<Query> upsertQueries = new CopyOnWriteArrayList<>();
+    private final List<Update> upserts = new CopyOnWriteArrayList<>();
+    /** Ids the stand-in collection already holds: inserting one fails like a unique index would. */
+    private final Set<String> storedIds = ConcurrentHashMap.newKeySet();
+
+    private CatalogImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        when(mongoTemplate.getCollectionName(MenuItem.class)).thenReturn("menu_items");
+        when(mongoTemplate.getCollectionName(Restaurant.class)).thenReturn("restaurants");
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), any(Class.class)))
+                .thenAnswer(call -> recordingBulk());
+        importer = new CatalogImporter(mongoTemplate, snapshotStore, searchService, listingService, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+    }
+
+    @Test
+    void writesOneBulkInsertPerChunkInFileOrder() throws IOException {
+        CatalogImportResult result = importer.importMenuItems(csv(MENU_HEADER,
+                "i1,r1,Paneer Tikka,Starters,240.86,true",
+                "i2,r1,Dal Makhani,Mains,180,false",
+                "i3,r2,Naan,Breads,40.5,true",
+                "i4,r2,Lassi,Drinks,60,true",
+                "i5,r3,Kulfi,Desserts,75.25,true"), false);
+
+        assertThat(insertedChunks).hasSize(3);
+        assertThat(insertedChunks.stream().flatMap(List::stream).map(item -> ((MenuItem) item).getId()))
+                .containsExactly("i1", "i2", "i3", "i4", "i5");
+        MenuItem first = (MenuItem) insertedChunks.get(0).get(0);
+        assertThat(first.getRestaurantId()).isEqualTo("r1");
+        assertThat(first.getPrice()).isEqualTo(Money.ofMinor(24086));
+        assertThat(((MenuItem) insertedChunks.get(0).get(1)).isAvailable()).isFalse();
+
+        assertThat(result.getCollection()).isEqualTo("menu_items");
+        assertThat(result.getRows()).isEqualTo(5);
+        assertThat(result.getInserted()).isEqualTo(5);
+        assertThat(result.getRejected()).isZero();
+    }
+
+    @Test
+    void rejectsMalformedRowsWithTheirLineNumbersAndImportsTheRest() throws IOException {
+        CatalogImportResult result = importer.importMenuItems(csv(MENU_HEADER,
+                "i1,r1,Paneer Tikka,Starters,240.86,true",
+                "i2,r1,Dal Makhani,Mains,not-a-price,true",
+                "",
+                "i3,r1,Naan,Breads",
+                ",r1,Lassi,Drinks,60,true",
+                "i4,r1,Kulfi,Desserts,75,true"), false);
+
+        assertThat(result.getRows()).isEqualTo(5);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getErrors()).hasSize(3);
+        assertThat(result.getErrors().get(0)).startsWith("line 3:");
+        assertThat(result.getErrors().get(1)).isEqualTo("line 5: expected 6 columns but found 4");
+        assertThat(result.getErrors().get(2)).isEqualTo("line 6: missing id");
+    }
+
+    @Test
+    void reportsOnlyTheFirstTenErrors() throws IOException {
+        List<String> lines = new ArrayList<>(List.of(MENU_HEADER));
+        for (int i = 0; i < 25; i++) {
+            lines.add("broken row " + i);
+        }
+
+        CatalogImportResult result = importer.importMenuItems(csv(lines.toArray(String[]::new)), false);
+
+        assertThat(result.getRejected()).isEqualTo(25);
+        assertThat(result.getErrors()).hasSize(10);
+        assertThat(insertedChunks).isEmpty();
+        verify(snapshotStore, never()).clear();
+    }
+
+    @Test
+    void upsertSetsEveryFieldButTheId() throws IOException {
+        CatalogImportResult result = importer.importRestaurants(csv(RESTAURANT_HEADER,
+                "r1,Spice Route,Indian,Pune,4.5,true,2024-01-15 10:30:00"), true);
+
+        assertThat(upsertQueries).singleElement()
+                .satisfies(query -> assertThat(query.getQueryObject()).isEqualTo(new Document("_id", "r1")));
+        Document set = upserts.get(0).getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("name", "Spice Route").containsEntry("city", "Pune")
+                .containsEntry("rating", 4.5).containsEntry("isOpen", true)
+                .doesNotContainKey("_id");
+        assertThat(result.getUpserted()).isEqualTo(1);
+    }
+
+    @Test
+    void insertedItemsStartAtVersionZero() throws IOException {
+        importer.importMenuItems(csv(MENU_HEADER, "i1,r1,Paneer Tikka,Starters,240.86,true"), false);
+
+        assertThat(((MenuItem) insertedChunks.get(0).get(0)).getVersion()).isZero();
+    }
+
+    @Test
+    void upsertBumpsTheVersionOfTheItemItOverwrites() throws IOException {
+        importer.importMenuItems(csv(MENU_HEADER, "i1,r1,Paneer Tikka,Starters,240.86,true"), true);
+
+        Document update = upserts.get(0).getUpdateObject();
+        assertThat(update.get("$inc", Document.class)).isEqualTo(new Document("version", 1L));
+        assertThat(update.get("$set", Document.class)).containsEntry("price", 24086L).doesNotContainKey("version");
+        // Restaurants have no version
+        importer.importRestaurants(csv(RESTAURANT_HEADER,
+                "r1,Spice Route,Indian,Pune,4.5,true,2024-01-15 10:30:00"), true);
+        assertThat(upserts.get(1).getUpdateObject()).doesNotContainKey("$inc");
+    }
+
+    @Test
+    void rowsRefusedAsDuplicatesAreRejectedAndTheRestStillCount() throws IOException {
+        storedIds.add("i2");
+        storedIds.add("i4");
+
+        CatalogImportResult result = importer.importMenuItems(csv(MENU_HEADER,
+                "i1,r1,Paneer Tikka,Starters,240.86,true",
+                "i2,r1,Dal Makhani,Mains,180,false",
+                "i3,r2,Naan,Breads,40.5,true",
+                "i4,r2,Lassi,Drinks,60,true",
+                "i5,r3,Kulfi,Desserts,75.25,true"), false);
+
+        assertThat(insertedChunks).hasSize(3);
+        assertThat(result.getRows()).isEqualTo(5);
+        assertThat(result.getInserted()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                "line 3: E11000 duplicate key error dup key: { _id: \"i2\" }",
+                "line 5: E11000 duplicate key error dup key: { _id: \"i4\" }");
+        verify(snapshotStore).clear();
+    }
+
+    @Test
+    void dropsCachedReadModelsOnceSomethingWasWritten() throws IOException {
+        importer.importRestaurants(csv(RESTAURANT_HEADER,
+                "r1,Spice Route,Indian,Pune,4.5,true,2024-01-15 10:30:00"), false);
+        verify(snapshotStore).clear();
+        verify(searchService).rebuild();
+        verify(listingService).rebuild();
+
+        importer.importMenuItems(csv(MENU_HEADER, "i1,r1,Naan,Breads,40,true"), false);
+        // Menu items do not change the restaurant listings
+        verify(listingService).rebuild();
+    }
+
+    private BulkOperations recordingBulk() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        List<Object> inserted = new ArrayList<>();
+        List<BulkWriteUpsert> upserted = new ArrayList<>();
+        when(bulk.insert(anyList())).thenAnswer(call -> {
+            List<?> documents = call.getArgument(0);
+            inserted.addAll(documents);
+            insertedChunks.add(List.copyOf(documents));
+            return bulk;
+        });
+        when(bulk.upsert(any(Query.class), any(Update.class))).thenAnswer(call -> {
+            upsertQueries.add(call.getArgument(0));
+            upserts.add(call.getArgument(1));
+            upserted.add(new BulkWriteUpsert(upserted.size(), new BsonString("upserted-" + upserted.size())));
+            return bulk;
+        });
+        when(bulk.execute()).thenAnswer(call -> {
+            List<BulkWriteError> refused = new ArrayList<>();
+            for (int i = 0; i < inserted.size(); i++) {
+                if (inserted.get(i) instanceof MenuItem menuItem && storedIds.contains(menuItem.getId())) {
+                    refused.add(new BulkWriteError(11000, "E11000 duplicate key error dup key: { _id: \""
+                            + menuItem.getId() + "\" }", new BsonDocument(), i));
+                }
+            }
+            BulkWriteResult result = BulkWriteResult.acknowledged(
+                    inserted.size() - refused.size(), 0, 0, 0, upserted, List.of());
+            if (!refused.isEmpty()) {
+                throw new BulkOperationException("Bulk write operation error",
+                        new MongoBulkWriteException(result, refused, null, new ServerAddress()));
+            }
+            return result;
+        });
+        return bulk;
+    }
+
+    private static ByteArrayInputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(true);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,144 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Export and load of the catalog file against a MongoTemplate stand-in that returns documents in the order MongoDB
+ * would: restaurants unsorted, with ObjectId and string {@code _id}s mixed, and menu items by their string
+ * restaurantId.
+ */
+class CatalogSnapshotFileTest {
+
+    private static final String OBJECT_ID_1 = "65a1f0c2e4b0a1b2c3d4e5f6";
+    private static final String OBJECT_ID_2 = "65a1f0c2e4b0a1b2c3d4e5f7";
+
+    @TempDir
+    Path dir;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MenuSnapshotStore snapshotStore = mock(MenuSnapshotStore.class);
+    private final CityPartitioner partitioner = new CityPartitioner(false, "", List.of(), 128);
+
+    @BeforeEach
+    void setUp() {
+        MongoDatabase db = mock(MongoDatabase.class);
+        when(mongoTemplate.getDb()).thenReturn(db);
+        // A standalone server: no operation time
+        when(db.runCommand(any(Document.class))).thenReturn(new Document("ok", 1.0));
+    }
+
+    @Test
+    void writesEveryRestaurantWithItsItemsWhenObjectIdsAndStringIdsAreMixed() throws IOException {
+        // Restaurants in natural order, with string ids and ObjectIds mixed
+        when(mongoTemplate.stream(any(Query.class), eq(Restaurant.class))).thenAnswer(call -> List.of(
+                restaurant("r1", "Pune"), restaurant(OBJECT_ID_2, null), restaurant("no-menu", "Pune"),
+                restaurant("zz-kitchen", "Mumbai"), restaurant(OBJECT_ID_1, "Pune")).stream());
+        // Items sorted by restaurantId, which is always a string: the ObjectId hex sorts before "r1"
+        when(mongoTemplate.stream(any(Query.class), eq(MenuItem.class))).thenAnswer(call -> List.of(
+                item("o1", OBJECT_ID_1), item("o2", OBJECT_ID_1), item("o3", OBJECT_ID_2),
+                item("orphan", "deleted-restaurant"), item("r1-a", "r1"), item("r1-b", "r1"),
+                item("z1", "zz-kitchen")).stream());
+        Path file = dir.resolve("catalog.bin");
+
+        catalogFile(file).export();
+
+        CatalogFileCodec.Catalog catalog = CatalogFileCodec.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+        Map<String, List<String>> menus = new LinkedHashMap<>();
+        catalog.forEachRestaurant((restaurant, menuItems) ->
+                menus.put(restaurant.getId(), menuItems.stream().map(MenuItem::getId).toList()));
+        // Written in item order as each group ends, then the restaurants without items
+        assertThat(menus).containsExactly(
+                Map.entry(OBJECT_ID_1, List.of("o1", "o2")),
+                Map.entry(OBJECT_ID_2, List.of("o3")),
+                Map.entry("r1", List.of("r1-a", "r1-b")),
+                Map.entry("zz-kitchen", List.of("z1")),
+                Map.entry("no-menu", List.of()));
+        assertThat(catalog.getItemCount()).isEqualTo(6);
+        assertThat(catalog.getOperationTime()).isEqualTo(-1);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void installsAFreshFileWithoutAChangeStream() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(dir)) {
+            writer.addRestaurant(OBJECT_ID_1, true, "Pune");
+            writer.addItem("o1", "Paneer Tikka", "Starters", Money.ofMinor(24086), true, 3L);
+            writer.addRestaurant("r1", false, "Mumbai");
+            writer.writeTo(file, System.currentTimeMillis(), -1);
+        }
+        Map<String, List<MenuItem>> installed = new LinkedHashMap<>();
+        when(snapshotStore.install(any(Restaurant.class), anyList(), anyLong())).thenAnswer(call -> {
+            installed.put(call.<Restaurant>getArgument(0).getId(), call.getArgument(1));
+            return null;
+        });
+
+        CatalogSnapshotFile catalogFile = catalogFile(file);
+        catalogFile.load();
+
+        assertThat(installed).containsOnlyKeys(OBJECT_ID_1, "r1");
+        assertThat(installed.get(OBJECT_ID_1)).extracting(MenuItem::getId).containsExactly("o1");
+        assertThat(installed.get("r1")).isEmpty();
+        assertThat(catalogFile.getLoadedOperationTime()).isNull();
+    }
+
+    @Test
+    void ignoresAStaleFileWithoutAChangeStream() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        try (CatalogFileCodec.Writer writer = new CatalogFileCodec.Writer(dir)) {
+            writer.addRestaurant("r1", true, "Pune");
+            writer.writeTo(file, System.currentTimeMillis() - Duration.ofHours(1).toMillis(), 42L);
+        }
+
+        catalogFile(file).load();
+
+        assertThat(mockingDetails(snapshotStore).getInvocations()).isEmpty();
+    }
+
+    private CatalogSnapshotFile catalogFile(Path file) {
+        return new CatalogSnapshotFile(mongoTemplate, snapshotStore, partitioner, file,
+                Duration.ofMinutes(10), Duration.ofMinutes(5), false);
+    }
+
+    private static Restaurant restaurant(String id, String city) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setOpen(true);
+        restaurant.setCity(city);
+        return restaurant;
+    }
+
+    private static MenuItem item(String id, String restaurantId) {
+        return new MenuItem(id, restaurantId, "Item " + id, "Mains", Money.ofMinor(100), true);
+    }
+}
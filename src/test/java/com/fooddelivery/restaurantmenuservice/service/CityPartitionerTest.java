@@ -0,0 +1,130 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** The ring's spread of cities over partitions, and how few cities move when a partition is added or removed. */
+class CityPartitionerTest {
+
+    private static final List<String> CITIES = cities(20_000);
+
+    @Test
+    void spreadsCitiesEvenlyOverThePartitions() {
+        List<String> nodes = List.of("p0", "p1", "p2", "p3", "p4");
+        Map<String, Integer> owned = counts(ring(nodes));
+
+        assertThat(owned).containsOnlyKeys(nodes);
+        double fairShare = (double) CITIES.size() / nodes.size();
+        // 128 points per partition keep each share within a few tens of percent of 1/n
+        assertThat(owned.values()).allSatisfy(count ->
+                assertThat(count / fairShare).isBetween(0.7, 1.3));
+    }
+
+    @Test
+    void addingAPartitionMovesAboutOneNthOfTheCitiesAllToIt() {
+        CityPartitioner before = ring(List.of("p0", "p1", "p2", "p3"));
+        CityPartitioner after = ring(List.of("p0", "p1", "p2", "p3", "p4"));
+
+        int moved = 0;
+        for (String city : CITIES) {
+            String owner = after.ownerOf(city);
+            if (!owner.equals(before.ownerOf(city))) {
+                assertThat(owner).as(city).isEqualTo("p4");
+                moved++;
+            }
+        }
+        assertThat((double) moved / CITIES.size()).isBetween(0.2 * 0.7, 0.2 * 1.3);
+    }
+
+    @Test
+    void removingAPartitionMovesOnlyItsOwnCities() {
+        CityPartitioner before = ring(List.of("p0", "p1", "p2", "p3", "p4"));
+        CityPartitioner after = ring(List.of("p0", "p1", "p3", "p4"));
+
+        for (String city : CITIES) {
+            if (!before.ownerOf(city).equals("p2")) {
+                assertThat(after.ownerOf(city)).as(city).isEqualTo(before.ownerOf(city));
+            }
+        }
+    }
+
+    @Test
+    void everyPodBuildsTheSameRingWhateverTheListOrder() {
+        CityPartitioner listed = ring(List.of("p0", "p1", "p2"));
+        CityPartitioner reordered = new CityPartitioner(true, "p2", List.of(" p2", "p0 ", "p1", "p0"), 128);
+
+        for (String city : CITIES) {
+            assertThat(reordered.ownerOf(city)).as(city).isEqualTo(listed.ownerOf(city));
+        }
+    }
+
+    @Test
+    void comparesCitiesCaseInsensitively() {
+        CityPartitioner partitioner = ring(List.of("p0", "p1", "p2"));
+
+        for (String city : CITIES.subList(0, 500)) {
+            assertThat(partitioner.ownerOf(city.toUpperCase())).isEqualTo(partitioner.ownerOf(city));
+        }
+    }
+
+    @Test
+    void ownsEverythingWhenDisabledAndRestaurantsWithoutACityEverywhere() {
+        CityPartitioner disabled = new CityPartitioner(false, "", List.of(), 128);
+        assertThat(disabled.owns("Pune")).isTrue();
+        assertThat(disabled.getSelf()).isNull();
+        assertThat(disabled.getNodes()).isEmpty();
+
+        CityPartitioner p0 = new CityPartitioner(true, "p0", List.of("p0", "p1"), 128);
+        CityPartitioner p1 = new CityPartitioner(true, "p1", List.of("p0", "p1"), 128);
+        assertThat(p0.owns(null)).isTrue();
+        assertThat(p1.owns(null)).isTrue();
+        for (String city : CITIES.subList(0, 500)) {
+            assertThat(p0.owns(city)).as(city).isNotEqualTo(p1.owns(city));
+        }
+    }
+
+    @Test
+    void selfMustBeOneOfTheNodes() {
+        assertThatThrownBy(() -> new CityPartitioner(true, "p9", List.of("p0", "p1"), 128))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("p9");
+    }
+
+    @Test
+    void everyPartitionNeedsAPointOnTheRing() {
+        for (int virtualNodes : new int[]{0, -1}) {
+            assertThatThrownBy(() -> new CityPartitioner(true, "p0", List.of("p0", "p1"), virtualNodes))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("menu.partition.virtual-nodes (" + virtualNodes + ")");
+        }
+        // Not used when partitioning is off
+        assertThat(new CityPartitioner(false, "", List.of(), 0).owns("Pune")).isTrue();
+    }
+
+    private static CityPartitioner ring(List<String> nodes) {
+        return new CityPartitioner(true, nodes.get(0), nodes, 128);
+    }
+
+    private static Map<String, Integer> counts(CityPartitioner partitioner) {
+        Map<String, Integer> owned = new HashMap<>();
+        for (String city : CITIES) {
+            owned.merge(partitioner.ownerOf(city), 1, Integer::sum);
+        }
+        return owned;
+    }
+
+    private static List<String> cities(int count) {
+        List<String> cities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cities.add("city-" + i);
+        }
+        return cities;
+    }
+}
@@ -0,0 +1,160 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateRequest;
+import com.fooddelivery.restaurantmenuservice.dto.AvailabilityUpdateResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Optimistic locking of single item updates (including the version a menu read hands out), and the count reported
+ * by bulk availability changes.
+ */
+class MenuItemWritesTest {
+
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final MenuSnapshotStore snapshotStore = mock(MenuSnapshotStore.class);
+    private final MenuSearchService searchService = mock(MenuSearchService.class);
+    private final RestaurantMenuService service = new RestaurantMenuService(mock(RestaurantRepository.class),
+            menuItemRepository, snapshotStore, mock(MenuReadCoalescer.class),
+            new ValidationMetrics(new SimpleMeterRegistry()), searchService, mock(RestaurantListingService.class),
+            true, 3, 100);
+
+    @Test
+    void updateAtTheExpectedVersionIsAppliedToTheReadModels() {
+        MenuItem saved = item(6L);
+        when(menuItemRepository.updatePriceAndAvailability("i1", Money.ofMinor(25000), false, 5L)).thenReturn(saved);
+
+        assertThat(service.updateMenuItem("i1", request(Money.ofMinor(25000), false, 5L))).isSameAs(saved);
+        verify(snapshotStore).applyMenuItem(saved);
+        verify(searchService).applyMenuItem(saved);
+        // The write is the only round-trip
+        verify(menuItemRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void staleVersionIsAConflictNamingTheCurrentVersion() {
+        when(menuItemRepository.updatePriceAndAvailability("i1", null, true, 5L)).thenReturn(null);
+        when(menuItemRepository.findById("i1")).thenReturn(Optional.of(item(7L)));
+
+        assertThatThrownBy(() -> service.updateMenuItem("i1", request(null, true, 5L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(e.getReason()).contains("expected version 5", "current version is 7");
+                });
+        verify(snapshotStore, never()).applyMenuItem(any());
+    }
+
+    @Test
+    void missingItemIsNotFound() {
+        when(menuItemRepository.updatePriceAndAvailability("i1", null, true, null)).thenReturn(null);
+        when(menuItemRepository.findById("i1")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.updateMenuItem("i1", request(null, true, null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void bulkAvailabilityCountsWhatAFailedAttemptChanged() {
+        List<String> itemIds = List.of("i1", "i2", "i3");
+        ArgumentCaptor<String> changeIds = ArgumentCaptor.forClass(String.class);
+        when(menuItemRepository.updateAvailability(eq("r1"), eq(itemIds), eq(false), changeIds.capture()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(1L);
+        when(menuItemRepository.countAvailabilityChange(eq("r1"), eq(itemIds), anyString())).thenReturn(3L);
+
+        AvailabilityUpdateResult result = service.updateAvailability("r1", new AvailabilityUpdateRequest(itemIds, false));
+
+        assertThat(result.getUpdated()).isEqualTo(3);
+        // Both attempts and the count use the same change id
+        assertThat(changeIds.getAllValues()).hasSize(2).containsOnly(changeIds.getValue());
+        verify(menuItemRepository).countAvailabilityChange("r1", itemIds, changeIds.getValue());
+        verify(snapshotStore).applyAvailability("r1", itemIds, false);
+    }
+
+    @Test
+    void bulkAvailabilityWithoutRetryNeedsNoCount() {
+        List<String> itemIds = List.of("i1", "i2");
+        when(menuItemRepository.updateAvailability(eq("r1"), eq(itemIds), anyBoolean(), anyString())).thenReturn(2L);
+
+        assertThat(service.updateAvailability("r1", new AvailabilityUpdateRequest(itemIds, true)).getUpdated())
+                .isEqualTo(2);
+        verify(menuItemRepository, never()).countAvailabilityChange(anyString(), any(), anyString());
+    }
+
+    @Test
+    void menuReadCarriesTheVersionToUpdateAt() {
+        RestaurantRepository restaurants = mock(RestaurantRepository.class);
+        MenuSnapshotStore store = new MenuSnapshotStore(restaurants, menuItemRepository,
+                new CityPartitioner(false, "", List.of(), 128), new SimpleMeterRegistry(), Duration.ofMinutes(5));
+        RestaurantMenuService snapshotService = new RestaurantMenuService(restaurants, menuItemRepository, store,
+                mock(MenuReadCoalescer.class), new ValidationMetrics(new SimpleMeterRegistry()), searchService,
+                mock(RestaurantListingService.class), true, 3, 100);
+        MenuItem unversioned = new MenuItem("i2", "r1", "Naan", "Breads", Money.ofMinor(4000), true);
+        when(restaurants.findStatusById("r1")).thenReturn(Optional.of(new RestaurantStatusView("r1", true, "Pune")));
+        when(menuItemRepository.findMenuByRestaurantId("r1")).thenReturn(List.of(item(5L), unversioned));
+
+        RestaurantSnapshot before = snapshotService.getRestaurantMenuSnapshot("r1");
+        MenuItem read = before.toMenuItems().get(0);
+        assertThat(read.getVersion()).isEqualTo(5L);
+        assertThat(before.toMenuItems().get(1).getVersion()).isNull();
+
+        when(menuItemRepository.updatePriceAndAvailability("i1", Money.ofMinor(26000), true, 5L)).thenReturn(item(6L));
+        snapshotService.updateMenuItem("i1", request(Money.ofMinor(26000), true, read.getVersion()));
+
+        RestaurantSnapshot after = snapshotService.getRestaurantMenuSnapshot("r1");
+        assertThat(after.toMenuItems().get(0).getVersion()).isEqualTo(6L);
+        assertThat(after.getMenuETag()).isNotEqualTo(before.getMenuETag());
+
+        // A bulk change bumps only the items it changes, as the update in MongoDB does
+        store.applyAvailability("r1", List.of("i1", "i2"), false);
+        assertThat(snapshotService.getRestaurantMenuSnapshot("r1").toMenuItems())
+                .extracting(MenuItem::getVersion).containsExactly(6L, 1L);
+    }
+
+    @Test
+    void versionAloneChangesTheMenuETag() {
+        RestaurantStatusView restaurant = new RestaurantStatusView("r1", true, "Pune");
+
+        assertThat(RestaurantSnapshot.of(restaurant, List.of(item(5L)), 1).getMenuETag())
+                .isNotEqualTo(RestaurantSnapshot.of(restaurant, List.of(item(6L)), 1).getMenuETag());
+    }
+
+    private static MenuItem request(Money price, boolean available, Long version) {
+        MenuItem request = new MenuItem();
+        request.setPrice(price);
+        request.setAvailable(available);
+        request.setVersion(version);
+        return request;
+    }
+
+    private static MenuItem item(long version) {
+        MenuItem item = new MenuItem("i1", "r1", "Paneer Tikka", "Starters", Money.ofMinor(25000), false);
+        item.setVersion(version);
+        return item;
+    }
+}
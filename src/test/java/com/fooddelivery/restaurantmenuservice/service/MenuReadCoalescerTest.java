@@ -0,0 +1,226 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.MenuItemPriceView;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import com.fooddelivery.restaurantmenuservice.repository.MenuItemRepository;
+import com.fooddelivery.restaurantmenuservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.fooddelivery.restaurantmenuservice.service.SingleFlightTest.awaitCondition;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Single-flight status reads and per-restaurant item batches. The batch window is an hour, so a batch closes only
+ * when the test wakes its leader: the leader is known to be waiting once it is parked, and followers once the
+ * coalesced counter has counted them.
+ */
+class MenuReadCoalescerTest {
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<List<String>> queries = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void statusOfNoRestaurantIsEmptyWithoutAQuery() {
+        assertThat(coalescer(Duration.ZERO).findStatus(null)).isEmpty();
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void concurrentStatusReadsShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RestaurantStatusView status = new RestaurantStatusView("r1", true, "Pune");
+        when(restaurantRepository.findStatusById("r1")).thenAnswer(call -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(status);
+        });
+        MenuReadCoalescer coalescer = coalescer(Duration.ZERO);
+
+        List<Future<Optional<RestaurantStatusView>>> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(executor.submit(() -> coalescer.findStatus("r1")));
+        }
+        awaitCondition(() -> coalesced("status") == 3);
+        release.countDown();
+
+        for (Future<Optional<RestaurantStatusView>> read : reads) {
+            assertThat(read.get(5, TimeUnit.SECONDS)).contains(status);
+        }
+        verify(restaurantRepository, times(1)).findStatusById("r1");
+    }
+
+    @Test
+    void zeroWindowQueriesEachLookupDirectly() {
+        recordItemQueries("r1");
+        MenuReadCoalescer coalescer = coalescer(Duration.ZERO);
+
+        assertThat(coalescer.findItems("r1", List.of("a", "b"))).extracting(MenuItemPriceView::id)
+                .containsExactly("a", "b");
+        assertThat(coalescer.findItems("r1", List.of("c"))).extracting(MenuItemPriceView::id).containsExactly("c");
+        assertThat(queries).containsExactly(List.of("a", "b"), List.of("c"));
+    }
+
+    @Test
+    void lookupsWithinTheWindowShareOneQueryAndGetOnlyTheirOwnItems() throws Exception {
+        recordItemQueries("r1");
+        MenuReadCoalescer coalescer = coalescer(Duration.ofHours(1));
+
+        AtomicReference<Thread> leaderThread = new AtomicReference<>();
+        Future<List<MenuItemPriceView>> leader = executor.submit(() -> {
+            leaderThread.set(Thread.currentThread());
+            return coalescer.findItems("r1", List.of("a", "b"));
+        });
+        awaitParked(leaderThread);
+        Future<List<MenuItemPriceView>> repeated = executor.submit(() -> coalescer.findItems("r1", List.of("c", "a", "c")));
+        Future<List<MenuItemPriceView>> unknown = executor.submit(() -> coalescer.findItems("r1", List.of("d", "missing")));
+        awaitCondition(() -> coalesced("items") == 2);
+        LockSupport.unpark(leaderThread.get());
+
+        assertThat(ids(leader)).containsExactly("a", "b");
+        assertThat(ids(repeated)).containsExactly("c", "a");
+        assertThat(ids(unknown)).containsExactly("d");
+        // Followers join in whichever order they are scheduled
+        assertThat(queries).singleElement().satisfies(itemIds ->
+                assertThat(itemIds).containsExactlyInAnyOrder("a", "b", "c", "d", "missing"));
+    }
+
+    @Test
+    void eachRestaurantAndEachWindowGetsItsOwnBatch() throws Exception {
+        recordItemQueries("r1");
+        MenuReadCoalescer coalescer = coalescer(Duration.ofHours(1));
+
+        AtomicReference<Thread> r1Thread = new AtomicReference<>();
+        AtomicReference<Thread> r2Thread = new AtomicReference<>();
+        Future<List<MenuItemPriceView>> r1 = executor.submit(() -> {
+            r1Thread.set(Thread.currentThread());
+            return coalescer.findItems("r1", List.of("a"));
+        });
+        Future<List<MenuItemPriceView>> r2 = executor.submit(() -> {
+            r2Thread.set(Thread.currentThread());
+            return coalescer.findItems("r2", List.of("a"));
+        });
+        awaitParked(r1Thread);
+        awaitParked(r2Thread);
+        LockSupport.unpark(r1Thread.get());
+        LockSupport.unpark(r2Thread.get());
+
+        assertThat(ids(r1)).containsExactly("a");
+        // The items of r1 are not items of r2
+        assertThat(ids(r2)).isEmpty();
+        assertThat(coalesced("items")).isZero();
+
+        AtomicReference<Thread> nextThread = new AtomicReference<>();
+        Future<List<MenuItemPriceView>> next = executor.submit(() -> {
+            nextThread.set(Thread.currentThread());
+            return coalescer.findItems("r1", List.of("b"));
+        });
+        awaitParked(nextThread);
+        LockSupport.unpark(nextThread.get());
+
+        assertThat(ids(next)).containsExactly("b");
+        verify(menuItemRepository, times(3)).findPriceViewsByIdInAndRestaurantId(anyCollection(), any());
+    }
+
+    @Test
+    void failedBatchQueryFailsEveryLookupInIt() throws Exception {
+        IllegalStateException failure = new IllegalStateException("MongoDB timed out");
+        when(menuItemRepository.findPriceViewsByIdInAndRestaurantId(anyCollection(), eq("r1"))).thenThrow(failure);
+        MenuReadCoalescer coalescer = coalescer(Duration.ofHours(1));
+
+        AtomicReference<Thread> leaderThread = new AtomicReference<>();
+        Future<List<MenuItemPriceView>> leader = executor.submit(() -> {
+            leaderThread.set(Thread.currentThread());
+            return coalescer.findItems("r1", List.of("a"));
+        });
+        awaitParked(leaderThread);
+        Future<List<MenuItemPriceView>> follower = executor.submit(() -> coalescer.findItems("r1", List.of("b")));
+        awaitCondition(() -> coalesced("items") == 1);
+        LockSupport.unpark(leaderThread.get());
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+
+    @Test
+    void errorInTheBatchQueryStillReleasesItsFollowers() throws Exception {
+        OutOfMemoryError failure = new OutOfMemoryError("decoding the reply");
+        when(menuItemRepository.findPriceViewsByIdInAndRestaurantId(anyCollection(), eq("r1"))).thenThrow(failure);
+        MenuReadCoalescer coalescer = coalescer(Duration.ofHours(1));
+
+        AtomicReference<Thread> leaderThread = new AtomicReference<>();
+        Future<List<MenuItemPriceView>> leader = executor.submit(() -> {
+            leaderThread.set(Thread.currentThread());
+            return coalescer.findItems("r1", List.of("a"));
+        });
+        awaitParked(leaderThread);
+        Future<List<MenuItemPriceView>> follower = executor.submit(() -> coalescer.findItems("r1", List.of("b")));
+        awaitCondition(() -> coalesced("items") == 1);
+        LockSupport.unpark(leaderThread.get());
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+
+    private MenuReadCoalescer coalescer(Duration batchWindow) {
+        return new MenuReadCoalescer(restaurantRepository, menuItemRepository, registry, batchWindow);
+    }
+
+    /** Answers item lookups as if {@code restaurantId} had every item asked for except "missing". */
+    private void recordItemQueries(String restaurantId) {
+        when(menuItemRepository.findPriceViewsByIdInAndRestaurantId(anyCollection(), any())).thenAnswer(call -> {
+            Collection<String> itemIds = call.getArgument(0);
+            queries.add(List.copyOf(itemIds));
+            if (!restaurantId.equals(call.getArgument(1))) {
+                return List.of();
+            }
+            return itemIds.stream().filter(id -> !id.equals("missing"))
+                    .map(id -> new MenuItemPriceView(id, restaurantId, "Item " + id, Money.ofMinor(100), true))
+                    .toList();
+        });
+    }
+
+    private static void awaitParked(AtomicReference<Thread> thread) throws InterruptedException {
+        awaitCondition(() -> thread.get() != null && thread.get().getState() == Thread.State.TIMED_WAITING);
+    }
+
+    private static List<String> ids(Future<List<MenuItemPriceView>> lookup) throws Exception {
+        return lookup.get(5, TimeUnit.SECONDS).stream().map(MenuItemPriceView::id).toList();
+    }
+
+    private double coalesced(String lookup) {
+        return registry.get("menu.read.coalesced").tag("lookup", lookup).counter().count();
+    }
+}
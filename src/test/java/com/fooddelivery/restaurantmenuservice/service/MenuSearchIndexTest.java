@@ -0,0 +1,322 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchHit;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchRequest;
+import com.fooddelivery.restaurantmenuservice.dto.MenuSearchResult;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the inverted index against a scan of plain maps applying the same matching rules, over random sequences
+ * of item and restaurant writes, plus the ranking and facet rules a scan does not model.
+ */
+class MenuSearchIndexTest {
+
+    private static final List<BigDecimal> BUCKETS = List.of(new BigDecimal("100"), new BigDecimal("200"),
+            new BigDecimal("500"));
+    private static final String[] WORDS = {"Paneer", "Tikka", "Chicken", "Chickpea", "Biryani", "Dal", "Naan",
+            "Masala", "Dosa", "Idli", "Lassi", "Kulfi"};
+    private static final String[] CATEGORIES = {"Mains", "Starters", "Breads", "Desserts", null};
+    private static final String[] CUISINES = {"Indian", "Italian", "Chinese", null};
+    private static final String[] CITIES = {"Pune", "Mumbai", "Delhi", null};
+
+    @Test
+    void matchesAScanOfTheCatalogAcrossRandomWrites() {
+        Random random = new Random(7);
+        MenuSearchIndex index = new MenuSearchIndex(BUCKETS);
+        Map<String, Restaurant> restaurants = new HashMap<>();
+        Map<String, MenuItem> items = new HashMap<>();
+        int nonEmpty = 0;
+
+        for (int round = 0; round < 3000; round++) {
+            int op = random.nextInt(100);
+            String restaurantId = "r" + random.nextInt(12);
+            if (op < 55) {
+                MenuItem item = new MenuItem("i" + random.nextInt(150), restaurantId,
+                        pick(random, WORDS) + (random.nextBoolean() ? " " + pick(random, WORDS) : ""),
+                        pick(random, CATEGORIES),
+                        random.nextInt(10) == 0 ? null : Money.ofMinor(random.nextInt(60_000)), random.nextInt(4) > 0);
+                index.putItem(item);
+                items.put(item.getId(), item);
+            } else if (op < 70) {
+                Restaurant restaurant = new Restaurant();
+                restaurant.setId(restaurantId);
+                restaurant.setName("Restaurant " + restaurantId);
+                restaurant.setCuisine(pick(random, CUISINES));
+                restaurant.setCity(pick(random, CITIES));
+                restaurant.setOpen(random.nextBoolean());
+                restaurant.setRating(random.nextInt(3) == 0 ? null : random.nextInt(50) / 10.0);
+                index.putRestaurant(restaurant);
+                restaurants.put(restaurantId, restaurant);
+            } else if (op < 80) {
+                String itemId = "i" + random.nextInt(150);
+                index.removeItem(itemId);
+                items.remove(itemId);
+            } else if (op < 95) {
+                List<String> itemIds = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    itemIds.add("i" + random.nextInt(150));
+                }
+                boolean available = random.nextBoolean();
+                index.setAvailability(restaurantId, itemIds, available);
+                for (String itemId : itemIds) {
+                    MenuItem item = items.get(itemId);
+                    if (item != null && item.getRestaurantId().equals(restaurantId)) {
+                        item.setAvailable(available);
+                    }
+                }
+            } else {
+                index.removeRestaurant(restaurantId);
+                items.values().removeIf(item -> item.getRestaurantId().equals(restaurantId));
+            }
+
+            for (int query = 0; query < 3; query++) {
+                MenuSearchRequest request = randomRequest(random);
+                List<MenuItem> expected = items.values().stream()
+                        .filter(item -> matches(item, restaurants.get(item.getRestaurantId()), request))
+                        .toList();
+                MenuSearchResult result = index.search(request);
+
+                assertThat(result.getTotal()).as("round %d", round).isEqualTo(expected.size());
+                assertThat(result.getHits()).extracting(MenuSearchHit::getItemId)
+                        .containsExactlyInAnyOrderElementsOf(expected.stream().map(MenuItem::getId).toList());
+                assertThat(result.getHits()).extracting(MenuSearchHit::getScore)
+                        .isSortedAccordingTo((a, b) -> Double.compare(b, a));
+                assertThat(result.getCategories()).isEqualTo(categoryCounts(expected));
+                assertThat(result.getPrices()).extracting(MenuSearchResult.PriceBucket::getCount)
+                        .isEqualTo(priceCounts(expected));
+                if (!expected.isEmpty()) {
+                    nonEmpty++;
+                }
+            }
+        }
+        assertThat(index.size()).isEqualTo(items.size());
+        // The queries must find something often enough to mean anything
+        assertThat(nonEmpty).isGreaterThan(2000);
+    }
+
+    @Test
+    void nameMatchesRankAboveCategoryMatches() {
+        MenuSearchIndex index = new MenuSearchIndex(BUCKETS);
+        index.putItem(new MenuItem("in-category", "r1", "Garlic Kulcha", "Naan", Money.ofMinor(5000), true));
+        index.putItem(new MenuItem("in-name", "r1", "Butter Naan", "Breads", Money.ofMinor(5000), true));
+
+        assertThat(index.search(request("naan")).getHits()).extracting(MenuSearchHit::getItemId)
+                .containsExactly("in-name", "in-category");
+    }
+
+    @Test
+    void equalScoresRankOrderableItemsThenRestaurantRatingFirst() {
+        MenuSearchIndex index = new MenuSearchIndex(BUCKETS);
+        index.putRestaurant(restaurant("open-low", true, 3.0));
+        index.putRestaurant(restaurant("open-high", true, 4.5));
+        index.putRestaurant(restaurant("closed-top", false, 5.0));
+        index.putItem(new MenuItem("a", "open-low", "Dal", "Mains", Money.ofMinor(100), true));
+        index.putItem(new MenuItem("b", "open-high", "Dal", "Mains", Money.ofMinor(100), true));
+        index.putItem(new MenuItem("c", "closed-top", "Dal", "Mains", Money.ofMinor(100), true));
+        index.putItem(new MenuItem("d", "open-high", "Dal", "Mains", Money.ofMinor(100), false));
+
+        assertThat(index.search(request("dal")).getHits()).extracting(MenuSearchHit::getItemId)
+                .containsExactly("b", "a", "c", "d");
+
+        // Closing a restaurant re-ranks its items without re-indexing them
+        index.putRestaurant(restaurant("open-high", false, 4.5));
+        assertThat(index.search(request("dal")).getHits()).extracting(MenuSearchHit::getItemId)
+                .containsExactly("a", "c", "b", "d");
+    }
+
+    @Test
+    void priceFilterBoundsAreInclusiveAndExcludeItemsWithoutAPrice() {
+        MenuSearchIndex index = new MenuSearchIndex(BUCKETS);
+        index.putItem(new MenuItem("cheap", "r1", "Dal", "Mains", Money.ofMinor(9999), true));
+        index.putItem(new MenuItem("edge", "r1", "Dal", "Mains", Money.ofMinor(10000), true));
+        index.putItem(new MenuItem("dear", "r1", "Dal", "Mains", Money.ofMinor(50000), true));
+        index.putItem(new MenuItem("unpriced", "r1", "Dal", "Mains", null, true));
+
+        MenuSearchRequest request = request("dal");
+        request.setMinPrice(new BigDecimal("100"));
+        request.setMaxPrice(new BigDecimal("500"));
+        assertThat(index.search(request).getHits()).extracting(MenuSearchHit::getItemId)
+                .containsExactlyInAnyOrder("edge", "dear");
+
+        // The widest bounds the search endpoint accepts
+        request.setMinPrice(new BigDecimal("-92233720368547757"));
+        request.setMaxPrice(new BigDecimal("92233720368547757"));
+        assertThat(index.search(request).getTotal()).isEqualTo(3);
+
+        MenuSearchResult all = index.search(request("dal"));
+        assertThat(all.getPrices()).extracting(MenuSearchResult.PriceBucket::getCount).containsExactly(1L, 1L, 0L, 1L);
+        assertThat(all.getPrices().get(3).getTo()).isNull();
+    }
+
+    @Test
+    void lastWordMatchesAsAPrefixUnlessFollowedBySpace() {
+        MenuSearchIndex index = new MenuSearchIndex(BUCKETS);
+        index.putItem(new MenuItem("i1", "r1", "Chicken Biryani", "Mains", Money.ofMinor(100), true));
+        index.putItem(new MenuItem("i2", "r1", "Chickpea Masala", "Mains", Money.ofMinor(100), true));
+
+        assertThat(index.search(request("chick")).getTotal()).isEqualTo(2);
+        assertThat(index.search(request("chick ")).getTotal()).isZero();
+        assertThat(index.search(request("masala chick")).getHits()).extracting(MenuSearchHit::getItemId)
+                .containsExactly("i2");
+    }
+
+    @Test
+    void compactionIsOnlyWorthItOnceManyDocumentsAreDead() {
+        MenuSearchIndex index = new MenuSearchIndex(BUCKETS);
+        for (int i = 0; i < 20_000; i++) {
+            index.putItem(new MenuItem("i" + i, "r1", "Dal", "Mains", Money.ofMinor(100), true));
+        }
+        for (int i = 0; i < 9_999; i++) {
+            index.removeItem("i" + i);
+        }
+        assertThat(index.needsCompaction()).isFalse();
+        index.removeItem("i9999");
+        assertThat(index.needsCompaction()).isTrue();
+        assertThat(index.size()).isEqualTo(10_000);
+    }
+
+    private static boolean matches(MenuItem item, Restaurant restaurant, MenuSearchRequest request) {
+        String cuisine = restaurant == null ? null : restaurant.getCuisine();
+        String city = restaurant == null ? null : restaurant.getCity();
+        String text = request.getQ() == null ? "" : request.getQ();
+        List<String> words = new ArrayList<>(MenuSearchIndex.tokens(text));
+        boolean prefixLast = !text.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        Set<String> tokens = MenuSearchIndex.tokens(item.getName() + " " + item.getCategory() + " " + cuisine + " " + city);
+        tokens.remove("null");
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            boolean found = prefixLast && i == words.size() - 1
+                    ? tokens.stream().anyMatch(token -> token.startsWith(word))
+                    : tokens.contains(word);
+            if (!found) {
+                return false;
+            }
+        }
+        if (!filter(request.getCategory(), item.getCategory()) || !filter(request.getCuisine(), cuisine)
+                || !filter(request.getCity(), city) || !filter(request.getRestaurantId(), item.getRestaurantId())) {
+            return false;
+        }
+        if (request.getAvailable() != null && request.getAvailable() != item.isAvailable()) {
+            return false;
+        }
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            if (item.getPrice() == null) {
+                return false;
+            }
+            if (request.getMinPrice() != null && item.getPrice().compareTo(Money.of(request.getMinPrice())) < 0) {
+                return false;
+            }
+            return request.getMaxPrice() == null || item.getPrice().compareTo(Money.of(request.getMaxPrice())) <= 0;
+        }
+        return true;
+    }
+
+    private static boolean filter(String wanted, String value) {
+        return wanted == null || (value != null && value.toLowerCase(Locale.ROOT).equals(wanted.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    private static Map<String, Long> categoryCounts(List<MenuItem> items) {
+        Map<String, Long> counts = new TreeMap<>();
+        items.stream().filter(item -> item.getCategory() != null)
+                .forEach(item -> counts.merge(item.getCategory(), 1L, Long::sum));
+        return counts;
+    }
+
+    private static List<Long> priceCounts(List<MenuItem> items) {
+        long[] counts = new long[BUCKETS.size() + 1];
+        for (MenuItem item : items) {
+            if (item.getPrice() != null) {
+                int bucket = 0;
+                while (bucket < BUCKETS.size() && item.getPrice().compareTo(Money.of(BUCKETS.get(bucket))) >= 0) {
+                    bucket++;
+                }
+                counts[bucket]++;
+            }
+        }
+        List<Long> result = new ArrayList<>();
+        for (long count : counts) {
+            result.add(count);
+        }
+        return result;
+    }
+
+    private static MenuSearchRequest randomRequest(Random random) {
+        MenuSearchRequest request = new MenuSearchRequest();
+        request.setLimit(1000);
+        int words = random.nextInt(3);
+        StringBuilder q = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = random.nextInt(4) == 0 ? pick(random, CITIES) : pick(random, WORDS);
+            if (word == null) {
+                word = "Mains";
+            }
+            if (i == words - 1 && random.nextBoolean()) {
+                word = word.substring(0, 1 + random.nextInt(word.length()));
+            }
+            q.append(i == 0 ? "" : " ").append(random.nextBoolean() ? word : word.toLowerCase(Locale.ROOT));
+        }
+        if (random.nextInt(5) == 0) {
+            q.append(' ');
+        }
+        request.setQ(q.length() == 0 && random.nextBoolean() ? null : q.toString());
+        if (random.nextInt(4) == 0) {
+            request.setCategory(pick(random, CATEGORIES));
+        }
+        if (random.nextInt(5) == 0) {
+            request.setCuisine(pick(random, CUISINES));
+        }
+        if (random.nextInt(4) == 0) {
+            String city = pick(random, CITIES);
+            request.setCity(city == null ? null : " " + city.toUpperCase(Locale.ROOT));
+        }
+        if (random.nextInt(8) == 0) {
+            request.setRestaurantId("r" + random.nextInt(12));
+        }
+        if (random.nextInt(4) == 0) {
+            request.setAvailable(random.nextBoolean());
+        }
+        if (random.nextInt(4) == 0) {
+            request.setMinPrice(BigDecimal.valueOf(random.nextInt(30_000), 2));
+        }
+        if (random.nextInt(4) == 0) {
+            request.setMaxPrice(BigDecimal.valueOf(random.nextInt(60_000), 2));
+        }
+        return request;
+    }
+
+    private static MenuSearchRequest request(String q) {
+        MenuSearchRequest request = new MenuSearchRequest();
+        request.setQ(q);
+        return request;
+    }
+
+    private static Restaurant restaurant(String id, boolean open, Double rating) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName("Restaurant " + id);
+        restaurant.setCuisine("Indian");
+        restaurant.setCity("Pune");
+        restaurant.setOpen(open);
+        restaurant.setRating(rating);
+        return restaurant;
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
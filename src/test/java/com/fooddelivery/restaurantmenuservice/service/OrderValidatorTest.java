@@ -0,0 +1,168 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationRequest;
+import com.fooddelivery.restaurantmenuservice.dto.OrderValidationResponse;
+import com.fooddelivery.restaurantmenuservice.dto.RejectionCode;
+import com.fooddelivery.restaurantmenuservice.model.MenuItem;
+import com.fooddelivery.restaurantmenuservice.model.Money;
+import com.fooddelivery.restaurantmenuservice.model.RestaurantStatusView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the index-based validator against a straightforward implementation of the same rules over maps and sets,
+ * on random menus and orders, including repeated and unknown item ids.
+ */
+class OrderValidatorTest {
+
+    private final ValidationMetrics metrics = new ValidationMetrics(new SimpleMeterRegistry());
+
+    @Test
+    void matchesTheReferenceRulesOnRandomOrders() {
+        Random random = new Random(42);
+        int valid = 0;
+        for (int round = 0; round < 5000; round++) {
+            int menuSize = 1 + random.nextInt(random.nextInt(10) == 0 ? 400 : 40);
+            List<MenuItem> menu = new ArrayList<>(menuSize);
+            for (int i = 0; i < menuSize; i++) {
+                menu.add(new MenuItem("i" + i, "R", "Item " + i, "Mains",
+                        Money.ofMinor(random.nextInt(50_000)), random.nextInt(15) > 0));
+            }
+            RestaurantSnapshot snapshot = RestaurantSnapshot.of(
+                    new RestaurantStatusView("R", random.nextInt(10) > 0, "Pune"), menu, round);
+
+            int count = random.nextInt(random.nextInt(10) == 0 ? 200 : 12);
+            List<OrderValidationRequest.ItemRequest> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                // Now and then an id that is not on the menu
+                int item = random.nextInt(menuSize + (random.nextInt(20) == 0 ? 5 : 0));
+                items.add(new OrderValidationRequest.ItemRequest("i" + item, 1 + random.nextInt(5)));
+            }
+            OrderValidationRequest request = new OrderValidationRequest("R", items);
+
+            OrderValidationResponse expected = reference(snapshot.isOpen(), menu, request);
+            assertThat(OrderValidator.validate(snapshot, request, metrics)).as("round %d", round).isEqualTo(expected);
+            if (expected.isValid()) {
+                valid++;
+            }
+        }
+        // The orders must exercise both outcomes, not only rejections
+        assertThat(valid).isGreaterThan(500);
+    }
+
+    @Test
+    void repeatedItemIdIsRejectedAsMissing() {
+        RestaurantSnapshot snapshot = RestaurantSnapshot.of(new RestaurantStatusView("R", true, "Pune"),
+                List.of(new MenuItem("a", "R", "A", "Mains", Money.ofMinor(100), true)), 1);
+        OrderValidationRequest request = new OrderValidationRequest("R", List.of(
+                new OrderValidationRequest.ItemRequest("a", 1), new OrderValidationRequest.ItemRequest("a", 2)));
+
+        assertThat(OrderValidator.validate(snapshot, request, metrics).getRejectionCode())
+                .isEqualTo(RejectionCode.ITEM_NOT_FOUND);
+    }
+
+    @Test
+    void concurrentCallsDoNotShareState() throws Exception {
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            menu.add(new MenuItem("i" + i, "R", "Item " + i, "Mains", Money.ofMinor(100 + i), true));
+        }
+        RestaurantSnapshot snapshot = RestaurantSnapshot.of(new RestaurantStatusView("R", true, "Pune"), menu, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                int offset = task * 10;
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < 2000; round++) {
+                        List<OrderValidationRequest.ItemRequest> items = new ArrayList<>();
+                        for (int i = 0; i < 10; i++) {
+                            items.add(new OrderValidationRequest.ItemRequest("i" + (offset + i), 1));
+                        }
+                        if (!OrderValidator.validate(snapshot, new OrderValidationRequest("R", items), metrics).isValid()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void orderWithoutItemsIsABadRequest() {
+        assertThatThrownBy(() -> OrderValidator.checkItems(new OrderValidationRequest("R", null), "The order"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400");
+        List<OrderValidationRequest.ItemRequest> withNull = new ArrayList<>();
+        withNull.add(null);
+        assertThatThrownBy(() -> OrderValidator.checkItems(new OrderValidationRequest("R", withNull), "The order"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void quantityOutsideTheRangeIsABadRequestBeforeAnythingIsPriced() {
+        for (int quantity : new int[]{0, -1, OrderValidator.MAX_QUANTITY + 1, Integer.MAX_VALUE}) {
+            OrderValidationRequest request = new OrderValidationRequest("R",
+                    List.of(new OrderValidationRequest.ItemRequest("i1", 1), new OrderValidationRequest.ItemRequest("i2", quantity)));
+            assertThatThrownBy(() -> OrderValidator.checkItems(request, "Order 2 of the batch"))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("400")
+                    .hasMessageContaining("Order 2 of the batch asks for " + quantity + " of item 'i2'");
+        }
+        OrderValidator.checkItems(new OrderValidationRequest("R",
+                List.of(new OrderValidationRequest.ItemRequest("i1", OrderValidator.MAX_QUANTITY))), "The order");
+    }
+
+    /** The rules spelled out with collections, in the order the validator applies them. */
+    private static OrderValidationResponse reference(boolean open, List<MenuItem> menu, OrderValidationRequest request) {
+        if (!open) {
+            return rejected(RejectionCode.RESTAURANT_CLOSED,
+                    "Reject orders if restaurant is closed. Restaurant is currently closed and cannot accept orders.");
+        }
+        Map<String, MenuItem> byId = new HashMap<>();
+        menu.forEach(menuItem -> byId.put(menuItem.getId(), menuItem));
+        Set<String> requested = new HashSet<>();
+        for (OrderValidationRequest.ItemRequest item : request.getItems()) {
+            if (!byId.containsKey(item.getItemId()) || !requested.add(item.getItemId())) {
+                return rejected(RejectionCode.ITEM_NOT_FOUND, "One or more requested items do not exist on the menu.");
+            }
+        }
+        Money total = Money.ZERO;
+        List<OrderValidationResponse.ValidatedItem> validated = new ArrayList<>();
+        for (OrderValidationRequest.ItemRequest item : request.getItems()) {
+            MenuItem menuItem = byId.get(item.getItemId());
+            if (!menuItem.isAvailable()) {
+                return rejected(RejectionCode.ITEM_UNAVAILABLE, "Reject orders if item not available. Item '"
+                        + menuItem.getName() + "' is currently unavailable.");
+            }
+            total = total.plus(menuItem.getPrice().times(item.getQuantity()));
+            validated.add(new OrderValidationResponse.ValidatedItem(menuItem.getId(), menuItem.getPrice(), item.getQuantity()));
+        }
+        return new OrderValidationResponse(true, null, "Pune", total, validated);
+    }
+
+    private static OrderValidationResponse rejected(RejectionCode code, String reason) {
+        return new OrderValidationResponse(false, reason, code, null, null, null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.fooddelivery.restaurantmenuservice.service.SingleFlightTest.awaitCondition;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Builds, replay of the changes made during a build, and failed builds, with a list of strings as the index. */
+class RebuildableIndexTest {
+
+    private final List<RebuildableIndex<List<String>>> indexes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        indexes.forEach(RebuildableIndex::shutdown);
+    }
+
+    @Test
+    void changesMadeDuringAScanReachTheNewIndex() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RebuildableIndex<List<String>> index = index(true, () -> {
+            scanning.countDown();
+            await(release);
+            return new ArrayList<>(List.of("scanned"));
+        });
+
+        index.rebuild();
+        assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+        index.apply(list -> list.add("written"));
+        assertThat(index.current()).isNull();
+        release.countDown();
+
+        awaitCondition(() -> index.current() != null);
+        assertThat(index.current()).containsExactly("scanned", "written");
+        assertThat(index.size()).isEqualTo(2);
+
+        // Once built, changes go to the current index only
+        index.apply(list -> list.add("later"));
+        assertThat(index.current()).containsExactly("scanned", "written", "later");
+    }
+
+    @Test
+    void failedBuildKeepsTheCurrentIndex() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        RebuildableIndex<List<String>> index = index(true, () -> {
+            if (builds.incrementAndGet() > 1) {
+                throw new IllegalStateException("MongoDB unreachable");
+            }
+            return new ArrayList<>(List.of("first"));
+        });
+        index.rebuild();
+        awaitCondition(() -> index.current() != null);
+        List<String> first = index.current();
+
+        index.rebuild();
+        awaitCondition(() -> builds.get() == 2);
+        index.apply(list -> list.add("after"));
+
+        assertThat(index.current()).isSameAs(first).containsExactly("first", "after");
+    }
+
+    @Test
+    void changeThatLeavesTheIndexStaleQueuesARebuild() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        RebuildableIndex<List<String>> index = new RebuildableIndex<>("test-index", true, () -> {
+            builds.incrementAndGet();
+            return new ArrayList<>();
+        }, List::size, list -> list.size() >= 2);
+        indexes.add(index);
+        index.rebuild();
+        awaitCondition(() -> index.current() != null);
+
+        index.apply(list -> list.add("one"));
+        index.apply(list -> list.add("two"));
+
+        awaitCondition(() -> builds.get() == 2);
+        awaitCondition(() -> index.current().isEmpty());
+    }
+
+    @Test
+    void disabledIndexIsNeverBuilt() {
+        AtomicInteger builds = new AtomicInteger();
+        RebuildableIndex<List<String>> index = index(false, () -> {
+            builds.incrementAndGet();
+            return new ArrayList<>();
+        });
+
+        index.rebuild();
+        index.apply(list -> list.add("ignored"));
+
+        assertThat(index.current()).isNull();
+        assertThat(index.size()).isZero();
+        assertThat(builds).hasValue(0);
+    }
+
+    private RebuildableIndex<List<String>> index(boolean enabled, Supplier<List<String>> scan) {
+        RebuildableIndex<List<String>> index = new RebuildableIndex<>("test-index", enabled, scan, List::size,
+                list -> false);
+        indexes.add(index);
+        return index;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
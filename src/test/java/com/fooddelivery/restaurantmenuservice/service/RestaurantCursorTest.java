@@ -0,0 +1,102 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestaurantCursorTest {
+
+    @Test
+    void nextCursorResumesAfterTheLastRestaurantOfThePage() {
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("createdAt")));
+        RestaurantCursor first = RestaurantCursor.resolve("Pune", pageable, null);
+        List<Restaurant> rows = List.of(
+                restaurant("r1", 4.5, LocalDateTime.of(2024, 1, 1, 10, 0)),
+                restaurant("r2", 4.0, LocalDateTime.of(2024, 1, 2, 10, 0)),
+                restaurant("r3", null, null));
+
+        String next = first.toPage(rows, pageable).getNextCursor();
+        RestaurantCursor resumed = RestaurantCursor.resolve(null, pageable, next);
+
+        assertThat(resumed.getCity()).isEqualTo("Pune");
+        assertThat(resumed.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("createdAt", "id")));
+        assertThat(resumed.getAfter()).containsExactly(4.0, date(LocalDateTime.of(2024, 1, 2, 10, 0)), "r2");
+        assertThat(resumed.getSkip()).isZero();
+    }
+
+    @Test
+    void nullSortValuesSurviveTheRoundTrip() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("rating"));
+        List<Restaurant> rows = new ArrayList<>(List.of(restaurant("r1", null, null), restaurant("r2", null, null)));
+
+        String next = RestaurantCursor.resolve("Pune", pageable, null).toPage(rows, pageable).getNextCursor();
+
+        assertThat(RestaurantCursor.resolve(null, pageable, next).getAfter()).containsExactly(null, "r1");
+    }
+
+    @Test
+    void rejectsQueryOperatorsInPlaceOfSortValues() {
+        Pageable pageable = PageRequest.of(0, 20);
+        for (String value : List.of("{\"$ne\": null}", "{\"$regex\": \".*\"}", "[\"r1\"]", "1", "true")) {
+            String cursor = cursor("{\"c\": \"Pune\", \"s\": [{\"p\": \"id\", \"d\": \"ASC\"}], \"v\": [" + value + "]}");
+            assertThatThrownBy(() -> RestaurantCursor.resolve(null, pageable, cursor))
+                    .as(value)
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("400");
+        }
+    }
+
+    @Test
+    void rejectsValuesOfAnotherSortProperty() {
+        Pageable pageable = PageRequest.of(0, 20);
+        String ratingAsText = cursor("{\"c\": \"Pune\", \"s\": [{\"p\": \"rating\", \"d\": \"DESC\"}, "
+                + "{\"p\": \"id\", \"d\": \"ASC\"}], \"v\": [\"4.5\", \"r1\"]}");
+        String cityAsDocument = cursor("{\"c\": {\"$ne\": null}, \"s\": [{\"p\": \"id\", \"d\": \"ASC\"}], \"v\": [\"r1\"]}");
+
+        assertThatThrownBy(() -> RestaurantCursor.resolve(null, pageable, ratingAsText))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> RestaurantCursor.resolve(null, pageable, cityAsDocument))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void rejectsUnknownSortProperties() {
+        assertThatThrownBy(() -> RestaurantCursor.resolve(null, PageRequest.of(0, 20, Sort.by("owner")), null))
+                .isInstanceOf(ResponseStatusException.class);
+        String cursor = cursor("{\"c\": \"Pune\", \"s\": [{\"p\": \"owner\", \"d\": \"ASC\"}], \"v\": [\"x\"]}");
+        assertThatThrownBy(() -> RestaurantCursor.resolve(null, PageRequest.of(0, 20), cursor))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static String cursor(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Date date(LocalDateTime value) {
+        return Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Restaurant restaurant(String id, Double rating, LocalDateTime createdAt) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName("Restaurant " + id);
+        restaurant.setCity("Pune");
+        restaurant.setRating(rating);
+        restaurant.setCreatedAt(createdAt);
+        return restaurant;
+    }
+}
@@ -0,0 +1,132 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import com.fooddelivery.restaurantmenuservice.model.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the listings against a plain map of restaurants that is filtered and sorted on every query, over random
+ * inserts, updates that reorder or move a restaurant, and removals.
+ */
+class RestaurantListingIndexTest {
+
+    private static final String[] CITIES = {"Pune", "PUNE", "Mumbai", "Goa", null};
+    private static final String[] CUISINES = {"Indian", "indian", "Italian", "Chinese", null};
+    private static final Boolean[] OPEN = {null, true, false};
+
+    @Test
+    void matchesTheReferenceListingOnRandomWrites() {
+        Random random = new Random(42);
+        RestaurantListingIndex index = new RestaurantListingIndex();
+        Map<String, Restaurant> reference = new HashMap<>();
+        for (int round = 0; round < 5000; round++) {
+            String id = "r" + random.nextInt(60);
+            if (random.nextInt(5) == 0) {
+                index.removeRestaurant(id);
+                reference.remove(id);
+            } else {
+                Restaurant restaurant = restaurant(id, random);
+                index.putRestaurant(restaurant);
+                reference.put(id, restaurant);
+            }
+            if (round % 500 == 0) {
+                // The bulk build must give the same listings as the writes did
+                index = RestaurantListingIndex.of(List.copyOf(reference.values()));
+            }
+            assertListings(index, reference, random, round);
+        }
+    }
+
+    @Test
+    void bulkBuildKeepsTheLastRowOfARepeatedRestaurant() {
+        Random random = new Random(7);
+        Restaurant first = restaurant("r1", random);
+        first.setCity("Pune");
+        Restaurant moved = restaurant("r1", random);
+        moved.setCity("Goa");
+
+        RestaurantListingIndex index = RestaurantListingIndex.of(List.of(first, moved));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.top("Pune", null, null, 10)).isEmpty();
+        assertThat(index.top("Goa", null, null, 10)).extracting(Restaurant::getId).containsExactly("r1");
+    }
+
+    @Test
+    void openFilterReturnsTheFirstMatchesHoweverManyRestaurantsDoNotMatch() {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(String.format("r%04d", i));
+            restaurant.setCity("Pune");
+            restaurant.setCuisine("Indian");
+            restaurant.setRating(5.0 - i / 1000.0);
+            // Only the lowest rated few are open
+            restaurant.setOpen(i >= 995);
+            restaurants.add(restaurant);
+        }
+        RestaurantListingIndex index = RestaurantListingIndex.of(restaurants);
+
+        assertThat(index.top("pune", "INDIAN", true, 3)).extracting(Restaurant::getId)
+                .containsExactly("r0995", "r0996", "r0997");
+        assertThat(index.top("Pune", null, false, 2)).extracting(Restaurant::getId).containsExactly("r0000", "r0001");
+        assertThat(index.top("Pune", "Italian", true, 3)).isEmpty();
+        assertThat(index.top(null, null, null, 3)).isEmpty();
+    }
+
+    private static void assertListings(RestaurantListingIndex index, Map<String, Restaurant> reference,
+                                       Random random, int round) {
+        assertThat(index.size()).as("round %d", round)
+                .isEqualTo((int) reference.values().stream().filter(r -> r.getCity() != null).count());
+        for (String city : new String[]{"pune", "Mumbai", "goa", "Delhi"}) {
+            for (String cuisine : CUISINES) {
+                for (Boolean open : OPEN) {
+                    int limit = 1 + random.nextInt(25);
+                    assertThat(rows(index.top(city, cuisine, open, limit)))
+                            .as("round %d: %s %s %s top %d", round, city, cuisine, open, limit)
+                            .isEqualTo(rows(reference(reference, city, cuisine, open, limit)));
+                }
+            }
+        }
+    }
+
+    /** The query spelled out over the whole catalog. */
+    private static List<Restaurant> reference(Map<String, Restaurant> restaurants, String city, String cuisine,
+                                              Boolean open, int limit) {
+        return restaurants.values().stream()
+                .filter(r -> r.getCity() != null && r.getCity().equalsIgnoreCase(city))
+                .filter(r -> cuisine == null || (r.getCuisine() != null && r.getCuisine().equalsIgnoreCase(cuisine)))
+                .filter(r -> open == null || r.isOpen() == open)
+                .sorted(Comparator.comparing(Restaurant::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Restaurant::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    private static List<String> rows(List<Restaurant> restaurants) {
+        return restaurants.stream()
+                .map(r -> String.join("|", r.getId(), r.getName(), String.valueOf(r.getCity()),
+                        String.valueOf(r.getCuisine()), String.valueOf(r.getRating()), String.valueOf(r.isOpen())))
+                .toList();
+    }
+
+    private static Restaurant restaurant(String id, Random random) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName("Restaurant " + id + " v" + random.nextInt(1000));
+        restaurant.setCity(CITIES[random.nextInt(CITIES.length)]);
+        restaurant.setCuisine(CUISINES[random.nextInt(CUISINES.length)]);
+        // Few distinct ratings, so ties are broken by id
+        restaurant.setRating(random.nextInt(6) == 0 ? null : (30 + random.nextInt(6) * 3) / 10.0);
+        restaurant.setOpen(random.nextInt(3) != 0);
+        return restaurant;
+    }
+}
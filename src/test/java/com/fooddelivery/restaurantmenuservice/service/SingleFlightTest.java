@@ -0,0 +1,190 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Callers are held inside the load with a latch, and followers are known to be waiting once the coalesced counter
+ * has counted them, so every interleaving checked here is forced rather than hoped for.
+ */
+class SingleFlightTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flight = new SingleFlight<>(registry, "test");
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersOfOneKeyShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> flight.call("r1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "menu of r1";
+        }));
+        awaitCondition(() -> loads.get() == 1);
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(executor.submit(() -> flight.call("r1", () -> {
+                loads.incrementAndGet();
+                return "own load";
+            })));
+        }
+        awaitCondition(() -> coalesced() == 8);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("menu of r1");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("menu of r1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void followersFailWithTheLoadersOwnException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("MongoDB timed out");
+        Future<String> leader = executor.submit(() -> flight.call("r1", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        await(started);
+        Future<String> follower = executor.submit(() -> flight.call("r1", () -> "own load"));
+        awaitCondition(() -> coalesced() == 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+
+    @Test
+    void differentKeysAndLaterCallsLoadOnTheirOwn() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(flight.call("r1", () -> "a" + loads.incrementAndGet())).isEqualTo("a1");
+        assertThat(flight.call("r2", () -> "b" + loads.incrementAndGet())).isEqualTo("b2");
+        // Nothing is cached once a load has finished
+        assertThat(flight.call("r1", () -> "a" + loads.incrementAndGet())).isEqualTo("a3");
+        assertThat(coalesced()).isZero();
+    }
+
+    @Test
+    void asyncCallersShareOneSubscriptionToTheLoad() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> load = Mono.fromFuture(source).doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+
+        CompletableFuture<String> first = flight.callAsync("r1", () -> load).toFuture();
+        CompletableFuture<String> second = flight.callAsync("r1", () -> load).toFuture();
+        source.complete("menu of r1");
+
+        assertThat(first.join()).isEqualTo("menu of r1");
+        assertThat(second.join()).isEqualTo("menu of r1");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(coalesced()).isEqualTo(1);
+        // Finished: the next call subscribes again
+        assertThat(flight.callAsync("r1", () -> Mono.just("reloaded")).block()).isEqualTo("reloaded");
+    }
+
+    @Test
+    void cancellingOneAsyncCallerLeavesTheLoadToTheOthers() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        AtomicInteger cancelled = new AtomicInteger();
+        Mono<String> load = Mono.fromFuture(source).doOnCancel(cancelled::incrementAndGet);
+
+        Disposable leader = flight.callAsync("r1", () -> load).subscribe();
+        CompletableFuture<String> follower = flight.callAsync("r1", () -> load).toFuture();
+        leader.dispose();
+        source.complete("menu of r1");
+
+        assertThat(follower.join()).isEqualTo("menu of r1");
+        assertThat(cancelled).hasValue(0);
+    }
+
+    @Test
+    void emptyAndFailedAsyncLoadsReachEveryCaller() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        Mono<String> empty = Mono.fromFuture(source);
+        CompletableFuture<String> first = flight.callAsync("r1", () -> empty).toFuture();
+        CompletableFuture<String> second = flight.callAsync("r1", () -> empty).toFuture();
+        source.complete(null);
+
+        assertThat(first.join()).isNull();
+        assertThat(second.join()).isNull();
+
+        IllegalStateException failure = new IllegalStateException("MongoDB timed out");
+        CompletableFuture<String> failing = new CompletableFuture<>();
+        Mono<String> failed = Mono.fromFuture(failing);
+        Mono<String> third = flight.callAsync("r1", () -> failed);
+        Mono<String> fourth = flight.callAsync("r1", () -> failed);
+        CompletableFuture<String> thirdResult = third.toFuture();
+        CompletableFuture<String> fourthResult = fourth.toFuture();
+        failing.completeExceptionally(failure);
+
+        assertThatThrownBy(thirdResult::join).hasCause(failure);
+        assertThatThrownBy(fourthResult::join).hasCause(failure);
+    }
+
+    @Test
+    void asyncLoadThatThrowsFailsItsCallerAndFreesTheKey() {
+        IllegalStateException failure = new IllegalStateException("no connection");
+        Mono<String> thrown = flight.callAsync("r1", () -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(thrown::block).isSameAs(failure);
+        assertThat(flight.callAsync("r1", () -> Mono.just("reloaded")).block()).isEqualTo("reloaded");
+        assertThat(coalesced()).isZero();
+    }
+
+    private double coalesced() {
+        return registry.get("menu.read.coalesced").tag("lookup", "test").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Test latch was never released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not reached within 5 seconds");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
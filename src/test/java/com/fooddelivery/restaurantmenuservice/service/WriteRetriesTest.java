@@ -0,0 +1,100 @@
+package com.fooddelivery.restaurantmenuservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteRetriesTest {
+
+    @Test
+    void retriesTransientFailuresUpToMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        long result = WriteRetries.call(3, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            return 7L;
+        });
+
+        assertThat(result).isEqualTo(7);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsWithTheLastFailure() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> WriteRetries.call(2, () -> {
+            throw new QueryTimeoutException("attempt " + attempts.incrementAndGet());
+        })).isInstanceOf(QueryTimeoutException.class).hasMessage("attempt 2");
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> WriteRetries.call(3, () -> {
+            attempts.incrementAndGet();
+            throw new DuplicateKeyException("duplicate");
+        })).isInstanceOf(DuplicateKeyException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void sumIsTheWritesOwnCountWithoutARetry() {
+        AtomicInteger counted = new AtomicInteger();
+
+        long changed = WriteRetries.sum(3, () -> 4L, () -> counted.incrementAndGet());
+
+        assertThat(changed).isEqualTo(4);
+        assertThat(counted).hasValue(0);
+    }
+
+    @Test
+    void sumIncludesWhatAFailedAttemptChanged() {
+        // 5 items to change: the first attempt changes 3 and then loses its connection, the retry changes the other 2
+        int[] changedSoFar = {0};
+        AtomicInteger attempts = new AtomicInteger();
+
+        long changed = WriteRetries.sum(3, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                changedSoFar[0] += 3;
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            changedSoFar[0] += 2;
+            return 2L;
+        }, () -> changedSoFar[0]);
+
+        assertThat(changed).isEqualTo(5);
+    }
+
+    @Test
+    void reactiveSumIncludesWhatAFailedAttemptChanged() {
+        int[] changedSoFar = {0};
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<Long> write = Mono.fromCallable(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                changedSoFar[0] += 3;
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            changedSoFar[0] += 2;
+            return 2L;
+        });
+
+        assertThat(WriteRetries.sum(3, write, Mono.fromCallable(() -> (long) changedSoFar[0])).block()).isEqualTo(5);
+        assertThat(attempts).hasValue(2);
+
+        AtomicInteger counted = new AtomicInteger();
+        assertThat(WriteRetries.sum(3, Mono.just(4L), Mono.fromCallable(() -> (long) counted.incrementAndGet())).block())
+                .isEqualTo(4);
+        assertThat(counted).hasValue(0);
+    }
+}